@@ -0,0 +1,82 @@
+package org.example.benchmarks;
+
+import org.example.enums.FuelType;
+import org.example.enums.VehicleType;
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generator of vehicles and temporary files for benchmarks
+ */
+public class BenchmarkData {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2020, 1, 1);
+    private static final FuelType[] FUEL_TYPES = FuelType.values();
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Method to generate vehicles with ids from 0 to size - 1 and random other fields
+     * @param size count of vehicles
+     * @param seed of random generator, so every run gets the same data
+     * @return vehicles
+     */
+    public static List<Vehicle> vehicles(int size, long seed) {
+        Random random = new Random(seed);
+        List<Vehicle> vehicles = new ArrayList<>(size);
+        for (int id = 0; id < size; id++) {
+            vehicles.add(new Vehicle(
+                    id,
+                    "vehicle-" + random.nextInt(1_000_000),
+                    new Coordinates(random.nextInt(2000) - 500, random.nextInt(2000) - 250),
+                    FIRST_DATE.plusDays(random.nextInt(2000)),
+                    1 + random.nextInt(100_000),
+                    random.nextInt(5) == 0 ? null : VEHICLE_TYPES[random.nextInt(VEHICLE_TYPES.length)],
+                    FUEL_TYPES[random.nextInt(FUEL_TYPES.length)]
+            ));
+        }
+
+        return vehicles;
+    }
+
+    /**
+     * Method to get random ids from 0 to size - 1
+     * @param size count of vehicles
+     * @param count of ids, must be power of two
+     * @param seed of random generator
+     * @return ids
+     */
+    public static int[] ids(int size, int count, long seed) {
+        Random random = new Random(seed);
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = random.nextInt(size);
+        }
+
+        return ids;
+    }
+
+    /**
+     * Method to delete temporary directory with all files in it
+     * @param directory to delete
+     * @throws IOException If an I/O error occurs
+     */
+    public static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.benchmarks;
+
+import org.example.enums.FsyncPolicy;
+import org.example.models.Vehicle;
+import org.example.repositories.VehicleRepository;
+import org.example.repositories.VehicleSource;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Repository, which doesn't touch disk, so service benchmarks measure only work in memory
+ */
+public class InMemoryVehicleRepository extends VehicleRepository {
+    public InMemoryVehicleRepository() {
+        super("in-memory", FsyncPolicy.NEVER);
+    }
+
+    @Override
+    protected void readSnapshot(Path path, Consumer<Vehicle> action) {
+    }
+
+    @Override
+    protected void writeSnapshot(FileChannel channel, VehicleSource vehicles) {
+    }
+
+    @Override
+    public void logPut(Collection<Vehicle> vehicles) {
+    }
+
+    @Override
+    public void logRemove(Collection<Vehicle> vehicles) {
+    }
+
+    @Override
+    public void logClear() {
+    }
+}
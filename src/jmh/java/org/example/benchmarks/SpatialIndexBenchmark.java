@@ -0,0 +1,121 @@
+package org.example.benchmarks;
+
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+import org.example.services.VehicleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of within and nearest queries by grid index against linear scan of the same collection.
+ * Query points are random points of area, where benchmark data places vehicles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class SpatialIndexBenchmark {
+    private static final int POINTS_COUNT = 1 << 10;
+    private static final int AREA_SIDE = 2000;
+    private static final int WITHIN_SIDE = 50;
+    private static final int NEAREST_COUNT = 10;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private VehicleService service;
+    private List<Vehicle> vehicles;
+    private int[] xs;
+    private int[] ys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        vehicles = BenchmarkData.vehicles(size, 42);
+        service = new VehicleService(vehicles, new InMemoryVehicleRepository());
+        Random random = new Random(44);
+        xs = new int[POINTS_COUNT];
+        ys = new int[POINTS_COUNT];
+        for (int i = 0; i < POINTS_COUNT; i++) {
+            xs[i] = random.nextInt(AREA_SIDE) - 500;
+            ys[i] = random.nextInt(AREA_SIDE) - 250;
+        }
+    }
+
+    @Benchmark
+    public List<Vehicle> withinIndex() {
+        int point = nextPoint();
+        return service.within(xs[point], ys[point], xs[point] + WITHIN_SIDE, ys[point] + WITHIN_SIDE);
+    }
+
+    @Benchmark
+    public List<Vehicle> withinScan() {
+        int point = nextPoint();
+        int left = xs[point];
+        int bottom = ys[point];
+        List<Vehicle> found = new ArrayList<>();
+        service.forEach(vehicle -> {
+            Coordinates coordinates = vehicle.getCoordinates();
+            if (coordinates.getX() >= left && coordinates.getX() <= left + WITHIN_SIDE
+                    && coordinates.getY() >= bottom && coordinates.getY() <= bottom + WITHIN_SIDE) {
+                found.add(vehicle);
+            }
+        });
+        return found;
+    }
+
+    @Benchmark
+    public List<Vehicle> nearestIndex() {
+        int point = nextPoint();
+        return service.nearest(xs[point], ys[point], NEAREST_COUNT);
+    }
+
+    @Benchmark
+    public List<Vehicle> nearestScan() {
+        int point = nextPoint();
+        int x = xs[point];
+        int y = ys[point];
+        Comparator<Vehicle> order = Comparator.comparingDouble((Vehicle vehicle) -> distance(vehicle, x, y))
+                .thenComparingInt(Vehicle::getId);
+        PriorityQueue<Vehicle> nearest = new PriorityQueue<>(NEAREST_COUNT + 1, order.reversed());
+        service.forEach(vehicle -> {
+            nearest.add(vehicle);
+            if (nearest.size() > NEAREST_COUNT) {
+                nearest.poll();
+            }
+        });
+        List<Vehicle> found = new ArrayList<>(nearest);
+        found.sort(order);
+        return found;
+    }
+
+    private int nextPoint() {
+        next = (next + 1) & (POINTS_COUNT - 1);
+        return next;
+    }
+
+    private static double distance(Vehicle vehicle, int x, int y) {
+        double dx = (double) vehicle.getCoordinates().getX() - x;
+        double dy = (double) vehicle.getCoordinates().getY() - y;
+        return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.benchmarks;
+
+import org.example.models.Vehicle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of comparing vehicles: one comparison and sorting of whole collection
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class VehicleBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private Vehicle[] vehicles;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        vehicles = BenchmarkData.vehicles(size, 42).toArray(new Vehicle[0]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int compareTo() {
+        if (++next == vehicles.length) {
+            next = 1;
+        }
+
+        return vehicles[next - 1].compareTo(vehicles[next]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Vehicle> sort() {
+        List<Vehicle> sorted = new ArrayList<>(List.of(vehicles));
+        sorted.sort(null);
+        return sorted;
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.benchmarks;
+
+import org.example.enums.FsyncPolicy;
+import org.example.models.Vehicle;
+import org.example.repositories.VehicleJSONRepository;
+import org.example.services.VehicleService;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of reading and writing json file with whole collection
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class VehicleRepositoryBenchmark {
+
+    /**
+     * Json file with saved collection, only the file is kept in memory
+     */
+    @State(Scope.Benchmark)
+    public static class SavedFile {
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        public int size;
+
+        private Path directory;
+        private VehicleJSONRepository repository;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("vehicle-benchmark");
+            repository = new VehicleJSONRepository(directory.resolve("vehicles.json").toString(), FsyncPolicy.NEVER);
+            new VehicleService(BenchmarkData.vehicles(size, 42), repository).save();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            BenchmarkData.delete(directory);
+        }
+    }
+
+    /**
+     * Collection in memory, which is saved to json file
+     */
+    @State(Scope.Benchmark)
+    public static class LoadedService {
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        public int size;
+
+        private Path directory;
+        private VehicleService service;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("vehicle-benchmark");
+            VehicleJSONRepository repository = new VehicleJSONRepository(
+                    directory.resolve("vehicles.json").toString(),
+                    FsyncPolicy.NEVER
+            );
+            service = new VehicleService(BenchmarkData.vehicles(size, 42), repository);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            BenchmarkData.delete(directory);
+        }
+    }
+
+    @Benchmark
+    public Collection<Vehicle> read(SavedFile file) throws IOException, ParseException {
+        return file.repository.readCollection();
+    }
+
+    @Benchmark
+    public void write(LoadedService loaded) throws IOException {
+        loaded.service.save();
+    }
+}
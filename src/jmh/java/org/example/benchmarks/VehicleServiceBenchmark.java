@@ -0,0 +1,129 @@
+package org.example.benchmarks;
+
+import org.example.enums.FuelType;
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+import org.example.services.VehicleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of service operations over collection in memory.
+ * Operations, which change collection, restore it in the same invocation, so size stays the same
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class VehicleServiceBenchmark {
+    private static final int IDS_COUNT = 1 << 16;
+    private static final int GREATER_PART = 100;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private VehicleService service;
+    private int[] ids;
+    private int next;
+    private Vehicle pivot;
+    private List<Vehicle> greaterThanPivot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Vehicle> vehicles = BenchmarkData.vehicles(size, 42);
+        service = new VehicleService(vehicles, new InMemoryVehicleRepository());
+        ids = BenchmarkData.ids(size, IDS_COUNT, 43);
+
+        List<Vehicle> sorted = new ArrayList<>(vehicles);
+        sorted.sort(null);
+        int pivotIndex = sorted.size() - sorted.size() / GREATER_PART - 1;
+        pivot = sorted.get(pivotIndex);
+        greaterThanPivot = new ArrayList<>(sorted.subList(pivotIndex + 1, sorted.size()));
+    }
+
+    /**
+     * New vehicle is added and removed back
+     */
+    @Benchmark
+    public Vehicle add() {
+        Vehicle vehicle = new Vehicle("vehicle", new Coordinates(1, 1), 100, null, FuelType.KEROSENE);
+        service.add(vehicle);
+        service.removeById(vehicle.getId());
+        return vehicle;
+    }
+
+    @Benchmark
+    public Vehicle getById() {
+        return service.getById(nextId());
+    }
+
+    /**
+     * Random vehicle is removed and added back
+     */
+    @Benchmark
+    public Vehicle removeById() {
+        Vehicle vehicle = service.getById(nextId());
+        service.removeById(vehicle.getId());
+        service.add(vehicle);
+        return vehicle;
+    }
+
+    /**
+     * The greatest 1% of vehicles is removed and added back
+     */
+    @Benchmark
+    public void removeGreater() {
+        service.removeGreater(pivot);
+        service.addAll(greaterThanPivot);
+    }
+
+    @Benchmark
+    public List<Vehicle> filterLessThanFuelType() {
+        return service.filterLessThanFuelType(FuelType.KEROSENE);
+    }
+
+    @Benchmark
+    public double averageOfEnginePower() {
+        return service.averageOfEnginePower().orElse(0);
+    }
+
+    @Benchmark
+    public List<Vehicle> getCollection() {
+        return service.getCollection();
+    }
+
+    @Benchmark
+    public int size() {
+        return service.size();
+    }
+
+    @Benchmark
+    public long streamSum() {
+        return service.stream().mapToLong(Vehicle::getEnginePower).sum();
+    }
+
+    @Benchmark
+    public long parallelStreamSum() {
+        return service.stream().parallel().mapToLong(Vehicle::getEnginePower).sum();
+    }
+
+    private int nextId() {
+        return ids[next++ & (IDS_COUNT - 1)];
+    }
+}
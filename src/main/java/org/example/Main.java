@@ -1,12 +1,20 @@
 package org.example;
 
 import org.example.console.Console;
-import org.example.repositories.VehicleJSONRepository;
+import org.example.enums.FsyncPolicy;
+import org.example.enums.StorageType;
+import org.example.metrics.VehicleMetrics;
+import org.example.repositories.VehicleRepository;
+import org.example.server.VehicleServer;
+import org.example.services.ConcurrentVehicleService;
 import org.example.services.VehicleService;
 import org.json.simple.parser.ParseException;
 
+import javax.management.JMException;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.nio.file.Path;
 
 /**
  * Main application class
@@ -14,11 +22,29 @@ import java.io.InputStreamReader;
 public class Main {
     public static void main(String[] args) {
         try {
-            VehicleJSONRepository repository = new VehicleJSONRepository("file.txt");
-            VehicleService service = repository.read();
-            Console console = new Console(service, new InputStreamReader(System.in));
-            console.run();
-        } catch (IOException | ParseException e) {
+            VehicleMetrics.global().registerMBean();
+            FsyncPolicy fsyncPolicy = FsyncPolicy.valueOf(System.getProperty("fsync", FsyncPolicy.ALWAYS.name()));
+            String file = System.getProperty("file", "file.txt");
+            int parseThreads = Integer.parseInt(
+                    System.getProperty("parseThreads", String.valueOf(Runtime.getRuntime().availableProcessors()))
+            );
+            VehicleRepository repository = VehicleRepository.forFile(file, fsyncPolicy, parseThreads);
+            StorageType storageType = StorageType.valueOf(System.getProperty("storage", StorageType.OBJECTS.name()));
+            String port = System.getProperty("port");
+            if (port == null) {
+                VehicleService service = repository.read(storageType);
+                Console console = new Console(service, new InputStreamReader(System.in));
+                console.run();
+            } else {
+                VehicleService service = new ConcurrentVehicleService(repository.readStorage(storageType), repository);
+                String bind = System.getProperty("bind");
+                InetAddress address = bind == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(bind);
+                String dataDir = System.getProperty("dataDir");
+                Path dataDirectory = dataDir == null ? Path.of(file).toAbsolutePath().getParent() : Path.of(dataDir);
+                int maxConnections = Integer.parseInt(System.getProperty("maxConnections", "1024"));
+                new VehicleServer(service, address, Integer.parseInt(port), dataDirectory, maxConnections).run();
+            }
+        } catch (IOException | ParseException | JMException e) {
             e.printStackTrace();
             System.exit(1);
         }
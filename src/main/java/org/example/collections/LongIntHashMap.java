@@ -0,0 +1,177 @@
+package org.example.collections;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from long keys to non-negative int values without boxing
+ */
+public class LongIntHashMap {
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    /**
+     * Map of the largest capacity keeps a quarter of cells free like smaller maps
+     */
+    private static final int MAX_SIZE = MAX_CAPACITY / 4 * 3;
+
+    private long[] keys;
+    /**
+     * Values are stored increased by 1, so 0 marks free cell
+     */
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public LongIntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Method to get value by key
+     * @param key to find
+     * @return value or -1, if map doesn't contain key
+     */
+    public int get(long key) {
+        for (int i = index(key); values[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i] - 1;
+            }
+        }
+
+        return -1;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) >= 0;
+    }
+
+    /**
+     * Method to put value by key
+     * @param key to put
+     * @param value non-negative value
+     * @return previous value or -1, if map didn't contain key
+     * @throws IllegalStateException if map already has the largest number of keys and key is new
+     */
+    public int put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Expected value >= 0, but value = " + value);
+        }
+
+        int i = index(key);
+        for (; values[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                int previous = values[i] - 1;
+                values[i] = value + 1;
+                return previous;
+            }
+        }
+
+        if (size == MAX_SIZE) {
+            throw new IllegalStateException("Map can't have more than " + MAX_SIZE + " keys");
+        }
+
+        keys[i] = key;
+        values[i] = value + 1;
+        if (++size > (mask + 1) / 4 * 3) {
+            rehash((mask + 1) * 2);
+        }
+
+        return -1;
+    }
+
+    /**
+     * Method to remove key with backward shift, so no tombstones are left
+     * @param key to remove
+     * @return removed value or -1, if map didn't contain key
+     */
+    public int remove(long key) {
+        int i = index(key);
+        for (; values[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                break;
+            }
+        }
+
+        if (values[i] == 0) {
+            return -1;
+        }
+
+        int removed = values[i] - 1;
+        int free = i;
+        for (int j = (i + 1) & mask; values[j] != 0; j = (j + 1) & mask) {
+            int home = index(keys[j]);
+            if (((j - home) & mask) >= ((j - free) & mask)) {
+                keys[free] = keys[j];
+                values[free] = values[j];
+                free = j;
+            }
+        }
+
+        values[free] = 0;
+        size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    private int index(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != 0) {
+                int j = index(oldKeys[i]);
+                while (values[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Method to find capacity, which holds expected number of keys without rehashing
+     * @param expectedSize expected number of keys
+     * @return power of two from 16 to 2^30
+     * @throws IllegalArgumentException if even the largest capacity can't hold expected number of keys
+     */
+    private static int capacityFor(int expectedSize) {
+        if (expectedSize > MAX_SIZE) {
+            throw new IllegalArgumentException("Expected size <= " + MAX_SIZE + ", but expected size = " + expectedSize);
+        }
+
+        int capacity = MIN_CAPACITY;
+        while (capacity / 4 * 3 < expectedSize) {
+            capacity <<= 1;
+        }
+
+        return capacity;
+    }
+}
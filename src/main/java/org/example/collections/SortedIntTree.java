@@ -0,0 +1,600 @@
+package org.example.collections;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Sorted set of distinct ints in B+ tree. Values are kept in leaves, which are small sorted arrays,
+ * and every node knows count of values under it, so values are added, removed and found by position
+ * in logarithmic time. Many values at once are merged into sorted array and tree is built again
+ */
+public class SortedIntTree {
+    private static final int MIN_LEAF_CAPACITY = 4;
+    private static final int LEAF_CAPACITY = 128;
+    private static final int INNER_CAPACITY = 64;
+    /**
+     * Nodes of built tree are filled only partly, so next values are added without splitting them
+     */
+    private static final int LEAF_FILL = LEAF_CAPACITY * 3 / 4;
+    private static final int INNER_FILL = INNER_CAPACITY * 3 / 4;
+    /**
+     * Bulk change, which takes more than this part of tree, is done by building tree again
+     */
+    private static final int REBUILD_DIVISOR = 8;
+
+    private Node root = new Leaf(MIN_LEAF_CAPACITY);
+
+    public int size() {
+        return root.size;
+    }
+
+    public boolean isEmpty() {
+        return root.size == 0;
+    }
+
+    /**
+     * Method to get value by position
+     * @param index position in sorted order
+     * @return value
+     */
+    public int get(int index) {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            int child = 0;
+            while (index >= inner.children[child].size) {
+                index -= inner.children[child++].size;
+            }
+
+            node = inner.children[child];
+        }
+
+        return ((Leaf) node).values[index];
+    }
+
+    /**
+     * Method to find position of first value, which is not less than given
+     * @param value to find
+     * @return position in sorted order
+     */
+    public int lowerBound(int value) {
+        int position = 0;
+        Node node = root;
+        while (node instanceof Inner inner) {
+            int child = inner.childFor(value);
+            for (int i = 0; i < child; i++) {
+                position += inner.children[i].size;
+            }
+
+            node = inner.children[child];
+        }
+
+        return position + ((Leaf) node).lowerBound(value);
+    }
+
+    /**
+     * Method to find position of first value, which is greater than given
+     * @param value to find
+     * @return position in sorted order
+     */
+    public int upperBound(int value) {
+        int index = lowerBound(value);
+        return index < size() && get(index) == value ? index + 1 : index;
+    }
+
+    public boolean contains(int value) {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[inner.childFor(value)];
+        }
+
+        Leaf leaf = (Leaf) node;
+        int index = leaf.lowerBound(value);
+        return index < leaf.size && leaf.values[index] == value;
+    }
+
+    /**
+     * Method to add value
+     * @param value to add
+     * @return false if value was already added
+     */
+    public boolean add(int value) {
+        if (contains(value)) {
+            return false;
+        }
+
+        Node split = insert(root, value);
+        if (split != null) {
+            Inner newRoot = new Inner();
+            newRoot.append(root, Integer.MIN_VALUE);
+            newRoot.append(split, split.low());
+            root = newRoot;
+        }
+
+        return true;
+    }
+
+    /**
+     * Method to add many values, tree is built again, when there are many of them
+     * @param sorted values in ascending order without repeats
+     */
+    public void addAll(int[] sorted) {
+        if (sorted.length <= size() / REBUILD_DIVISOR) {
+            for (int value : sorted) {
+                add(value);
+            }
+
+            return;
+        }
+
+        int[] values = toArray();
+        int[] target = new int[values.length + sorted.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < values.length && j < sorted.length) {
+            if (values[i] < sorted[j]) {
+                target[k++] = values[i++];
+            } else if (values[i] > sorted[j]) {
+                target[k++] = sorted[j++];
+            } else {
+                target[k++] = values[i++];
+                j++;
+            }
+        }
+
+        while (i < values.length) {
+            target[k++] = values[i++];
+        }
+
+        while (j < sorted.length) {
+            target[k++] = sorted[j++];
+        }
+
+        build(target, k);
+    }
+
+    /**
+     * Method to remove value
+     * @param value to remove
+     * @return false if there was no such value
+     */
+    public boolean remove(int value) {
+        if (!contains(value)) {
+            return false;
+        }
+
+        delete(root, value);
+        shrinkRoot();
+        return true;
+    }
+
+    /**
+     * Method to remove many values, tree is built again, when there are many of them
+     * @param sorted values in ascending order
+     */
+    public void removeAll(int[] sorted) {
+        if (sorted.length <= size() / REBUILD_DIVISOR) {
+            for (int value : sorted) {
+                remove(value);
+            }
+
+            return;
+        }
+
+        int[] values = toArray();
+        int to = 0;
+        int j = 0;
+        for (int value : values) {
+            while (j < sorted.length && sorted[j] < value) {
+                j++;
+            }
+
+            if (j == sorted.length || sorted[j] != value) {
+                values[to++] = value;
+            }
+        }
+
+        build(values, to);
+    }
+
+    /**
+     * Method to remove values between positions
+     * @param from first position to remove
+     * @param to position after last removed one
+     */
+    public void removeRange(int from, int to) {
+        int count = to - from;
+        if (count == 0) {
+            return;
+        }
+
+        if (count <= size() / REBUILD_DIVISOR) {
+            for (int i = 0; i < count; i++) {
+                remove(get(from));
+            }
+
+            return;
+        }
+
+        int[] values = toArray();
+        System.arraycopy(values, to, values, from, values.length - to);
+        build(values, values.length - count);
+    }
+
+    public void clear() {
+        root = new Leaf(MIN_LEAF_CAPACITY);
+    }
+
+    /**
+     * Method to walk through values between positions in ascending order
+     * @param from first position
+     * @param to position after last one
+     * @param action to perform for each value
+     */
+    public void forEach(int from, int to, IntConsumer action) {
+        if (from < to) {
+            walk(root, from, to, action);
+        }
+    }
+
+    public void forEach(IntConsumer action) {
+        forEach(0, size(), action);
+    }
+
+    /**
+     * Method to walk through values in descending order
+     * @param action to perform for each value
+     */
+    public void forEachDescending(IntConsumer action) {
+        forEachDescending(0, size(), action);
+    }
+
+    /**
+     * Method to walk through values between positions in descending order
+     * @param from first position
+     * @param to position after last one
+     * @param action to perform for each value
+     */
+    public void forEachDescending(int from, int to, IntConsumer action) {
+        if (from < to) {
+            walkDescending(root, from, to, action);
+        }
+    }
+
+    public int[] toArray() {
+        int[] values = new int[size()];
+        int[] count = new int[1];
+        forEach(value -> values[count[0]++] = value);
+        return values;
+    }
+
+    /**
+     * Method to add value, which isn't in subtree yet
+     * @param node root of subtree
+     * @param value to add
+     * @return new right neighbour of node, if node was split, otherwise null
+     */
+    private static Node insert(Node node, int value) {
+        if (node instanceof Leaf leaf) {
+            return leaf.insert(value);
+        }
+
+        Inner inner = (Inner) node;
+        int child = inner.childFor(value);
+        inner.size++;
+        Node split = insert(inner.children[child], value);
+        if (split == null) {
+            return null;
+        }
+
+        inner.insert(child + 1, split, split.low());
+        return inner.count > INNER_CAPACITY ? inner.split() : null;
+    }
+
+    /**
+     * Method to remove value, which is in subtree. Emptied children are dropped
+     * and small children are merged with their neighbours
+     * @param node root of subtree
+     * @param value to remove
+     */
+    private static void delete(Node node, int value) {
+        if (node instanceof Leaf leaf) {
+            leaf.delete(value);
+            return;
+        }
+
+        Inner inner = (Inner) node;
+        int child = inner.childFor(value);
+        inner.size--;
+        delete(inner.children[child], value);
+        inner.rebalance(child);
+    }
+
+    /**
+     * Method to lower tree, while root has only one child
+     */
+    private void shrinkRoot() {
+        while (root instanceof Inner inner && inner.count <= 1) {
+            root = inner.count == 0 ? new Leaf(MIN_LEAF_CAPACITY) : inner.children[0];
+        }
+    }
+
+    private static void walk(Node node, int from, int to, IntConsumer action) {
+        if (node instanceof Leaf leaf) {
+            for (int i = from; i < to; i++) {
+                action.accept(leaf.values[i]);
+            }
+
+            return;
+        }
+
+        Inner inner = (Inner) node;
+        int offset = 0;
+        for (int i = 0; i < inner.count && offset < to; i++) {
+            Node child = inner.children[i];
+            if (offset + child.size > from) {
+                walk(child, Math.max(from - offset, 0), Math.min(to - offset, child.size), action);
+            }
+
+            offset += child.size;
+        }
+    }
+
+    private static void walkDescending(Node node, int from, int to, IntConsumer action) {
+        if (node instanceof Leaf leaf) {
+            for (int i = to - 1; i >= from; i--) {
+                action.accept(leaf.values[i]);
+            }
+
+            return;
+        }
+
+        Inner inner = (Inner) node;
+        int offset = inner.size;
+        for (int i = inner.count - 1; i >= 0 && offset > from; i--) {
+            Node child = inner.children[i];
+            offset -= child.size;
+            if (offset < to) {
+                walkDescending(child, Math.max(from - offset, 0), Math.min(to - offset, child.size), action);
+            }
+        }
+    }
+
+    /**
+     * Method to replace tree with new one, which is built from sorted values level by level
+     * @param sorted values in ascending order without repeats
+     * @param length count of values to take
+     */
+    private void build(int[] sorted, int length) {
+        if (length <= LEAF_CAPACITY) {
+            Leaf leaf = new Leaf(Math.max(MIN_LEAF_CAPACITY, length));
+            System.arraycopy(sorted, 0, leaf.values, 0, length);
+            leaf.size = length;
+            root = leaf;
+            return;
+        }
+
+        Node[] level = new Node[(length + LEAF_FILL - 1) / LEAF_FILL];
+        for (int i = 0; i < level.length; i++) {
+            Leaf leaf = new Leaf(LEAF_CAPACITY);
+            leaf.size = Math.min(LEAF_FILL, length - i * LEAF_FILL);
+            System.arraycopy(sorted, i * LEAF_FILL, leaf.values, 0, leaf.size);
+            level[i] = leaf;
+        }
+
+        while (level.length > 1) {
+            Node[] upper = new Node[(level.length + INNER_FILL - 1) / INNER_FILL];
+            for (int i = 0; i < upper.length; i++) {
+                Inner inner = new Inner();
+                for (int j = i * INNER_FILL; j < Math.min(level.length, (i + 1) * INNER_FILL); j++) {
+                    inner.append(level[j], level[j].low());
+                }
+
+                upper[i] = inner;
+            }
+
+            level = upper;
+        }
+
+        root = level[0];
+    }
+
+    /**
+     * Node of tree, which knows count of values under it
+     */
+    private abstract static class Node {
+        int size;
+
+        /**
+         * Method to get bound, which isn't greater than any value under node
+         * @return lower bound of values
+         */
+        abstract int low();
+    }
+
+    /**
+     * Node with sorted values, array grows up to capacity, so small sets take little memory
+     */
+    private static class Leaf extends Node {
+        private int[] values;
+
+        private Leaf(int capacity) {
+            values = new int[capacity];
+        }
+
+        @Override
+        int low() {
+            return values[0];
+        }
+
+        private int lowerBound(int value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            return low;
+        }
+
+        /**
+         * Method to add value, which isn't in leaf yet. Full leaf is split in halves
+         * @param value to add
+         * @return new right half or null, if leaf wasn't split
+         */
+        private Leaf insert(int value) {
+            Leaf target = this;
+            Leaf split = null;
+            if (size == values.length) {
+                if (values.length < LEAF_CAPACITY) {
+                    values = Arrays.copyOf(values, Math.min(values.length * 2, LEAF_CAPACITY));
+                } else {
+                    split = new Leaf(LEAF_CAPACITY);
+                    split.size = size / 2;
+                    size -= split.size;
+                    System.arraycopy(values, size, split.values, 0, split.size);
+                    if (value >= split.values[0]) {
+                        target = split;
+                    }
+                }
+            }
+
+            int index = target.lowerBound(value);
+            System.arraycopy(target.values, index, target.values, index + 1, target.size - index);
+            target.values[index] = value;
+            target.size++;
+            return split;
+        }
+
+        private void delete(int value) {
+            int index = lowerBound(value);
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Node with children, every child except the first one has lower bound of its values,
+     * by which child for value is found. Bound isn't raised, when the least value of child is removed,
+     * it still separates child from the previous one
+     */
+    private static class Inner extends Node {
+        private final Node[] children = new Node[INNER_CAPACITY + 1];
+        private final int[] lows = new int[INNER_CAPACITY + 1];
+        private int count;
+
+        @Override
+        int low() {
+            return lows[0];
+        }
+
+        /**
+         * Method to find child, which keeps value or should keep it
+         * @param value to find
+         * @return index of the last child, which lower bound isn't greater than value
+         */
+        private int childFor(int value) {
+            int low = 1;
+            int high = count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (lows[middle] <= value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            return low - 1;
+        }
+
+        private void append(Node child, int low) {
+            insert(count, child, low);
+            size += child.size;
+        }
+
+        private void insert(int index, Node child, int low) {
+            System.arraycopy(children, index, children, index + 1, count - index);
+            System.arraycopy(lows, index, lows, index + 1, count - index);
+            children[index] = child;
+            lows[index] = low;
+            count++;
+        }
+
+        private void removeChild(int index) {
+            System.arraycopy(children, index + 1, children, index, count - index - 1);
+            System.arraycopy(lows, index + 1, lows, index, count - index - 1);
+            children[--count] = null;
+        }
+
+        /**
+         * Method to move the second half of children to new node
+         * @return new right neighbour
+         */
+        private Inner split() {
+            Inner split = new Inner();
+            int half = count / 2;
+            for (int i = half; i < count; i++) {
+                split.append(children[i], lows[i]);
+                children[i] = null;
+            }
+
+            count = half;
+            size -= split.size;
+            return split;
+        }
+
+        /**
+         * Method to drop child, when it is empty, or merge it with neighbour, when it is small
+         * and both of them fit into one node
+         * @param index of child, which has lost value
+         */
+        private void rebalance(int index) {
+            Node child = children[index];
+            if (child.size == 0) {
+                removeChild(index);
+                return;
+            }
+
+            if (count < 2 || !isSmall(child)) {
+                return;
+            }
+
+            int left = index == count - 1 ? index - 1 : index;
+            if (children[left] instanceof Leaf leftLeaf) {
+                Leaf rightLeaf = (Leaf) children[left + 1];
+                if (leftLeaf.size + rightLeaf.size <= LEAF_CAPACITY) {
+                    if (leftLeaf.values.length < leftLeaf.size + rightLeaf.size) {
+                        leftLeaf.values = Arrays.copyOf(leftLeaf.values, LEAF_CAPACITY);
+                    }
+
+                    System.arraycopy(rightLeaf.values, 0, leftLeaf.values, leftLeaf.size, rightLeaf.size);
+                    leftLeaf.size += rightLeaf.size;
+                    removeChild(left + 1);
+                }
+            } else {
+                Inner leftInner = (Inner) children[left];
+                Inner rightInner = (Inner) children[left + 1];
+                if (leftInner.count + rightInner.count <= INNER_CAPACITY) {
+                    leftInner.append(rightInner.children[0], lows[left + 1]);
+                    for (int i = 1; i < rightInner.count; i++) {
+                        leftInner.append(rightInner.children[i], rightInner.lows[i]);
+                    }
+
+                    removeChild(left + 1);
+                }
+            }
+        }
+
+        private static boolean isSmall(Node node) {
+            return node instanceof Leaf leaf
+                    ? leaf.size < LEAF_CAPACITY / 4
+                    : ((Inner) node).count < INNER_CAPACITY / 4;
+        }
+    }
+}
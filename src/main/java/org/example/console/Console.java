@@ -1,28 +1,113 @@
 package org.example.console;
 
+import org.example.enums.FsyncPolicy;
 import org.example.enums.FuelType;
 import org.example.enums.VehicleChangeParam;
 import org.example.enums.VehicleType;
+import org.example.metrics.VehicleMetrics;
 import org.example.models.Coordinates;
 import org.example.models.Vehicle;
+import org.example.query.Query;
+import org.example.repositories.VehicleRepository;
 import org.example.services.VehicleService;
+import org.example.statistics.EnginePowerStatistics;
+import org.json.simple.parser.ParseException;
 
 import java.io.*;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Console class
  */
 public class Console {
-    private final List<String> history;
+    private static final int HISTORY_SIZE = 5;
+    private static final String UNKNOWN_COMMAND = "unknown";
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private final Deque<String> history;
     private final VehicleService service;
     private final BufferedReader bufferedReader;
-    private final List<String> fileStrings = new ArrayList<>();
+    private final PrintStream out;
+    private final VehiclePrinter printer;
+    private final Deque<BufferedReader> scripts = new ArrayDeque<>();
+    private final Deque<Path> scriptPaths = new ArrayDeque<>();
+    private final Map<String, Command> commands = new HashMap<>();
+    private final VehicleMetrics metrics;
+    /**
+     * Directory, outside of which commands can't read files, or null if any file can be read
+     */
+    private final Path fileDirectory;
+    private boolean running;
+    /**
+     * Time of waiting for user's input during current command
+     */
+    private long inputNanos;
 
     public Console(VehicleService service, Reader reader) {
-        history = new ArrayList<>();
+        this(service, reader, new PrintStream(new BufferedOutputStream(System.out, OUTPUT_BUFFER_SIZE), false));
+    }
+
+    public Console(VehicleService service, Reader reader, PrintStream out) {
+        this(service, reader, out, VehicleMetrics.global());
+    }
+
+    /**
+     * Constructor for console, which counts its commands in own metrics instead of global ones
+     * @param service to run commands on
+     * @param reader of commands
+     * @param out where to print answers
+     * @param metrics where to count commands
+     */
+    public Console(VehicleService service, Reader reader, PrintStream out, VehicleMetrics metrics) {
+        this(service, reader, out, metrics, null);
+    }
+
+    /**
+     * Constructor for console of remote client, which can read scripts and imported files only inside given directory
+     * @param service to run commands on
+     * @param reader of commands
+     * @param out where to print answers
+     * @param metrics where to count commands
+     * @param fileDirectory with files, which commands can read, or null if any file can be read
+     */
+    public Console(VehicleService service, Reader reader, PrintStream out, VehicleMetrics metrics, Path fileDirectory) {
+        this(service, reader, out, metrics, fileDirectory, new VehiclePrinter(out));
+    }
+
+    private Console(
+            VehicleService service,
+            Reader reader,
+            PrintStream out,
+            VehicleMetrics metrics,
+            Path fileDirectory,
+            VehiclePrinter printer
+    ) {
+        history = new ArrayDeque<>(HISTORY_SIZE);
         this.service = service;
         this.bufferedReader = new BufferedReader(reader);
+        this.out = out;
+        this.metrics = metrics;
+        this.fileDirectory = fileDirectory;
+        this.printer = printer;
+        registerCommands();
+    }
+
+    /**
+     * Method to create console, which prints nothing and doesn't format found vehicles.
+     * Commands are run by the same code as in console of user, so only cost of output isn't measured
+     * @param service to run commands on
+     * @param reader of commands with answers to their questions
+     * @param metrics where to count commands
+     * @return console
+     */
+    public static Console silent(VehicleService service, Reader reader, VehicleMetrics metrics) {
+        PrintStream out = new PrintStream(OutputStream.nullOutputStream());
+        return new Console(service, reader, out, metrics, null, new VehiclePrinter(out, false));
     }
 
     /**
@@ -31,77 +116,169 @@ public class Console {
      * @throws IOException If an I/O error occurs
      */
     public void run() throws IOException {
-        while (true) {
+        running = true;
+        while (running) {
             try {
                 String command = getCommand();
-                if (command.equals("help")) {
-                    help();
-                } else if (command.equals("info")) {
-                    info();
-                } else if (command.equals("show")) {
-                    show();
-                } else if (command.equals("add")) {
-                    service.add(createVehicle());
-                    System.out.println("Vehicle is done!");
-                } else if (command.startsWith("update")) {
-                    Integer id = Integer.parseInt(command.split(" ")[1]);
-                    Vehicle vehicle = service.getById(id);
-                    update(vehicle);
-                    System.out.println("Vehicle is updated!");
-                } else if (command.startsWith("remove_by_id")) {
-                    Integer id = Integer.parseInt(command.split(" ")[1]);
-                    service.removeById(id);
-                    System.out.println("Vehicle is removed!");
-                } else if (command.equals("clear")) {
-                    service.clear();
-                } else if (command.equals("save")) {
-                    service.save();
-                } else if (command.startsWith("execute_script")) {
-                    String fileName = command.split(" ")[1];
-                    executeScript(fileName);
-                } else if (command.equals("exit")) {
-                    bufferedReader.close();
-                    break;
-                } else if (command.equals("remove_greater")) {
-                    service.removeGreater(createVehicle());
-                    System.out.println("Элементы удалены!");
-                } else if (command.equals("remove_lower")) {
-                    service.removeLower(createVehicle());
-                    System.out.println("Элементы удалены!");
-                } else if (command.equals("history")) {
-                    history();
-                } else if (command.equals("average_of_engine_power")) {
-                    System.out.println(service.averageOfEnginePower());
-                } else if (command.startsWith("filter_less_than_fuel_type")) {
-                    FuelType fuelType = FuelType.valueOf(command.split(" ")[1]);
-                    List<Vehicle> vehicles = service.filterLessThanFuelType(fuelType);
-                    if (vehicles.size() == 0) {
-                        System.out.println("Элементов не найдено");
-                    } else {
-                        vehicles.forEach(System.out::println);
-                    }
-                } else if (command.equals("print_descending")) {
-                    List<Vehicle> vehicles = service.getCollection();
-                    if (vehicles.size() == 0) {
-                        System.out.println("Элементов не найдено");
-                    } else {
-                        vehicles.sort(Vehicle::compareTo);
-                        Collections.reverse(vehicles);
-                        vehicles.forEach(System.out::println);
-                    }
-                } else {
+                String name = command.split(" ", 2)[0];
+                Command action = commands.get(name);
+                if (action == null) {
+                    metrics.recordCommand(UNKNOWN_COMMAND, 0, true);
                     throw new IllegalArgumentException();
                 }
 
-                history.add(command);
+                execute(name, action, command);
+                if (history.size() == HISTORY_SIZE) {
+                    history.removeFirst();
+                }
+
+                history.addLast(command);
+            } catch (EOFException e) {
+                close();
+                break;
             } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
-                System.out.println("Неверная команда, попробуйте ещё");
+                out.println("Неверная команда, попробуйте ещё");
+            } catch (UncheckedIOException e) {
+                out.println("Не удалось записать изменения в журнал : " + e.getCause().getMessage());
+            } catch (AccessDeniedException e) {
+                out.println("Доступ к файлу запрещён : " + e.getFile());
             } catch (IOException e) {
-                System.out.println("Неверное имя файла, попробуйте ещё");
+                out.println("Неверное имя файла, попробуйте ещё");
+            } catch (ParseException e) {
+                out.println("Неверный формат файла, попробуйте ещё");
             }
         }
     }
 
+    /**
+     * Method to run command and count its duration and result in metrics.
+     * Time of waiting for answers to questions of command isn't counted, so duration doesn't include user's thinking
+     *
+     * @param name of command
+     * @param action of command
+     * @param command full line of command
+     * @throws IOException If an I/O error occurs
+     * @throws ParseException if an parse error occurs
+     */
+    private void execute(String name, Command action, String command) throws IOException, ParseException {
+        inputNanos = 0;
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            action.execute(command);
+            failed = false;
+        } finally {
+            metrics.recordCommand(name, System.nanoTime() - start - inputNanos, failed);
+        }
+    }
+
+    /**
+     * Method to fill table of commands by their names
+     */
+    private void registerCommands() {
+        commands.put("help", command -> help());
+        commands.put("info", command -> info());
+        commands.put("show", command -> show(getPage(command)));
+        commands.put("add", command -> {
+            service.add(createVehicle());
+            out.println("Vehicle is done!");
+        });
+        commands.put("update", command -> {
+            Integer id = Integer.parseInt(command.split(" ")[1]);
+            Vehicle vehicle = service.getById(id);
+            update(vehicle);
+            out.println("Vehicle is updated!");
+        });
+        commands.put("update_all", command -> {
+            Set<Integer> ids = getIds(command);
+            ids.forEach(service::getById);
+            service.updateAll(ids, askChanges());
+            out.println("Vehicles are updated!");
+        });
+        commands.put("remove_by_id", command -> {
+            Integer id = Integer.parseInt(command.split(" ")[1]);
+            service.removeById(id);
+            out.println("Vehicle is removed!");
+        });
+        commands.put("remove_all_by_id", command -> {
+            Set<Integer> ids = getIds(command);
+            int count = service.removeAll(ids);
+            out.println("Удалено элементов : " + count);
+        });
+        commands.put("import", command -> {
+            String fileName = command.split(" ")[1];
+            out.println("Добавлено элементов : " + importVehicles(fileName));
+        });
+        commands.put("clear", command -> service.clear());
+        commands.put("save", command -> service.save());
+        commands.put("execute_script", command -> {
+            String fileName = command.split(" ")[1];
+            executeScript(fileName);
+        });
+        commands.put("exit", command -> {
+            close();
+            running = false;
+        });
+        commands.put("remove_greater", command -> {
+            service.removeGreater(createVehicle());
+            out.println("Элементы удалены!");
+        });
+        commands.put("remove_lower", command -> {
+            service.removeLower(createVehicle());
+            out.println("Элементы удалены!");
+        });
+        commands.put("history", command -> history());
+        commands.put("average_of_engine_power", command -> {
+            OptionalDouble average = service.averageOfEnginePower();
+            if (average.isEmpty()) {
+                out.println("Элементов не найдено");
+            } else {
+                out.println(average.getAsDouble());
+            }
+        });
+        commands.put("stats", command -> stats());
+        commands.put("metrics", command -> out.print(metrics.getReport()));
+        commands.put("filter_less_than_fuel_type", command -> {
+            FuelType fuelType = FuelType.valueOf(command.split(" ")[1]);
+            service.filterLessThanFuelType(fuelType).forEach(printer::print);
+            finishPrinting();
+        });
+        commands.put("query", command -> query(command));
+        commands.put("within", command -> {
+            String[] words = command.trim().split(" +");
+            service.within(
+                    Integer.parseInt(words[1]),
+                    Integer.parseInt(words[2]),
+                    Integer.parseInt(words[3]),
+                    Integer.parseInt(words[4])
+            ).forEach(printer::print);
+            finishPrinting();
+        });
+        commands.put("find_name_prefix", command -> {
+            service.findByNamePrefix(command.split(" ", 2)[1]).forEach(printer::print);
+            finishPrinting();
+        });
+        commands.put("find_name_contains", command -> {
+            service.findByNameContaining(command.split(" ", 2)[1]).forEach(printer::print);
+            finishPrinting();
+        });
+        commands.put("nearest", command -> {
+            String[] words = command.trim().split(" +");
+            int count = Integer.parseInt(words[3]);
+            if (count <= 0) {
+                throw new IllegalArgumentException();
+            }
+
+            service.nearest(Integer.parseInt(words[1]), Integer.parseInt(words[2]), count).forEach(printer::print);
+            finishPrinting();
+        });
+        commands.put("print_descending", command -> {
+            Page page = getPage(command);
+            service.forEachDescending(page.offset, page.limit, printer::print);
+            finishPrinting();
+        });
+    }
+
     /**
      * Method to call function help
      */
@@ -109,10 +286,13 @@ public class Console {
         StringBuilder help = new StringBuilder()
                 .append("help : вывести справку по доступным командам\n")
                 .append("info : вывести в стандартный поток вывода информацию о коллекции (тип, дата инициализации, количество элементов и т.д.)\n")
-                .append("show : вывести в стандартный поток вывода все элементы коллекции в строковом представлении\n")
+                .append("show [--offset N] [--limit N] : вывести в стандартный поток вывода элементы коллекции в строковом представлении, пропустив первые offset и выведя не больше limit\n")
                 .append("add {element} : добавить новый элемент в коллекцию\n")
                 .append("update id {element} : обновить значение элемента коллекции, id которого равен заданному\n")
+                .append("update_all id1 id2 ... {element} : обновить значения всех элементов коллекции, id которых перечислены\n")
                 .append("remove_by_id id : удалить элемент из коллекции по его id\n")
+                .append("remove_all_by_id id1 id2 ... : удалить из коллекции все элементы, id которых перечислены\n")
+                .append("import file_name : добавить в коллекцию все элементы из указанного файла\n")
                 .append("clear : очистить коллекцию\n")
                 .append("save : сохранить коллекцию в файл\n")
                 .append("execute_script file_name : считать и исполнить скрипт из указанного файла. В скрипте содержатся команды в таком же виде, в котором их вводит пользователь в интерактивном режиме.\n")
@@ -122,8 +302,16 @@ public class Console {
                 .append("history : вывести последние 5 команд (без их аргументов)\n")
                 .append("average_of_engine_power : вывести среднее значение поля enginePower для всех элементов коллекции\n")
                 .append("filter_less_than_fuel_type fuelType : вывести элементы, значение поля fuelType которых меньше заданного\n")
-                .append("print_descending : вывести элементы коллекции в порядке убывания");
-        System.out.println(help);
+                .append("stats : вывести статистику поля enginePower (количество, сумма, минимум, максимум, среднее, перцентили)\n")
+                .append("query [where] condition [order by field [asc | desc]] [limit N] : вывести элементы, поля которых удовлетворяют условию, например query enginePower > 500 and type = BOAT order by id limit 100\n")
+                .append("query count | sum field | avg field | min field | max field [by field] [where condition] : вывести значение функции от поля элементов, например query count by fuelType\n")
+                .append("within x1 y1 x2 y2 : вывести элементы, координаты которых лежат в прямоугольнике с заданными углами\n")
+                .append("nearest x y k : вывести k элементов, ближайших к заданной точке, в порядке удаления от неё\n")
+                .append("find_name_prefix prefix : вывести элементы, значение поля name которых начинается с заданной строки\n")
+                .append("find_name_contains part : вывести элементы, значение поля name которых содержит заданную строку\n")
+                .append("metrics : вывести количество, ошибки и время выполнения каждой команды, объём и время чтения и записи файлов\n")
+                .append("print_descending [--offset N] [--limit N] : вывести элементы коллекции в порядке убывания, пропустив первые offset и выведя не больше limit");
+        out.println(help);
     }
 
     /**
@@ -131,21 +319,84 @@ public class Console {
      */
     private void info() {
         StringBuilder info = new StringBuilder()
-                .append("Тип : ").append(ArrayDeque.class).append('\n')
+                .append("Тип : ").append(service.getCollectionType()).append('\n')
                 .append("Дата инициализации : ").append(service.getInitializedDate()).append('\n')
-                .append("Количество элементов : ").append(service.getCollection().size()).append('\n');
-        System.out.print(info);
+                .append("Количество элементов : ").append(service.size()).append('\n');
+        out.print(info);
+    }
+
+    /**
+     * Method to call function stats
+     */
+    private void stats() {
+        EnginePowerStatistics statistics = service.getEnginePowerStatistics();
+        if (statistics.getCount() == 0) {
+            out.println("Элементов не найдено");
+            return;
+        }
+
+        StringBuilder stats = new StringBuilder()
+                .append("Количество : ").append(statistics.getCount()).append('\n')
+                .append("Сумма : ").append(statistics.getSum()).append('\n')
+                .append("Минимум : ").append(statistics.getMin()).append('\n')
+                .append("Максимум : ").append(statistics.getMax()).append('\n')
+                .append("Среднее : ").append(statistics.getAverage()).append('\n')
+                .append("Медиана : ").append(statistics.getPercentile(50)).append('\n')
+                .append("90-й перцентиль : ").append(statistics.getPercentile(90)).append('\n')
+                .append("99-й перцентиль : ").append(statistics.getPercentile(99)).append('\n');
+        out.print(stats);
     }
 
     /**
-     * Method to call function show
+     * Method to call function show.
+     * Only vehicles of asked page are formatted and printed
+     *
+     * @param page of collection to show
      */
-    private void show() {
-        List<Vehicle> vehicles = service.getCollection();
-        if (vehicles.size() == 0) {
-            System.out.println("Элементов не найдено");
+    private void show(Page page) {
+        service.stream().skip(page.offset).limit(page.limit).forEach(printer::print);
+        finishPrinting();
+    }
+
+    /**
+     * Method to call function query
+     *
+     * @param command with text of query
+     */
+    private void query(String command) {
+        String[] words = command.split(" ", 2);
+        Query query;
+        try {
+            query = Query.parse(words.length == 2 ? words[1] : "");
+        } catch (IllegalArgumentException e) {
+            out.println("Неверный запрос : " + e.getMessage());
+            return;
+        }
+
+        if (!query.isAggregate()) {
+            query.select(service).forEachOrdered(printer::print);
+            finishPrinting();
+            return;
+        }
+
+        Map<Object, Number> results = query.aggregate(service);
+        if (results.isEmpty()) {
+            out.println("Элементов не найдено");
+        } else if (!query.isGrouped()) {
+            out.println(results.values().iterator().next());
         } else {
-            vehicles.forEach(System.out::println);
+            StringBuilder answer = new StringBuilder();
+            results.forEach((key, value) -> answer.append(key).append(" : ").append(value).append('\n'));
+            out.print(answer);
+        }
+    }
+
+    /**
+     * Method to hand printed vehicles to output or tell, that nothing is found
+     */
+    private void finishPrinting() {
+        if (printer.finish() == 0) {
+            out.println("Элементов не найдено");
         }
     }
 
@@ -157,7 +408,7 @@ public class Console {
      */
     private String getName() throws IOException {
         while (true) {
-            System.out.println("Введите имя :");
+            out.println("Введите имя :");
             try {
                 String name = getCommand();
                 if (name.isBlank()) {
@@ -166,7 +417,7 @@ public class Console {
 
                 return name;
             } catch (IllegalArgumentException e) {
-                System.out.println("Имя не должно быть пустым, попробуйте ещё раз");
+                out.println("Имя не должно быть пустым, попробуйте ещё раз");
             }
         }
     }
@@ -182,17 +433,17 @@ public class Console {
         Integer y;
 
         while (true) {
-            System.out.println("Введите координату X (больше -576):");
+            out.println("Введите координату X (больше -576):");
             try {
                 x = Integer.parseInt(getCommand());
                 if (x.compareTo(-576) <= 0) {
                     throw new IllegalArgumentException();
                 }
             } catch (NumberFormatException e) {
-                System.out.println("Неверный формат координаты X, попробуйте ещё");
+                out.println("Неверный формат координаты X, попробуйте ещё");
                 continue;
             } catch (IllegalArgumentException e) {
-                System.out.println("Аргумент X должен быть больше -576, попробуйте ещё");
+                out.println("Аргумент X должен быть больше -576, попробуйте ещё");
                 continue;
             }
 
@@ -200,17 +451,17 @@ public class Console {
         }
 
         while (true) {
-            System.out.println("Введите координату Y (больше -286):");
+            out.println("Введите координату Y (больше -286):");
             try {
                 y = Integer.parseInt(getCommand());
                 if (y.compareTo(-286) <= 0) {
                     throw new IllegalArgumentException();
                 }
             } catch (NumberFormatException e) {
-                System.out.println("Неверный формат координаты Y, попробуйте ещё");
+                out.println("Неверный формат координаты Y, попробуйте ещё");
                 continue;
             } catch (IllegalArgumentException e) {
-                System.out.println("Аргумент Y должен быть больше -286, попробуйте ещё");
+                out.println("Аргумент Y должен быть больше -286, попробуйте ещё");
                 continue;
             }
 
@@ -228,17 +479,17 @@ public class Console {
      */
     private int getEnginePower() throws IOException {
         while (true) {
-            System.out.println("Введите мощность двигателя (больше 0) :");
+            out.println("Введите мощность двигателя (больше 0) :");
             try {
                 int enginePower = Integer.parseInt(getCommand());
                 if (enginePower <= 0) {
-                    System.out.println("Мощность двигателя должна быть больше 0");
+                    out.println("Мощность двигателя должна быть больше 0");
                     continue;
                 }
 
                 return enginePower;
             } catch (NumberFormatException e) {
-                System.out.println("Мощность двигателя должна быть числом, попробуйте ещё");
+                out.println("Мощность двигателя должна быть числом, попробуйте ещё");
             }
         }
     }
@@ -258,7 +509,7 @@ public class Console {
                     .append("BOAT\n")
                     .append("BICYCLE\n")
                     .append("SPACESHIP");
-            System.out.println(vehicleTypeQuestion);
+            out.println(vehicleTypeQuestion);
             try {
                 String vehicleTypeString = getCommand();
                 VehicleType vehicleType;
@@ -270,7 +521,7 @@ public class Console {
 
                 return vehicleType;
             } catch (IllegalArgumentException e) {
-                System.out.println("Неверный тип транспортного средства, попробуйте ещё");
+                out.println("Неверный тип транспортного средства, попробуйте ещё");
             }
         }
     }
@@ -290,11 +541,11 @@ public class Console {
                     .append("KEROSENE\n")
                     .append("MANPOWER\n")
                     .append("PLASMA");
-            System.out.println(fuelTypeQuestion);
+            out.println(fuelTypeQuestion);
             try {
                 return FuelType.valueOf(getCommand());
             } catch (IllegalArgumentException e) {
-                System.out.println("Неверный вид топлива, попробуйте ещё");
+                out.println("Неверный вид топлива, попробуйте ещё");
             }
         }
     }
@@ -316,32 +567,45 @@ public class Console {
     }
 
     /**
-     * Change 1 parameter in vehicle
+     * Ask about changing of 1 parameter in vehicle
      *
-     * @param vehicle for updating
-     * @param param   to change
+     * @param param to change
+     * @return change to apply to vehicle or null, if parameter isn't changed
      * @throws IOException If an I/O error occurs
      */
-    private void change(Vehicle vehicle, VehicleChangeParam param)
+    private Consumer<Vehicle> change(VehicleChangeParam param)
             throws IOException {
         while (true) {
-            System.out.println("Хотите поменять " + param.getParam() + " (да / нет) ?");
+            out.println("Хотите поменять " + param.getParam() + " (да / нет) ?");
             String ans = getCommand();
             if (ans.equals("да")) {
                 switch (param) {
-                    case NAME -> vehicle.setName(getName());
-                    case COORDINATES -> vehicle.setCoordinates(getCoordinates());
-                    case ENGINE_POWER -> vehicle.setEnginePower(getEnginePower());
-                    case VEHICLE_TYPE -> vehicle.setType(getVehicleType());
-                    case FUEL_TYPE -> vehicle.setFuelType(getFuelType());
+                    case NAME -> {
+                        String name = getName();
+                        return vehicle -> vehicle.setName(name);
+                    }
+                    case COORDINATES -> {
+                        Coordinates coordinates = getCoordinates();
+                        return vehicle -> vehicle.setCoordinates(coordinates);
+                    }
+                    case ENGINE_POWER -> {
+                        int enginePower = getEnginePower();
+                        return vehicle -> vehicle.setEnginePower(enginePower);
+                    }
+                    case VEHICLE_TYPE -> {
+                        VehicleType type = getVehicleType();
+                        return vehicle -> vehicle.setType(type);
+                    }
+                    case FUEL_TYPE -> {
+                        FuelType fuelType = getFuelType();
+                        return vehicle -> vehicle.setFuelType(fuelType);
+                    }
                 }
-
-                break;
             } else if (ans.equals("нет")) {
-                break;
+                return null;
             }
 
-            System.out.println("Некорректный ответ");
+            out.println("Некорректный ответ");
         }
     }
 
@@ -353,28 +617,164 @@ public class Console {
      */
     private void update(Vehicle vehicle)
             throws IOException {
-        change(vehicle, VehicleChangeParam.NAME);
-        change(vehicle, VehicleChangeParam.COORDINATES);
-        change(vehicle, VehicleChangeParam.ENGINE_POWER);
-        change(vehicle, VehicleChangeParam.VEHICLE_TYPE);
-        change(vehicle, VehicleChangeParam.FUEL_TYPE);
+        service.update(vehicle.getId(), askChanges());
     }
 
     /**
-     * Method to call function execute_script
+     * Ask about changing of every parameter in vehicle
+     *
+     * @return all chosen changes
+     * @throws IOException If an I/O error occurs
+     */
+    private Consumer<Vehicle> askChanges() throws IOException {
+        List<Consumer<Vehicle>> changes = new ArrayList<>();
+        for (VehicleChangeParam param : VehicleChangeParam.values()) {
+            Consumer<Vehicle> change = change(param);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+
+        return changedVehicle -> changes.forEach(change -> change.accept(changedVehicle));
+    }
+
+    /**
+     * Method to read ids, which follow command's name
+     *
+     * @param command with ids
+     * @return ids in input order without repeats
+     */
+    private Set<Integer> getIds(String command) {
+        String[] words = command.trim().split(" +");
+        if (words.length < 2) {
+            throw new IllegalArgumentException();
+        }
+
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (int i = 1; i < words.length; i++) {
+            ids.add(Integer.parseInt(words[i]));
+        }
+
+        return ids;
+    }
+
+    /**
+     * Method to read page options, which follow command's name
+     * in form "--offset N --limit N" or "--offset=N --limit=N"
+     *
+     * @param command with options
+     * @return page, which is the whole collection, if there are no options
+     */
+    private Page getPage(String command) {
+        String[] words = command.trim().split(" +");
+        Page page = new Page();
+        for (int i = 1; i < words.length; i++) {
+            String[] option = words[i].split("=", 2);
+            String value = option.length == 2 ? option[1] : words[++i];
+            int number = Integer.parseInt(value);
+            if (number < 0) {
+                throw new IllegalArgumentException();
+            }
+
+            switch (option[0]) {
+                case "--offset" -> page.offset = number;
+                case "--limit" -> page.limit = number;
+                default -> throw new IllegalArgumentException();
+            }
+        }
+
+        return page;
+    }
+
+    /**
+     * Method to call function import.
+     * Vehicles from file get new ids and creation date, as if they were added from console
+     *
+     * @param fileName is name of file with collection
+     * @return count of added vehicles
+     * @throws IOException If an I/O error occurs
+     * @throws ParseException if an parse error occurs
+     */
+    private int importVehicles(String fileName) throws IOException, ParseException {
+        Collection<Vehicle> savedVehicles = VehicleRepository.forFile(resolveFile(fileName).toString(), FsyncPolicy.NEVER).readCopy();
+        List<Vehicle> vehicles = new ArrayList<>(savedVehicles.size());
+        for (Vehicle vehicle : savedVehicles) {
+            vehicles.add(new Vehicle(
+                    vehicle.getName(),
+                    vehicle.getCoordinates(),
+                    vehicle.getEnginePower(),
+                    vehicle.getType(),
+                    vehicle.getFuelType()
+            ));
+        }
+
+        service.addAll(vehicles);
+        return vehicles.size();
+    }
+
+    /**
+     * Method to call function execute_script.
+     * Script is read line by line on top of current input, so nested script runs before rest of outer one
      *
      * @param fileName is name of file with script
      * @throws IOException If an I/O error occurs
      */
     private void executeScript(String fileName) throws IOException {
-        int ind = 0;
-        BufferedReader fileReader = new BufferedReader(new FileReader(fileName));
-        String line;
-        while ((line = fileReader.readLine()) != null) {
-            fileStrings.add(ind++, line);
+        Path path = resolveFile(fileName);
+        if (scriptPaths.contains(path)) {
+            out.println("Скрипт " + fileName + " уже выполняется, рекурсивный вызов пропущен");
+            return;
+        }
+
+        scripts.push(Files.newBufferedReader(path));
+        scriptPaths.push(path);
+    }
+
+    /**
+     * Method to find file, which command reads. Links and ".." are resolved first,
+     * so file outside of console's directory can't be reached through them
+     *
+     * @param fileName is name of file from command, relative to console's directory if it is given
+     * @return real path of file
+     * @throws AccessDeniedException If file is outside of console's directory
+     * @throws IOException If file doesn't exist or an I/O error occurs
+     */
+    private Path resolveFile(String fileName) throws IOException {
+        if (fileDirectory == null) {
+            return Paths.get(fileName).toRealPath();
+        }
+
+        Path directory = fileDirectory.toRealPath();
+        Path path = directory.resolve(fileName).toRealPath();
+        if (!path.startsWith(directory)) {
+            throw new AccessDeniedException(fileName);
+        }
+
+        return path;
+    }
+
+    /**
+     * Method to close script, which is read to the end
+     *
+     * @throws IOException If an I/O error occurs
+     */
+    private void closeScript() throws IOException {
+        scriptPaths.pop();
+        scripts.pop().close();
+    }
+
+    /**
+     * Method to close all opened scripts and input
+     *
+     * @throws IOException If an I/O error occurs
+     */
+    private void close() throws IOException {
+        while (!scripts.isEmpty()) {
+            closeScript();
         }
 
-        fileReader.close();
+        bufferedReader.close();
+        out.flush();
     }
 
     /**
@@ -382,24 +782,68 @@ public class Console {
      */
     private void history() {
         StringBuilder ans = new StringBuilder();
-        for (int i = Math.max(0, history.size() - 5); i < history.size(); i++) {
-            ans.append(history.get(i)).append('\n');
+        for (String command : history) {
+            ans.append(command).append('\n');
         }
 
-        System.out.print(ans);
+        out.print(ans);
     }
 
     /**
      * Method to get command from console or from file
      *
      * @return command
+     * @throws EOFException if input is over or broken
      * @throws IOException If an I/O error occurs
      */
     private String getCommand() throws IOException {
-        if (fileStrings.size() > 0) {
-            return fileStrings.remove(0);
+        while (!scripts.isEmpty()) {
+            String line = scripts.peek().readLine();
+            if (line != null) {
+                return line;
+            }
+
+            closeScript();
+        }
+
+        out.flush();
+        String command;
+        long start = System.nanoTime();
+        try {
+            command = bufferedReader.readLine();
+        } catch (IOException e) {
+            throw (EOFException) new EOFException(e.getMessage()).initCause(e);
+        } finally {
+            inputNanos += System.nanoTime() - start;
+        }
+
+        if (command == null) {
+            throw new EOFException();
         }
 
-        return bufferedReader.readLine();
+        return command;
+    }
+
+    /**
+     * Page of collection, which is asked to print
+     */
+    private static class Page {
+        private int offset;
+        private int limit = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Command of console
+     */
+    @FunctionalInterface
+    private interface Command {
+        /**
+         * Method to run command
+         *
+         * @param command full line of command with arguments
+         * @throws IOException If an I/O error occurs
+         * @throws ParseException if an parse error occurs
+         */
+        void execute(String command) throws IOException, ParseException;
     }
 }
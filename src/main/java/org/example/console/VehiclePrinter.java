@@ -0,0 +1,61 @@
+package org.example.console;
+
+import org.example.models.Vehicle;
+
+import java.io.PrintStream;
+
+/**
+ * Printer of vehicles, which formats rows into one reused builder
+ * and hands them to output by large chunks instead of line by line.
+ * Printer without formatting only counts vehicles, so commands can be measured without their output
+ */
+class VehiclePrinter {
+    private static final int CHUNK_SIZE = 1 << 14;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final PrintStream out;
+    private final boolean formatting;
+    private final StringBuilder rows = new StringBuilder(CHUNK_SIZE * 2);
+    private int count;
+
+    VehiclePrinter(PrintStream out) {
+        this(out, true);
+    }
+
+    VehiclePrinter(PrintStream out, boolean formatting) {
+        this.out = out;
+        this.formatting = formatting;
+    }
+
+    /**
+     * Method to print vehicle as its own line
+     * @param vehicle to print
+     */
+    public void print(Vehicle vehicle) {
+        count++;
+        if (!formatting) {
+            return;
+        }
+
+        vehicle.appendTo(rows).append(LINE_SEPARATOR);
+        if (rows.length() >= CHUNK_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * Method to hand formatted rows to output and start counting again
+     * @return count of vehicles printed since last finish
+     */
+    public int finish() {
+        flush();
+        int printed = count;
+        count = 0;
+        return printed;
+    }
+
+    private void flush() {
+        out.append(rows);
+        rows.setLength(0);
+    }
+}
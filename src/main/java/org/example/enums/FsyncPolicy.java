@@ -0,0 +1,10 @@
+package org.example.enums;
+
+/**
+ * Enum class of policies, which define when written data is forced to disk
+ */
+public enum FsyncPolicy {
+    ALWAYS,
+    BATCHED,
+    NEVER
+}
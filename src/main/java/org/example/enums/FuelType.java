@@ -1,5 +1,8 @@
 package org.example.enums;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 /**
  * Enum class of fuel's types
  */
@@ -9,7 +12,21 @@ public enum FuelType implements Comparable<FuelType> {
     MANPOWER("MANPOWER"),
     PLASMA("PLASMA");
 
+    /**
+     * Fuel's types from the lowest to the greatest, lower type has greater name
+     */
+    private static final FuelType[] BY_RANK = Arrays.stream(values())
+            .sorted(Comparator.comparing(FuelType::getTypeName).reversed())
+            .toArray(FuelType[]::new);
+
+    static {
+        for (int rank = 0; rank < BY_RANK.length; rank++) {
+            BY_RANK[rank].rank = rank;
+        }
+    }
+
     private final String typeName;
+    private int rank;
 
     FuelType(String description) {
         this.typeName = description;
@@ -18,4 +35,21 @@ public enum FuelType implements Comparable<FuelType> {
     public String getTypeName() {
         return typeName;
     }
+
+    /**
+     * Method to get precomputed position of fuel's type in vehicle's order
+     * @return rank, lower fuel's type has lower rank
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    /**
+     * Method to get fuel's type by its rank
+     * @param rank of fuel's type
+     * @return fuel's type
+     */
+    public static FuelType byRank(int rank) {
+        return BY_RANK[rank];
+    }
 }
@@ -0,0 +1,10 @@
+package org.example.enums;
+
+/**
+ * Enum class of ways, how vehicles are kept in memory
+ */
+public enum StorageType {
+    OBJECTS,
+    COLUMNS,
+    OFF_HEAP
+}
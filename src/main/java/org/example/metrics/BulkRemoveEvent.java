@@ -0,0 +1,35 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of removing many vehicles by one operation
+ */
+@Name("org.example.BulkRemove")
+@Label("Bulk remove")
+@Category("Vehicles")
+public class BulkRemoveEvent extends jdk.jfr.Event {
+    public static final int MIN_REMOVED = 1000;
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Removed")
+    private int removed;
+
+    /**
+     * Method to commit event, when operation removed enough vehicles
+     * @param operation name of operation
+     * @param removed count of removed vehicles
+     */
+    public void commitIfLarge(String operation, int removed) {
+        end();
+        if (removed >= MIN_REMOVED && shouldCommit()) {
+            this.operation = operation;
+            this.removed = removed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of one kind of input or output: how many times, how many bytes and how long
+ */
+public class IoStatistics {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    /**
+     * Method to count one read or write
+     * @param bytes count of bytes
+     * @param nanos duration
+     */
+    public void record(long bytes, long nanos) {
+        this.count.increment();
+        this.bytes.add(bytes);
+        this.nanos.add(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    public long getNanos() {
+        return nanos.sum();
+    }
+}
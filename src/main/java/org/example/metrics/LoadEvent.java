@@ -0,0 +1,36 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of reading collection from file and journal
+ */
+@Name("org.example.Load")
+@Label("Load collection")
+@Category("Vehicles")
+public class LoadEvent extends jdk.jfr.Event {
+    @Label("File")
+    private String file;
+
+    @Label("Read")
+    @DataAmount
+    private long bytes;
+
+    @Label("Vehicles")
+    private int vehicles;
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public void setVehicles(int vehicles) {
+        this.vehicles = vehicles;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of writing collection to file by save or by journal's compaction
+ */
+@Name("org.example.Save")
+@Label("Save collection")
+@Category("Vehicles")
+public class SaveEvent extends jdk.jfr.Event {
+    @Label("File")
+    private String file;
+
+    @Label("Written")
+    @DataAmount
+    private long bytes;
+
+    @Label("Forced")
+    private boolean forced;
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public void setForced(boolean forced) {
+        this.forced = forced;
+    }
+}
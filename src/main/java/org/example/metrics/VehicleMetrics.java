@@ -0,0 +1,192 @@
+package org.example.metrics;
+
+import org.example.statistics.CommandStatistics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metrics of the whole application: statistics of every command and of repository's input and output.
+ * Global instance is shared by all consoles and repositories and can be seen through JMX,
+ * console can also count its commands in own instance
+ */
+public class VehicleMetrics implements VehicleMetricsMBean {
+    private static final VehicleMetrics GLOBAL = new VehicleMetrics();
+    private static final double[] PERCENTILES = {50, 90, 99, 100};
+
+    private final Map<String, CommandStatistics> commands = new ConcurrentHashMap<>();
+    private final IoStatistics snapshotReads = new IoStatistics();
+    private final IoStatistics snapshotWrites = new IoStatistics();
+    private final IoStatistics journalAppends = new IoStatistics();
+
+    public static VehicleMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Method to make metrics visible through platform MBean server
+     * @throws JMException if metrics can't be registered
+     */
+    public void registerMBean() throws JMException {
+        ObjectName name = new ObjectName("org.example:type=VehicleMetrics");
+        if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        }
+    }
+
+    /**
+     * Method to count one run of command
+     * @param name of command
+     * @param nanos duration of run
+     * @param failed whether command failed
+     */
+    public void recordCommand(String name, long nanos, boolean failed) {
+        CommandStatistics statistics = commands.computeIfAbsent(name, key -> new CommandStatistics());
+        synchronized (statistics) {
+            statistics.record(nanos, failed);
+        }
+    }
+
+    public IoStatistics getSnapshotReadStatistics() {
+        return snapshotReads;
+    }
+
+    public IoStatistics getSnapshotWriteStatistics() {
+        return snapshotWrites;
+    }
+
+    public IoStatistics getJournalStatistics() {
+        return journalAppends;
+    }
+
+    /**
+     * Method to get copy of statistics of every command, which was run
+     * @return statistics by command's name
+     */
+    public Map<String, CommandStatistics> getCommandStatistics() {
+        Map<String, CommandStatistics> copy = new TreeMap<>();
+        commands.forEach((name, statistics) -> copy.put(name, copy(statistics)));
+        return copy;
+    }
+
+    @Override
+    public String[] getCommandNames() {
+        return new TreeMap<>(commands).keySet().toArray(new String[0]);
+    }
+
+    @Override
+    public long getCommandCount(String name) {
+        return copy(name).getCount();
+    }
+
+    @Override
+    public long getCommandErrors(String name) {
+        return copy(name).getErrors();
+    }
+
+    @Override
+    public double getCommandLatencyMicros(String name, double percentile) {
+        return copy(name).getLatencyAtPercentile(percentile) / 1e3;
+    }
+
+    @Override
+    public long getSnapshotReads() {
+        return snapshotReads.getCount();
+    }
+
+    @Override
+    public long getSnapshotReadBytes() {
+        return snapshotReads.getBytes();
+    }
+
+    @Override
+    public double getSnapshotReadMillis() {
+        return snapshotReads.getNanos() / 1e6;
+    }
+
+    @Override
+    public long getSnapshotWrites() {
+        return snapshotWrites.getCount();
+    }
+
+    @Override
+    public long getSnapshotWriteBytes() {
+        return snapshotWrites.getBytes();
+    }
+
+    @Override
+    public double getSnapshotWriteMillis() {
+        return snapshotWrites.getNanos() / 1e6;
+    }
+
+    @Override
+    public long getJournalAppends() {
+        return journalAppends.getCount();
+    }
+
+    @Override
+    public long getJournalBytes() {
+        return journalAppends.getBytes();
+    }
+
+    @Override
+    public double getJournalMillis() {
+        return journalAppends.getNanos() / 1e6;
+    }
+
+    /**
+     * Method to build table with statistics of every command and of repository
+     * @return report
+     */
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-28s %10s %8s", "Команда", "Количество", "Ошибки"));
+        for (double percentile : PERCENTILES) {
+            report.append(String.format(" %11s", percentile == 100 ? "max мкс" : "p" + (int) percentile + " мкс"));
+        }
+
+        report.append('\n');
+        getCommandStatistics().forEach((name, statistics) -> {
+            report.append(String.format("%-28s %10d %8d", name, statistics.getCount(), statistics.getErrors()));
+            for (double percentile : PERCENTILES) {
+                report.append(String.format(" %11.1f", statistics.getLatencyAtPercentile(percentile) / 1e3));
+            }
+
+            report.append('\n');
+        });
+
+        appendIo(report, "Чтение файла", snapshotReads);
+        appendIo(report, "Запись файла", snapshotWrites);
+        appendIo(report, "Запись журнала", journalAppends);
+        return report.toString();
+    }
+
+    private static void appendIo(StringBuilder report, String title, IoStatistics statistics) {
+        report.append(String.format(
+                "%s : %d раз, %d байт, %.1f мс%n",
+                title,
+                statistics.getCount(),
+                statistics.getBytes(),
+                statistics.getNanos() / 1e6
+        ));
+    }
+
+    private CommandStatistics copy(String name) {
+        CommandStatistics statistics = commands.get(name);
+        return statistics == null ? new CommandStatistics() : copy(statistics);
+    }
+
+    private static CommandStatistics copy(CommandStatistics statistics) {
+        CommandStatistics copy = new CommandStatistics();
+        synchronized (statistics) {
+            copy.merge(statistics);
+        }
+
+        return copy;
+    }
+}
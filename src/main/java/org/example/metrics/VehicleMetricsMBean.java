@@ -0,0 +1,40 @@
+package org.example.metrics;
+
+/**
+ * Management interface of application's metrics
+ */
+public interface VehicleMetricsMBean {
+    String[] getCommandNames();
+
+    long getCommandCount(String name);
+
+    long getCommandErrors(String name);
+
+    /**
+     * Method to get command's duration at given percentile
+     * @param name of command
+     * @param percentile from 0 to 100
+     * @return duration in microseconds
+     */
+    double getCommandLatencyMicros(String name, double percentile);
+
+    long getSnapshotReads();
+
+    long getSnapshotReadBytes();
+
+    double getSnapshotReadMillis();
+
+    long getSnapshotWrites();
+
+    long getSnapshotWriteBytes();
+
+    double getSnapshotWriteMillis();
+
+    long getJournalAppends();
+
+    long getJournalBytes();
+
+    double getJournalMillis();
+
+    String getReport();
+}
@@ -36,11 +36,17 @@ public class Coordinates {
         }
     }
 
+    /**
+     * Method to append string representation of coordinates to builder
+     * @param builder to append to
+     * @return the same builder
+     */
+    public StringBuilder appendTo(StringBuilder builder) {
+        return builder.append("Coordinates{x=").append((int) x).append(", y=").append((int) y).append('}');
+    }
+
     @Override
     public String toString() {
-        return "Coordinates{" +
-                "x=" + x +
-                ", y=" + y +
-                '}';
+        return appendTo(new StringBuilder()).toString();
     }
 }
\ No newline at end of file
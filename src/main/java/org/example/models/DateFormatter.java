@@ -0,0 +1,32 @@
+package org.example.models;
+
+import java.time.LocalDate;
+
+/**
+ * Formatter of dates, which is shared by string representation of vehicle and json writer
+ */
+public final class DateFormatter {
+    private DateFormatter() {
+    }
+
+    /**
+     * Method to append date in the same ISO format, which {@link LocalDate#toString} gives, without creating string
+     * @param builder to append to
+     * @param date to append
+     * @return the same builder
+     */
+    public static StringBuilder appendDate(StringBuilder builder, LocalDate date) {
+        if (date == null || date.getYear() < 1000 || date.getYear() > 9999) {
+            return builder.append(date);
+        }
+
+        builder.append(date.getYear()).append('-');
+        appendTwoDigits(builder, date.getMonthValue());
+        builder.append('-');
+        return appendTwoDigits(builder, date.getDayOfMonth());
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder builder, int value) {
+        return builder.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
@@ -4,12 +4,13 @@ import org.example.enums.FuelType;
 import org.example.enums.VehicleType;
 
 import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Class for validating and storing vehicle's parameters
  */
 public class Vehicle implements Comparable<Vehicle> {
-    private static Integer nextId;
+    private static final AtomicInteger nextId = new AtomicInteger();
     private final Integer id;
     private String name;
     private Coordinates coordinates;
@@ -27,10 +28,10 @@ public class Vehicle implements Comparable<Vehicle> {
     ) {
         checkInputData(name, coordinates, enginePower, fuelType);
 
-        this.id = nextId++;
+        this.id = nextId.getAndIncrement();
         this.name = name;
         this.coordinates = coordinates;
-        this.creationDate = LocalDate.now();
+        this.creationDate = VehicleValueCache.global().date(LocalDate.now());
         this.enginePower = enginePower;
         this.type = type;
         this.fuelType = fuelType;
@@ -54,8 +55,16 @@ public class Vehicle implements Comparable<Vehicle> {
         this.fuelType = fuelType;
     }
 
+    /**
+     * Method to create vehicle with the same id and fields, which can be changed without affecting this one
+     * @return copy of vehicle
+     */
+    public Vehicle copy() {
+        return new Vehicle(id, name, coordinates, creationDate, enginePower, type, fuelType);
+    }
+
     public static void setNextId(Integer nextId) {
-        Vehicle.nextId = nextId;
+        Vehicle.nextId.set(nextId);
     }
 
     public Integer getId() {
@@ -160,19 +169,36 @@ public class Vehicle implements Comparable<Vehicle> {
      * @return answer
      */
     public int compareByFuelTypeTo(FuelType o) {
-        return fuelType.getTypeName().compareTo(o.getTypeName()) * -1;
+        return Integer.compare(fuelType.getRank(), o.getRank());
+    }
+
+    /**
+     * Method to append string representation of vehicle to builder without creating
+     * intermediate strings, so many vehicles are formatted in one reused builder
+     * @param builder to append to
+     * @return the same builder
+     */
+    public StringBuilder appendTo(StringBuilder builder) {
+        builder.append("Vehicle{id=").append((int) id)
+                .append(", name='").append(name).append('\'')
+                .append(", coordinates=");
+        if (coordinates == null) {
+            builder.append((Object) null);
+        } else {
+            coordinates.appendTo(builder);
+        }
+
+        builder.append(", creationDate=");
+        DateFormatter.appendDate(builder, creationDate);
+        return builder
+                .append(", enginePower=").append(enginePower)
+                .append(", type=").append(type)
+                .append(", fuelType=").append(fuelType)
+                .append('}');
     }
 
     @Override
     public String toString() {
-        return "Vehicle{" +
-                "id=" + id +
-                ", name='" + name + '\'' +
-                ", coordinates=" + coordinates +
-                ", creationDate=" + creationDate +
-                ", enginePower=" + enginePower +
-                ", type=" + type +
-                ", fuelType=" + fuelType +
-                '}';
+        return appendTo(new StringBuilder()).toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package org.example.models;
+
+import java.time.LocalDate;
+
+/**
+ * Caches of values, which many vehicles share: creation dates, names and coordinates.
+ * Equal value is replaced by the cached instance, so vehicles keep one object instead of their own copies.
+ * Dates are cached by epoch day, names and coordinates in tables of fixed size by hash,
+ * where new value replaces old one with the same cell, so frequent values stay and memory is bounded.
+ * All values are immutable, so caches are shared by threads without locks
+ */
+public class VehicleValueCache {
+    private static final VehicleValueCache GLOBAL = new VehicleValueCache();
+    private static final int FIRST_DAY = 0;
+    private static final int DAYS_COUNT = 1 << 16;
+    private static final int TABLE_SIZE = 1 << 16;
+
+    private final LocalDate[] dates = new LocalDate[DAYS_COUNT];
+    private final String[] names = new String[TABLE_SIZE];
+    private final Coordinates[] coordinates = new Coordinates[TABLE_SIZE];
+
+    public static VehicleValueCache global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Method to get cached date by epoch day
+     * @param epochDay of date
+     * @return cached date or new one, if day is out of cached range
+     */
+    public LocalDate date(long epochDay) {
+        long index = epochDay - FIRST_DAY;
+        if (index < 0 || index >= DAYS_COUNT) {
+            return LocalDate.ofEpochDay(epochDay);
+        }
+
+        LocalDate date = dates[(int) index];
+        if (date == null) {
+            date = LocalDate.ofEpochDay(epochDay);
+            dates[(int) index] = date;
+        }
+
+        return date;
+    }
+
+    /**
+     * Method to replace date with cached one
+     * @param date to replace
+     * @return cached date or input date, if it is out of cached range or null
+     */
+    public LocalDate date(LocalDate date) {
+        if (date == null) {
+            return null;
+        }
+
+        long index = date.toEpochDay() - FIRST_DAY;
+        if (index < 0 || index >= DAYS_COUNT) {
+            return date;
+        }
+
+        LocalDate cached = dates[(int) index];
+        if (cached == null) {
+            dates[(int) index] = date;
+            return date;
+        }
+
+        return cached;
+    }
+
+    /**
+     * Method to replace name with cached equal one
+     * @param name to replace
+     * @return cached name or input name, which is cached instead of other name with the same cell
+     */
+    public String name(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        int cell = cell(name.hashCode());
+        String cached = names[cell];
+        if (name.equals(cached)) {
+            return cached;
+        }
+
+        names[cell] = name;
+        return name;
+    }
+
+    /**
+     * Method to get cached coordinates
+     * @param x coordinate x
+     * @param y coordinate y
+     * @return cached coordinates or new ones, which are cached instead of other coordinates with the same cell
+     */
+    public Coordinates coordinates(int x, int y) {
+        int cell = cell(x * 31 + y);
+        Coordinates cached = coordinates[cell];
+        if (cached != null && cached.getX() == x && cached.getY() == y) {
+            return cached;
+        }
+
+        Coordinates created = new Coordinates(x, y);
+        coordinates[cell] = created;
+        return created;
+    }
+
+    /**
+     * Method to replace coordinates with cached equal ones
+     * @param coordinates to replace
+     * @return cached coordinates or input ones, which are cached instead of other coordinates with the same cell
+     */
+    public Coordinates coordinates(Coordinates coordinates) {
+        if (coordinates == null) {
+            return null;
+        }
+
+        int x = coordinates.getX();
+        int y = coordinates.getY();
+        int cell = cell(x * 31 + y);
+        Coordinates cached = this.coordinates[cell];
+        if (cached != null && cached.getX() == x && cached.getY() == y) {
+            return cached;
+        }
+
+        this.coordinates[cell] = coordinates;
+        return coordinates;
+    }
+
+    /**
+     * Method to replace name and coordinates of vehicle with cached ones, creation date is cached by vehicle itself
+     * @param vehicle to change
+     */
+    public void canonicalize(Vehicle vehicle) {
+        vehicle.setName(name(vehicle.getName()));
+        vehicle.setCoordinates(coordinates(vehicle.getCoordinates()));
+    }
+
+    private static int cell(int hash) {
+        hash *= 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (TABLE_SIZE - 1);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.query;
+
+import java.util.LongSummaryStatistics;
+import java.util.function.Function;
+
+/**
+ * Aggregate functions of queries, which are computed from summary of field's values
+ */
+public enum Aggregate {
+    COUNT("count", LongSummaryStatistics::getCount),
+    SUM("sum", LongSummaryStatistics::getSum),
+    AVG("avg", LongSummaryStatistics::getAverage),
+    MIN("min", LongSummaryStatistics::getMin),
+    MAX("max", LongSummaryStatistics::getMax);
+
+    private final String name;
+    private final Function<LongSummaryStatistics, Number> result;
+
+    Aggregate(String name, Function<LongSummaryStatistics, Number> result) {
+        this.name = name;
+        this.result = result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Method to check, whether function needs values of field or only counts vehicles
+     * @return true for every function except count
+     */
+    public boolean needsField() {
+        return this != COUNT;
+    }
+
+    /**
+     * Method to get result of function
+     * @param summary of field's values
+     * @return result
+     */
+    public Number getResult(LongSummaryStatistics summary) {
+        return result.apply(summary);
+    }
+
+    /**
+     * Method to get function by its name
+     * @param name of function in any case
+     * @return function or null, if there is no such function
+     */
+    public static Aggregate byName(String name) {
+        for (Aggregate aggregate : values()) {
+            if (aggregate.name.equalsIgnoreCase(name)) {
+                return aggregate;
+            }
+        }
+
+        return null;
+    }
+}
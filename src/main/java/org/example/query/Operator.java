@@ -0,0 +1,51 @@
+package org.example.query;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Operators of comparing vehicle's field with value in queries
+ */
+public enum Operator {
+    EQUAL("=", comparison -> comparison == 0),
+    NOT_EQUAL("!=", comparison -> comparison != 0),
+    LESS("<", comparison -> comparison < 0),
+    LESS_OR_EQUAL("<=", comparison -> comparison <= 0),
+    GREATER(">", comparison -> comparison > 0),
+    GREATER_OR_EQUAL(">=", comparison -> comparison >= 0);
+
+    private final String symbol;
+    private final IntPredicate result;
+
+    Operator(String symbol, IntPredicate result) {
+        this.symbol = symbol;
+        this.result = result;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Method to check result of comparing field with value
+     * @param comparison result of comparing like in {@link Comparable#compareTo}
+     * @return whether operator holds
+     */
+    public boolean test(int comparison) {
+        return result.test(comparison);
+    }
+
+    /**
+     * Method to get operator by its symbol
+     * @param symbol of operator
+     * @return operator or null, if there is no such operator
+     */
+    public static Operator bySymbol(String symbol) {
+        for (Operator operator : values()) {
+            if (operator.symbol.equals(symbol)) {
+                return operator;
+            }
+        }
+
+        return null;
+    }
+}
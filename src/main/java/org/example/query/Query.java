@@ -0,0 +1,126 @@
+package org.example.query;
+
+import org.example.models.Vehicle;
+import org.example.services.VehicleService;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Query over vehicles, which is compiled once into predicate, order and aggregation.
+ * Large collections are walked by parallel stream, so work is split into fork-join tasks
+ */
+public class Query {
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+    private static final ToIntFunction<Vehicle> NO_FIELD = vehicle -> 0;
+
+    private final Predicate<Vehicle> filter;
+    private final Comparator<Vehicle> order;
+    private final long limit;
+    private final Aggregate aggregate;
+    private final VehicleField field;
+    private final VehicleField groupBy;
+
+    Query(
+            Predicate<Vehicle> filter,
+            Comparator<Vehicle> order,
+            long limit,
+            Aggregate aggregate,
+            VehicleField field,
+            VehicleField groupBy
+    ) {
+        this.filter = filter;
+        this.order = order;
+        this.limit = limit;
+        this.aggregate = aggregate;
+        this.field = field;
+        this.groupBy = groupBy;
+    }
+
+    /**
+     * Method to compile text of query.
+     * Selection is "[where] condition [order by field [asc | desc]] [limit N]",
+     * aggregation is "count | sum field | avg field | min field | max field [by field] [where condition]".
+     * Condition compares fields with values by =, !=, &lt;, &lt;=, &gt;, &gt;= and combines comparisons by and, or, not
+     * and parentheses
+     * @param text of query
+     * @return compiled query
+     * @throws IllegalArgumentException if text isn't correct query
+     */
+    public static Query parse(String text) {
+        return new QueryParser(text).parse();
+    }
+
+    /**
+     * Method to check, whether query computes aggregate instead of selecting vehicles
+     * @return answer
+     */
+    public boolean isAggregate() {
+        return aggregate != null;
+    }
+
+    /**
+     * Method to check, whether aggregate is computed for every value of field separately
+     * @return answer
+     */
+    public boolean isGrouped() {
+        return groupBy != null;
+    }
+
+    /**
+     * Method to select vehicles
+     * @param service where vehicles are
+     * @return stream of selected vehicles in asked order or in insertion order
+     */
+    public Stream<Vehicle> select(VehicleService service) {
+        Stream<Vehicle> vehicles = stream(service).filter(filter);
+        if (order != null) {
+            vehicles = vehicles.sorted(order);
+        }
+
+        return vehicles.limit(limit);
+    }
+
+    /**
+     * Method to compute aggregate
+     * @param service where vehicles are
+     * @return results by values of grouping field in ascending order, or the only result by null key,
+     * if query isn't grouped. Results of functions, which are undefined for no vehicles, are absent
+     */
+    public Map<Object, Number> aggregate(VehicleService service) {
+        ToIntFunction<Vehicle> values = field == null ? NO_FIELD : field.getIntValue();
+        if (groupBy == null) {
+            LongSummaryStatistics summary = stream(service).filter(filter).mapToLong(values::applyAsInt).summaryStatistics();
+            if (summary.getCount() == 0 && aggregate != Aggregate.COUNT && aggregate != Aggregate.SUM) {
+                return Collections.emptyMap();
+            }
+
+            return Collections.singletonMap(null, aggregate.getResult(summary));
+        }
+
+        Map<Object, LongSummaryStatistics> groups = stream(service).filter(filter).collect(
+                HashMap::new,
+                (map, vehicle) -> map.computeIfAbsent(groupBy.getValue(vehicle), key -> new LongSummaryStatistics())
+                        .accept(values.applyAsInt(vehicle)),
+                (left, right) -> right.forEach((key, summary) -> left.merge(key, summary, (a, b) -> {
+                    a.combine(b);
+                    return a;
+                }))
+        );
+        Map<Object, Number> results = new TreeMap<>(groupBy.getOrder());
+        groups.forEach((key, summary) -> results.put(key, aggregate.getResult(summary)));
+        return results;
+    }
+
+    private Stream<Vehicle> stream(VehicleService service) {
+        Stream<Vehicle> vehicles = service.stream();
+        return service.size() >= PARALLEL_THRESHOLD ? vehicles.parallel() : vehicles;
+    }
+}
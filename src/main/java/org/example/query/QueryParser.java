@@ -0,0 +1,222 @@
+package org.example.query;
+
+import org.example.models.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Recursive descent parser of query's text.
+ * Words are compared with keywords in any case, values with spaces are written in quotes
+ */
+class QueryParser {
+    private static final String OPERATOR_CHARS = "=!<>";
+    private static final char QUOTE = '\'';
+
+    private final List<String> tokens;
+    private final List<Boolean> quoted = new ArrayList<>();
+    private int position;
+
+    QueryParser(String text) {
+        this.tokens = tokenize(text);
+    }
+
+    /**
+     * Method to parse the whole query
+     * @return compiled query
+     * @throws IllegalArgumentException if text isn't correct query
+     */
+    Query parse() {
+        Aggregate aggregate = Aggregate.byName(peek());
+        Query query = aggregate == null ? parseSelection() : parseAggregation(aggregate);
+        if (position < tokens.size()) {
+            throw new IllegalArgumentException("Unexpected " + peek());
+        }
+
+        return query;
+    }
+
+    private Query parseSelection() {
+        accept("where");
+        Predicate<Vehicle> filter = isKeyword("order") || isKeyword("limit") || position == tokens.size()
+                ? vehicle -> true
+                : parseCondition();
+        Comparator<Vehicle> order = null;
+        if (accept("order")) {
+            expect("by");
+            order = parseField().comparator();
+            if (accept("desc")) {
+                order = order.reversed();
+            } else {
+                accept("asc");
+            }
+        }
+
+        long limit = Long.MAX_VALUE;
+        if (accept("limit")) {
+            limit = Long.parseLong(next());
+            if (limit < 0) {
+                throw new IllegalArgumentException("Expected limit >= 0, but limit = " + limit);
+            }
+        }
+
+        return new Query(filter, order, limit, null, null, null);
+    }
+
+    private Query parseAggregation(Aggregate aggregate) {
+        next();
+        VehicleField field = null;
+        if (aggregate.needsField()) {
+            field = parseField();
+            if (field.getIntValue() == null) {
+                throw new IllegalArgumentException("Field " + field.getName() + " isn't numeric");
+            }
+        }
+
+        VehicleField groupBy = accept("by") ? parseField() : null;
+        Predicate<Vehicle> filter = accept("where") ? parseCondition() : vehicle -> true;
+        return new Query(filter, null, Long.MAX_VALUE, aggregate, field, groupBy);
+    }
+
+    /**
+     * Method to parse comparisons, which are joined by or
+     * @return predicate
+     */
+    private Predicate<Vehicle> parseCondition() {
+        Predicate<Vehicle> condition = parseConjunction();
+        while (accept("or")) {
+            condition = condition.or(parseConjunction());
+        }
+
+        return condition;
+    }
+
+    /**
+     * Method to parse comparisons, which are joined by and
+     * @return predicate
+     */
+    private Predicate<Vehicle> parseConjunction() {
+        Predicate<Vehicle> condition = parseComparison();
+        while (accept("and")) {
+            condition = condition.and(parseComparison());
+        }
+
+        return condition;
+    }
+
+    /**
+     * Method to parse one comparison, negation or condition in parentheses
+     * @return predicate
+     */
+    private Predicate<Vehicle> parseComparison() {
+        if (accept("not")) {
+            return parseComparison().negate();
+        }
+
+        if (accept("(")) {
+            Predicate<Vehicle> condition = parseCondition();
+            expect(")");
+            return condition;
+        }
+
+        VehicleField field = parseField();
+        String symbol = next();
+        Operator operator = Operator.bySymbol(symbol);
+        if (operator == null) {
+            throw new IllegalArgumentException("Unknown operator " + symbol);
+        }
+
+        return field.compare(operator, next());
+    }
+
+    private VehicleField parseField() {
+        String name = next();
+        VehicleField field = VehicleField.byName(name);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown field " + name);
+        }
+
+        return field;
+    }
+
+    private String peek() {
+        return position < tokens.size() ? tokens.get(position) : "";
+    }
+
+    private String next() {
+        if (position == tokens.size()) {
+            throw new IllegalArgumentException("Unexpected end of query");
+        }
+
+        return tokens.get(position++);
+    }
+
+    private boolean isKeyword(String keyword) {
+        return position < tokens.size() && !quoted.get(position) && tokens.get(position).equalsIgnoreCase(keyword);
+    }
+
+    private boolean accept(String keyword) {
+        if (isKeyword(keyword)) {
+            position++;
+            return true;
+        }
+
+        return false;
+    }
+
+    private void expect(String keyword) {
+        if (!accept(keyword)) {
+            throw new IllegalArgumentException("Expected " + keyword + ", but found " + peek());
+        }
+    }
+
+    /**
+     * Method to split text into words, values in quotes, operators and parentheses
+     * @param text of query
+     * @return tokens
+     */
+    private List<String> tokenize(String text) {
+        List<String> result = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int start = i;
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+
+            if (c == QUOTE) {
+                int end = text.indexOf(QUOTE, i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Quote isn't closed");
+                }
+
+                result.add(text.substring(i + 1, end));
+                quoted.add(true);
+                i = end + 1;
+                continue;
+            }
+
+            if (c == '(' || c == ')') {
+                i++;
+            } else if (OPERATOR_CHARS.indexOf(c) >= 0) {
+                while (i < text.length() && OPERATOR_CHARS.indexOf(text.charAt(i)) >= 0) {
+                    i++;
+                }
+            } else {
+                while (i < text.length() && !Character.isWhitespace(text.charAt(i)) && text.charAt(i) != '('
+                        && text.charAt(i) != ')' && OPERATOR_CHARS.indexOf(text.charAt(i)) < 0) {
+                    i++;
+                }
+            }
+
+            result.add(text.substring(start, i));
+            quoted.add(false);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.query;
+
+import org.example.enums.FuelType;
+import org.example.enums.VehicleType;
+import org.example.models.Vehicle;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Fields of vehicle, which can be compared, sorted and grouped by in queries.
+ * Fuel's types are ordered by rank like in {@link Vehicle#compareTo}, absent values are the lowest
+ */
+public enum VehicleField {
+    ID("id", Vehicle::getId),
+    NAME("name", Vehicle::getName, literal -> literal, Comparator.<String>naturalOrder()),
+    X("x", vehicle -> vehicle.getCoordinates().getX()),
+    Y("y", vehicle -> vehicle.getCoordinates().getY()),
+    CREATION_DATE("creationDate", Vehicle::getCreationDate, VehicleField::parseDate, Comparator.<LocalDate>naturalOrder()),
+    ENGINE_POWER("enginePower", Vehicle::getEnginePower),
+    TYPE("type", Vehicle::getType, VehicleField::parseType, Comparator.<VehicleType>naturalOrder()),
+    FUEL_TYPE("fuelType", Vehicle::getFuelType, FuelType::valueOf, Comparator.comparingInt(FuelType::getRank));
+
+    private final String name;
+    private final ToIntFunction<Vehicle> intValue;
+    private final Function<Vehicle, Object> value;
+    private final Function<String, Object> parser;
+    private final Comparator<Object> order;
+
+    VehicleField(String name, ToIntFunction<Vehicle> intValue) {
+        this(name, intValue, intValue::applyAsInt, Integer::valueOf, Comparator.<Integer>naturalOrder());
+    }
+
+    <T> VehicleField(String name, Function<Vehicle, T> value, Function<String, T> parser, Comparator<T> order) {
+        this(name, null, value, parser, order);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> VehicleField(
+            String name,
+            ToIntFunction<Vehicle> intValue,
+            Function<Vehicle, T> value,
+            Function<String, T> parser,
+            Comparator<T> order
+    ) {
+        this.name = name;
+        this.intValue = intValue;
+        this.value = (Function<Vehicle, Object>) value;
+        this.parser = (Function<String, Object>) parser;
+        this.order = (Comparator<Object>) Comparator.nullsFirst(order);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Method to get value of field
+     * @param vehicle to get value from
+     * @return value, which may be null
+     */
+    public Object getValue(Vehicle vehicle) {
+        return value.apply(vehicle);
+    }
+
+    /**
+     * Method to get order of field's values
+     * @return comparator of values, which puts null first
+     */
+    public Comparator<Object> getOrder() {
+        return order;
+    }
+
+    /**
+     * Method to get numeric value of field without boxing
+     * @return function or null, if field isn't numeric
+     */
+    public ToIntFunction<Vehicle> getIntValue() {
+        return intValue;
+    }
+
+    /**
+     * Method to get order of vehicles by field
+     * @return comparator
+     */
+    public Comparator<Vehicle> comparator() {
+        if (intValue != null) {
+            return Comparator.comparingInt(intValue);
+        }
+
+        return Comparator.comparing(value, order);
+    }
+
+    /**
+     * Method to compile comparing of field with value into predicate.
+     * Value is parsed once, numeric fields are compared without boxing
+     * @param operator of comparing
+     * @param literal of value
+     * @return predicate
+     */
+    public Predicate<Vehicle> compare(Operator operator, String literal) {
+        Object parsed = parse(literal);
+        if (intValue != null) {
+            ToIntFunction<Vehicle> field = intValue;
+            int number = (Integer) parsed;
+            return vehicle -> operator.test(Integer.compare(field.applyAsInt(vehicle), number));
+        }
+
+        return vehicle -> operator.test(order.compare(value.apply(vehicle), parsed));
+    }
+
+    /**
+     * Method to parse value of field
+     * @param literal of value
+     * @return value
+     */
+    private Object parse(String literal) {
+        try {
+            return parser.apply(literal);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Wrong value of " + name + " : " + literal, e);
+        }
+    }
+
+    private static LocalDate parseDate(String literal) {
+        return literal.equals("null") ? null : LocalDate.parse(literal);
+    }
+
+    private static VehicleType parseType(String literal) {
+        return literal.equals("null") ? null : VehicleType.valueOf(literal);
+    }
+
+    /**
+     * Method to get field by its name
+     * @param name of field in any case
+     * @return field or null, if there is no such field
+     */
+    public static VehicleField byName(String name) {
+        for (VehicleField field : values()) {
+            if (field.name.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.repositories;
+
+import org.example.enums.FsyncPolicy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helper class, which decides by fsync policy, whether current write must be forced to disk
+ */
+class FsyncScheduler {
+    private static final int BATCH_SIZE = 16;
+    private static final long BATCH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final FsyncPolicy policy;
+    private int unforcedWrites;
+    private long lastForceTime = System.nanoTime();
+
+    FsyncScheduler(FsyncPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Method to register write and decide, whether it must be forced
+     * @return true if data must be forced
+     */
+    boolean shouldForce() {
+        return switch (policy) {
+            case ALWAYS -> true;
+            case NEVER -> false;
+            case BATCHED -> {
+                long now = System.nanoTime();
+                if (++unforcedWrites >= BATCH_SIZE || now - lastForceTime >= BATCH_INTERVAL_NANOS) {
+                    unforcedWrites = 0;
+                    lastForceTime = now;
+                    yield true;
+                }
+
+                yield false;
+            }
+        };
+    }
+
+    FsyncPolicy getPolicy() {
+        return policy;
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.repositories;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scanner of json bytes, which finds records of array by key in the root object and splits them into chunks.
+ * Only quotes, escapes and brackets are looked at, so scan is much faster than parsing.
+ * Every chunk starts at the beginning of record and ends after the end of record, records between them
+ * keep their commas, so chunk is a valid content of json array
+ */
+class JSONRecordSplitter {
+    private final ByteBuffer buffer;
+    private final byte[] arrayKey;
+
+    JSONRecordSplitter(ByteBuffer buffer, String arrayKey) {
+        this.buffer = buffer;
+        this.arrayKey = arrayKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Method to split records into chunks of about the same size
+     * @param chunkSize minimal count of bytes in chunk, the last chunk may be smaller
+     * @return bounds of chunks as pairs of start and end offsets or null, if array isn't found only once
+     * or json isn't well-formed, then caller should parse it as a whole to get proper error
+     */
+    List<int[]> split(int chunkSize) {
+        List<int[]> chunks = new ArrayList<>();
+        int limit = buffer.limit();
+        int depth = 0;
+        int arrays = 0;
+        boolean keyFound = false;
+        boolean inArray = false;
+        int chunkStart = -1;
+        for (int i = 0; i < limit; i++) {
+            byte b = buffer.get(i);
+            switch (b) {
+                case '"' -> {
+                    int start = i + 1;
+                    i = skipString(start);
+                    if (i < 0) {
+                        return null;
+                    }
+
+                    if (depth == 1) {
+                        keyFound = isArrayKey(start, i);
+                    }
+                }
+                case '{', '[' -> {
+                    depth++;
+                    if (b == '[' && depth == 2 && keyFound) {
+                        inArray = true;
+                        arrays++;
+                    } else if (inArray && depth == 3 && chunkStart < 0) {
+                        chunkStart = i;
+                    }
+                }
+                case '}', ']' -> {
+                    depth--;
+                    if (depth < 0) {
+                        return null;
+                    }
+
+                    if (inArray && depth == 2 && i + 1 - chunkStart >= chunkSize) {
+                        chunks.add(new int[] {chunkStart, i + 1});
+                        chunkStart = -1;
+                    } else if (inArray && depth == 1) {
+                        if (chunkStart >= 0) {
+                            chunks.add(new int[] {chunkStart, findLastRecordEnd(i)});
+                            chunkStart = -1;
+                        }
+
+                        inArray = false;
+                    }
+                }
+                case ',' -> {
+                    if (depth == 1) {
+                        keyFound = false;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        return depth == 0 && arrays == 1 ? chunks : null;
+    }
+
+    /**
+     * Method to skip string, escaped quotes are skipped with it
+     * @param from offset after opening quote
+     * @return offset of closing quote or -1, if string isn't closed
+     */
+    private int skipString(int from) {
+        for (int i = from; i < buffer.limit(); i++) {
+            byte b = buffer.get(i);
+            if (b == '\\') {
+                i++;
+            } else if (b == '"') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean isArrayKey(int from, int to) {
+        if (to - from != arrayKey.length) {
+            return false;
+        }
+
+        for (int i = 0; i < arrayKey.length; i++) {
+            if (buffer.get(from + i) != arrayKey[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Method to find end of the last record before end of array by skipping whitespaces
+     * @param arrayEnd offset of closing bracket of array
+     * @return offset after the last record
+     */
+    private int findLastRecordEnd(int arrayEnd) {
+        int i = arrayEnd;
+        while (Character.isWhitespace(buffer.get(i - 1))) {
+            i--;
+        }
+
+        return i;
+    }
+}
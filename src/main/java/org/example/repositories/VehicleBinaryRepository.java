@@ -0,0 +1,222 @@
+package org.example.repositories;
+
+import org.example.enums.FsyncPolicy;
+import org.example.enums.FuelType;
+import org.example.enums.VehicleType;
+import org.example.models.Vehicle;
+import org.example.models.VehicleValueCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Repository class to save and use information about vehicles in binary file, which is loaded through memory mapping.
+ * <p>
+ * Layout of version 1, all numbers are big-endian:
+ * <pre>
+ * header (32 bytes) : magic, version, record count, string count, string table offset (long), reserved (long)
+ * records (32 bytes each) : id, name index, x, y, engine power, type ordinal + 1 (byte, 0 is null),
+ *                           fuel type ordinal (byte), 2 bytes of padding, creation date as epoch day (long)
+ * string table : length in bytes and UTF-8 bytes of every distinct name
+ * </pre>
+ */
+public class VehicleBinaryRepository extends VehicleRepository {
+    private static final int MAGIC = 0x56454843;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 32;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+    private static final FuelType[] FUEL_TYPES = FuelType.values();
+
+    public VehicleBinaryRepository(String fileName) {
+        this(fileName, FsyncPolicy.ALWAYS);
+    }
+
+    public VehicleBinaryRepository(String fileName, FsyncPolicy fsyncPolicy) {
+        super(fileName, fsyncPolicy);
+    }
+
+    @Override
+    protected void readSnapshot(Path path, Consumer<Vehicle> action) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Binary snapshot is larger than 2 GB: " + path);
+            }
+
+            if (size < HEADER_SIZE) {
+                throw new IOException("Binary snapshot is too short: " + path);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("File isn't binary vehicle snapshot: " + path);
+            }
+
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported version " + buffer.getInt(4) + " of binary snapshot: " + path);
+            }
+
+            int recordCount = buffer.getInt(8);
+            int stringCount = buffer.getInt(12);
+            long stringTableOffset = buffer.getLong(16);
+            if (recordCount < 0 || stringCount < 0
+                    || HEADER_SIZE + (long) recordCount * RECORD_SIZE > stringTableOffset || stringTableOffset > size) {
+                throw new IOException("Corrupted header of binary snapshot: " + path);
+            }
+
+            try {
+                String[] names = readStrings(buffer, (int) stringTableOffset, stringCount);
+                for (int i = 0, offset = HEADER_SIZE; i < recordCount; i++, offset += RECORD_SIZE) {
+                    action.accept(readVehicle(buffer, offset, names));
+                }
+            } catch (IndexOutOfBoundsException e) {
+                throw new IOException("Corrupted binary snapshot: " + path, e);
+            }
+        }
+    }
+
+    @Override
+    protected void writeSnapshot(FileChannel channel, VehicleSource vehicles) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        Map<String, Integer> nameIndexes = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        int[] recordCount = {0};
+
+        buffer.position(HEADER_SIZE);
+        try {
+            vehicles.forEach(vehicle -> {
+                if (buffer.remaining() < RECORD_SIZE) {
+                    drain(channel, buffer);
+                }
+
+                Integer nameIndex = nameIndexes.get(vehicle.getName());
+                if (nameIndex == null) {
+                    nameIndex = names.size();
+                    nameIndexes.put(vehicle.getName(), nameIndex);
+                    names.add(vehicle.getName());
+                }
+
+                writeVehicle(buffer, vehicle, nameIndex);
+                recordCount[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        long stringTableOffset = channel.position() + buffer.position();
+        for (String name : names) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (buffer.remaining() < Integer.BYTES + bytes.length) {
+                flush(channel, buffer);
+            }
+
+            buffer.putInt(bytes.length);
+            if (bytes.length > buffer.remaining()) {
+                flush(channel, buffer);
+                writeFully(channel, ByteBuffer.wrap(bytes));
+            } else {
+                buffer.put(bytes);
+            }
+        }
+
+        flush(channel, buffer);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(recordCount[0])
+                .putInt(names.size())
+                .putLong(stringTableOffset)
+                .putLong(0)
+                .flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    /**
+     * Method to decode names from string table
+     * @param buffer with mapped file
+     * @param offset of string table
+     * @param count of strings
+     * @return names by index
+     */
+    private static String[] readStrings(ByteBuffer buffer, int offset, int count) {
+        String[] names = new String[count];
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getInt(offset);
+            offset += Integer.BYTES;
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+
+            buffer.get(offset, bytes, 0, length);
+            names[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            offset += length;
+        }
+
+        return names;
+    }
+
+    private static Vehicle readVehicle(ByteBuffer buffer, int offset, String[] names) {
+        byte type = buffer.get(offset + 20);
+        VehicleValueCache cache = VehicleValueCache.global();
+        return new Vehicle(
+                buffer.getInt(offset),
+                names[buffer.getInt(offset + 4)],
+                cache.coordinates(buffer.getInt(offset + 8), buffer.getInt(offset + 12)),
+                cache.date(buffer.getLong(offset + 24)),
+                buffer.getInt(offset + 16),
+                type == 0 ? null : VEHICLE_TYPES[type - 1],
+                FUEL_TYPES[buffer.get(offset + 21)]
+        );
+    }
+
+    private static void writeVehicle(ByteBuffer buffer, Vehicle vehicle, int nameIndex) {
+        buffer.putInt(vehicle.getId())
+                .putInt(nameIndex)
+                .putInt(vehicle.getCoordinates().getX())
+                .putInt(vehicle.getCoordinates().getY())
+                .putInt(vehicle.getEnginePower())
+                .put(vehicle.getType() == null ? 0 : (byte) (vehicle.getType().ordinal() + 1))
+                .put((byte) vehicle.getFuelType().ordinal())
+                .putShort((short) 0)
+                .putLong(vehicle.getCreationDate().toEpochDay());
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) {
+        try {
+            flush(channel, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.example.repositories;
+
+import org.example.enums.FuelType;
+import org.example.enums.VehicleType;
+import org.example.models.Vehicle;
+import org.example.models.VehicleValueCache;
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.ParseException;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+/**
+ * Streaming handler, which turns every element of "Collection" array into vehicle as soon as it is read
+ */
+public class VehicleContentHandler implements ContentHandler {
+    private final String arrayKey;
+    private final Consumer<Vehicle> consumer;
+    private final Deque<String> keys = new ArrayDeque<>();
+    private int depth;
+    private boolean inCollection;
+
+    private Integer id;
+    private String name;
+    private Integer x;
+    private Integer y;
+    private LocalDate creationDate;
+    private Integer enginePower;
+    private VehicleType type;
+    private FuelType fuelType;
+
+    public VehicleContentHandler(Consumer<Vehicle> consumer) {
+        this("Collection", consumer);
+    }
+
+    public VehicleContentHandler(String arrayKey, Consumer<Vehicle> consumer) {
+        this.arrayKey = arrayKey;
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void startJSON() {
+        keys.clear();
+        depth = 0;
+        inCollection = false;
+    }
+
+    @Override
+    public void endJSON() {
+    }
+
+    @Override
+    public boolean startObject() {
+        depth++;
+        if (inCollection && depth == 2) {
+            id = null;
+            name = null;
+            x = null;
+            y = null;
+            creationDate = null;
+            enginePower = null;
+            type = null;
+            fuelType = null;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean endObject() throws ParseException {
+        if (inCollection && depth == 2) {
+            consumer.accept(createVehicle());
+        }
+
+        depth--;
+        return true;
+    }
+
+    @Override
+    public boolean startObjectEntry(String key) {
+        keys.push(key);
+        return true;
+    }
+
+    @Override
+    public boolean endObjectEntry() {
+        keys.pop();
+        return true;
+    }
+
+    @Override
+    public boolean startArray() {
+        if (depth == 1 && arrayKey.equals(keys.peek())) {
+            inCollection = true;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean endArray() {
+        if (depth == 1) {
+            inCollection = false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean primitive(Object value) throws ParseException {
+        if (!inCollection) {
+            return true;
+        }
+
+        String key = keys.peek();
+        try {
+            if (depth == 3) {
+                switch (key) {
+                    case "X" -> x = toInteger(value);
+                    case "Y" -> y = toInteger(value);
+                }
+            } else if (depth == 2) {
+                switch (key) {
+                    case "Id" -> id = toInteger(value);
+                    case "Name" -> name = (String) value;
+                    case "CreationDate" -> creationDate = LocalDate.parse((String) value);
+                    case "EnginePower" -> enginePower = toInteger(value);
+                    case "VehicleType" -> type = value == null ? null : VehicleType.valueOf((String) value);
+                    case "FuelType" -> fuelType = FuelType.valueOf((String) value);
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_EXCEPTION, key + "=" + value);
+        }
+
+        return true;
+    }
+
+    protected int getDepth() {
+        return depth;
+    }
+
+    protected String getCurrentKey() {
+        return keys.peek();
+    }
+
+    /**
+     * Method to build vehicle from fields of current record, shared values are taken from cache
+     * @return vehicle
+     * @throws ParseException if some required field is missing
+     */
+    private Vehicle createVehicle() throws ParseException {
+        if (id == null || name == null || x == null || y == null
+                || creationDate == null || enginePower == null || fuelType == null) {
+            throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_TOKEN, "incomplete vehicle with id = " + id);
+        }
+
+        VehicleValueCache cache = VehicleValueCache.global();
+        return new Vehicle(
+                id,
+                cache.name(name),
+                cache.coordinates(x, y),
+                cache.date(creationDate),
+                enginePower,
+                type,
+                fuelType
+        );
+    }
+
+    /**
+     * Method to convert parsed json number to integer
+     * @param value parsed value
+     * @return integer value
+     */
+    private static Integer toInteger(Object value) {
+        return Math.toIntExact((Long) value);
+    }
+}
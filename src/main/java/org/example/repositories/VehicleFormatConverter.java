@@ -0,0 +1,41 @@
+package org.example.repositories;
+
+import org.example.enums.FsyncPolicy;
+import org.example.models.Vehicle;
+import org.example.services.VehicleService;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Converter between json and binary vehicle files, format of every file is chosen by its extension
+ */
+public class VehicleFormatConverter {
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage : VehicleFormatConverter source_file target_file (.bin files are binary, others are json)");
+            System.exit(1);
+        }
+
+        try {
+            convert(args[0], args[1]);
+        } catch (IOException | ParseException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Method to convert file with vehicles to other format
+     * @param source is name of file to read, its journal is applied too, but source files stay as they are
+     * @param target is name of file to write
+     * @throws IOException If an I/O error occurs
+     * @throws ParseException if an parse error occurs
+     */
+    public static void convert(String source, String target) throws IOException, ParseException {
+        VehicleRepository targetRepository = VehicleRepository.forFile(target, FsyncPolicy.ALWAYS);
+        Collection<Vehicle> vehicles = VehicleRepository.forFile(source, FsyncPolicy.NEVER).readCopy();
+        targetRepository.write(new VehicleService(vehicles, targetRepository));
+    }
+}
@@ -1,110 +1,216 @@
 package org.example.repositories;
 
-import org.example.enums.FuelType;
-import org.example.enums.VehicleType;
-import org.example.models.Coordinates;
+import org.example.enums.FsyncPolicy;
 import org.example.models.Vehicle;
-import org.example.services.VehicleService;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
-import java.io.BufferedInputStream;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.BufferedWriter;
+import java.io.CharArrayReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.time.LocalDate;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardOpenOption.READ;
 
 
 /**
  * Repository class to save and use information about vehicles in json file
  */
-public class VehicleJSONRepository {
-    private final String fileName;
+public class VehicleJSONRepository extends VehicleRepository {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final String ARRAY_KEY = "Collection";
+    private static final String CHUNK_PREFIX = "{\"" + ARRAY_KEY + "\":[";
+    private static final String CHUNK_SUFFIX = "]}";
+
+    private final int parseThreads;
 
     public VehicleJSONRepository(String fileName) {
-        this.fileName = fileName;
+        this(fileName, FsyncPolicy.ALWAYS);
+    }
+
+    public VehicleJSONRepository(String fileName, FsyncPolicy fsyncPolicy) {
+        this(fileName, fsyncPolicy, Runtime.getRuntime().availableProcessors());
+    }
+
+    public VehicleJSONRepository(String fileName, FsyncPolicy fsyncPolicy, int parseThreads) {
+        super(fileName, fsyncPolicy);
+        if (parseThreads < 1) {
+            throw new IllegalArgumentException("Expected parseThreads >= 1, but parseThreads = " + parseThreads);
+        }
+
+        this.parseThreads = parseThreads;
     }
 
     /**
-     * Method to read saved information in file
-     * @return vehicle's service with saved information
+     * Method to read snapshot. Large file is split into chunks at borders of records, which are parsed
+     * in parallel by own threads of reading and joined in the same order, as they are in file.
+     * Small file, file larger than 2 GB or one parsing thread reads file sequentially
+     * @param path of snapshot
+     * @return vehicles in order of file
      * @throws IOException If an I/O error occurs
      * @throws ParseException if an parse error occurs
      */
-    public VehicleService read() throws IOException, ParseException {
-        InputStream in = new FileInputStream(fileName);
-        BufferedInputStream stream = new BufferedInputStream(in);
-        String jsonData = new String(stream.readAllBytes());
-
-        JSONObject object = (JSONObject) new JSONParser().parse(jsonData);
-
-        ArrayDeque<Vehicle> vehicles = new ArrayDeque<>();
-        JSONArray array = (JSONArray) object.get("Collection");
-        for (Object o : array) {
-            JSONObject vehicleJSONObject = (JSONObject) o;
-
-            JSONObject coordinatesJSONObject = (JSONObject) vehicleJSONObject.get("Coordinates");
-            Coordinates coordinates = new Coordinates(
-                    Integer.parseInt(String.valueOf(coordinatesJSONObject.get("X"))),
-                    Integer.parseInt(String.valueOf(coordinatesJSONObject.get("Y")))
-            );
+    @Override
+    protected void readSnapshot(Path path, Consumer<Vehicle> action) throws IOException, ParseException {
+        long size = Files.size(path);
+        if (parseThreads > 1 && size >= 2L * MIN_CHUNK_SIZE && size <= Integer.MAX_VALUE) {
+            try (FileChannel channel = FileChannel.open(path, READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                int chunkSize = (int) Math.max(MIN_CHUNK_SIZE, size / ((long) parseThreads * CHUNKS_PER_THREAD));
+                List<int[]> chunks = new JSONRecordSplitter(buffer, ARRAY_KEY).split(chunkSize);
+                if (chunks != null) {
+                    readChunks(buffer, chunks, action);
+                    return;
+                }
+            }
+        }
 
-            Vehicle vehicle = new Vehicle(
-                    Integer.parseInt(String.valueOf(vehicleJSONObject.get("Id"))),
-                    (String) vehicleJSONObject.get("Name"),
-                    coordinates,
-                    LocalDate.parse((String) vehicleJSONObject.get("CreationDate")),
-                    Integer.parseInt(String.valueOf(vehicleJSONObject.get("EnginePower"))),
-                    VehicleType.valueOf((String) vehicleJSONObject.get("VehicleType")),
-                    FuelType.valueOf((String) vehicleJSONObject.get("FuelType"))
-            );
+        try (Reader reader = Files.newBufferedReader(path)) {
+            new JSONParser().parse(reader, new VehicleContentHandler(ARRAY_KEY, action));
+        }
+    }
+
+    @Override
+    protected void writeSnapshot(FileChannel channel, VehicleSource vehicles) throws IOException {
+        VehicleJSONWriter writer = new VehicleJSONWriter(
+                new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE)
+        );
+        writer.writeCollection(vehicles);
+        writer.flush();
+    }
 
-            vehicles.add(vehicle);
+    /**
+     * Method to parse chunks in parallel and pass their vehicles in order of chunks.
+     * Only as many chunks, as there are parsing threads, are parsed ahead of the chunk, which is passed,
+     * so parsed vehicles don't pile up, when action is slower than parsing.
+     * Vehicles of chunk are dropped, as soon as they are passed
+     * @param buffer with content of file
+     * @param chunks bounds of chunks
+     * @param action to perform for each vehicle in order of file
+     * @throws IOException If chunk isn't correct UTF-8
+     * @throws ParseException if an parse error occurs
+     */
+    private void readChunks(ByteBuffer buffer, List<int[]> chunks, Consumer<Vehicle> action)
+            throws IOException, ParseException {
+        ExecutorService parsers = Executors.newFixedThreadPool(parseThreads, runnable -> {
+            Thread thread = new Thread(runnable, "vehicle-snapshot-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ArrayDeque<Future<List<Vehicle>>> window = new ArrayDeque<>(parseThreads + 1);
+        int next = 0;
+        try {
+            while (next < chunks.size() || !window.isEmpty()) {
+                while (next < chunks.size() && window.size() <= parseThreads) {
+                    int[] chunk = chunks.get(next++);
+                    window.add(parsers.submit(() -> readChunk(buffer, chunk[0], chunk[1])));
+                }
+
+                window.poll().get().forEach(action);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Reading of snapshot is interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ParseException parseException) {
+                throw parseException;
+            }
+
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            if (cause instanceof Error error) {
+                throw error;
+            }
+
+            throw new IOException(cause);
+        } finally {
+            parsers.shutdownNow();
         }
+    }
 
-        VehicleService service = new VehicleService(vehicles, this);
+    /**
+     * Method to parse records between offsets as content of "Collection" array
+     * @param buffer with content of file
+     * @param from offset of the first record
+     * @param to offset after the last record
+     * @return vehicles of chunk
+     * @throws IOException If chunk isn't correct UTF-8
+     * @throws ParseException if an parse error occurs, position is shifted by offset of chunk in file,
+     * so it is counted in chars of file as in sequential reading
+     */
+    private static List<Vehicle> readChunk(ByteBuffer buffer, int from, int to) throws IOException, ParseException {
+        CharBuffer text = CharBuffer.allocate(CHUNK_PREFIX.length() + (to - from) + CHUNK_SUFFIX.length());
+        text.put(CHUNK_PREFIX);
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        CoderResult result = decoder.decode(buffer.slice(from, to - from), text, true);
+        if (result.isError()) {
+            result.throwException();
+        }
 
-        stream.close();
-        in.close();
+        decoder.flush(text);
+        text.put(CHUNK_SUFFIX).flip();
+
+        List<Vehicle> vehicles = new ArrayList<>();
+        try (Reader reader = new CharArrayReader(text.array(), 0, text.limit())) {
+            new JSONParser().parse(reader, new VehicleContentHandler(ARRAY_KEY, vehicles::add));
+        } catch (ParseException e) {
+            if (e.getPosition() < 0) {
+                throw e;
+            }
+
+            throw new ParseException(
+                    e.getPosition() - CHUNK_PREFIX.length() + charOffset(buffer, from),
+                    e.getErrorType(),
+                    e.getUnexpectedObject()
+            );
+        }
 
-        return service;
+        return vehicles;
     }
 
     /**
-     * Method to save information about vehicles to file
-     * @param service where information is
-     * @throws IOException If an I/O error occurs
+     * Method to count UTF-16 chars, which UTF-8 bytes before offset are decoded to.
+     * Every byte except continuation one starts char, four-byte sequence is decoded to surrogate pair
+     * @param buffer with content of file
+     * @param offset in bytes
+     * @return offset in chars
      */
-    public void write(VehicleService service) throws IOException {
-        JSONObject object = new JSONObject();
-
-        JSONArray array = new JSONArray();
-        service.getCollection().forEach(vehicle -> {
-            JSONObject object1 = new JSONObject();
-            object1.put("Id", vehicle.getId());
-            object1.put("Name", vehicle.getName());
-
-            JSONObject coordinates = new JSONObject();
-            coordinates.put("X", vehicle.getCoordinates().getX());
-            coordinates.put("Y", vehicle.getCoordinates().getY());
-            object1.put("Coordinates", coordinates);
-
-            object1.put("CreationDate", vehicle.getCreationDate().toString());
-            object1.put("EnginePower", vehicle.getEnginePower());
-            object1.put("VehicleType", vehicle.getType().toString());
-            object1.put("FuelType", vehicle.getFuelType().toString());
-
-            array.add(object1);
-        });
-
-        object.put("Collection", array);
+    static int charOffset(ByteBuffer buffer, int offset) {
+        int chars = 0;
+        for (int i = 0; i < offset; i++) {
+            byte b = buffer.get(i);
+            if ((b & 0xC0) != 0x80) {
+                chars += (b & 0xF8) == 0xF0 ? 2 : 1;
+            }
+        }
 
-        FileOutputStream stream = new FileOutputStream(fileName);
-        stream.write(object.toJSONString().getBytes());
-        stream.close();
+        return chars;
     }
 }
@@ -0,0 +1,145 @@
+package org.example.repositories;
+
+import org.example.models.DateFormatter;
+import org.example.models.Vehicle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Writer, which encodes vehicles straight into output stream through one reused buffer
+ */
+public class VehicleJSONWriter implements Closeable {
+    private final Writer writer;
+    private final StringBuilder buffer = new StringBuilder(256);
+    private char[] chars = new char[256];
+
+    public VehicleJSONWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Method to write vehicles as "Collection" json object
+     * @param vehicles to write
+     * @throws IOException If an I/O error occurs
+     */
+    public void writeCollection(VehicleSource vehicles) throws IOException {
+        writer.write("{\"Collection\":[");
+        boolean[] first = {true};
+        try {
+            vehicles.forEach(vehicle -> {
+                buffer.setLength(0);
+                if (!first[0]) {
+                    buffer.append(',');
+                }
+
+                first[0] = false;
+                appendVehicle(buffer, vehicle);
+                flushBuffer();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.write("]}");
+    }
+
+    /**
+     * Method to write one vehicle as json object
+     * @param vehicle to write
+     * @throws IOException If an I/O error occurs
+     */
+    public void writeVehicle(Vehicle vehicle) throws IOException {
+        buffer.setLength(0);
+        appendVehicle(buffer, vehicle);
+        write(buffer);
+    }
+
+    /**
+     * Method to encode vehicle as json object
+     * @param builder where to append
+     * @param vehicle to encode
+     */
+    public static void appendVehicle(StringBuilder builder, Vehicle vehicle) {
+        builder.append("{\"Id\":").append(vehicle.getId().intValue())
+                .append(",\"Name\":");
+        appendString(builder, vehicle.getName());
+        builder.append(",\"Coordinates\":{\"X\":").append(vehicle.getCoordinates().getX().intValue())
+                .append(",\"Y\":").append(vehicle.getCoordinates().getY().intValue())
+                .append("},\"CreationDate\":\"");
+        DateFormatter.appendDate(builder, vehicle.getCreationDate());
+        builder.append("\",\"EnginePower\":").append(vehicle.getEnginePower())
+                .append(",\"VehicleType\":");
+        if (vehicle.getType() == null) {
+            builder.append("null");
+        } else {
+            builder.append('"').append(vehicle.getType().name()).append('"');
+        }
+
+        builder.append(",\"FuelType\":\"").append(vehicle.getFuelType().name()).append("\"}");
+    }
+
+    /**
+     * Method to encode string as json string without intermediate copies
+     * @param builder where to append
+     * @param value to encode
+     */
+    public static void appendString(StringBuilder builder, String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                case '\b' -> builder.append("\\b");
+                case '\f' -> builder.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+
+        builder.append('"');
+    }
+
+    /**
+     * Method to move encoded text to writer through reused char array
+     * @param builder with encoded text
+     * @throws IOException If an I/O error occurs
+     */
+    public void write(StringBuilder builder) throws IOException {
+        int length = builder.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+
+        builder.getChars(0, length, chars, 0);
+        writer.write(chars, 0, length);
+    }
+
+    private void flushBuffer() {
+        try {
+            write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
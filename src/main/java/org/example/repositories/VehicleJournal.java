@@ -0,0 +1,375 @@
+package org.example.repositories;
+
+import org.example.enums.FsyncPolicy;
+import org.example.metrics.VehicleMetrics;
+import org.example.models.Vehicle;
+import org.example.services.VehicleStorage;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only journal of collection's changes, which is replayed on top of last snapshot.
+ * Every record is one json line, which counts only when its line break is written,
+ * so torn tail after crash is skipped on replay and cut off, when journal is opened for appends
+ */
+public class VehicleJournal implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    private final Path path;
+    private final FsyncScheduler scheduler;
+    private final StringBuilder line = new StringBuilder(256);
+    private FileChannel channel;
+    private VehicleJSONWriter writer;
+    private int records;
+    private long tornAt = -1;
+
+    public VehicleJournal(Path path, FsyncPolicy fsyncPolicy) throws IOException {
+        this.path = path;
+        this.scheduler = new FsyncScheduler(fsyncPolicy);
+        open();
+    }
+
+    /**
+     * Method to append record about added or changed vehicles
+     * @param vehicles new states of vehicles
+     * @throws IOException If an I/O error occurs
+     */
+    public void put(Collection<Vehicle> vehicles) throws IOException {
+        line.setLength(0);
+        line.append("{\"Op\":\"PUT\",\"Vehicles\":[");
+        boolean first = true;
+        for (Vehicle vehicle : vehicles) {
+            if (!first) {
+                line.append(',');
+            }
+
+            first = false;
+            VehicleJSONWriter.appendVehicle(line, vehicle);
+        }
+
+        line.append("]}\n");
+        append();
+    }
+
+    /**
+     * Method to append record about removed vehicles
+     * @param vehicles removed vehicles
+     * @throws IOException If an I/O error occurs
+     */
+    public void remove(Collection<Vehicle> vehicles) throws IOException {
+        line.setLength(0);
+        line.append("{\"Op\":\"REMOVE\",\"Ids\":[");
+        boolean first = true;
+        for (Vehicle vehicle : vehicles) {
+            if (!first) {
+                line.append(',');
+            }
+
+            first = false;
+            line.append(vehicle.getId().intValue());
+        }
+
+        line.append("]}\n");
+        append();
+    }
+
+    /**
+     * Method to append record about cleaning of collection
+     * @throws IOException If an I/O error occurs
+     */
+    public void clear() throws IOException {
+        line.setLength(0);
+        line.append("{\"Op\":\"CLEAR\"}\n");
+        append();
+    }
+
+    /**
+     * Method to move current journal to other file and start new empty one
+     * @param target where to move journal
+     * @throws IOException If an I/O error occurs
+     */
+    public void rotate(Path target) throws IOException {
+        writer.close();
+        Files.move(path, target, ATOMIC_MOVE);
+        open();
+    }
+
+    /**
+     * Method to drop all records, when they are already in snapshot
+     * @throws IOException If an I/O error occurs
+     */
+    public void reset() throws IOException {
+        writer.close();
+        open(TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Method to get count of records in journal, including records, which were in file before it was opened
+     * @return count of records
+     */
+    public int getRecords() {
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Method to replay journal file on top of vehicles from snapshot
+     * @param path of journal file
+     * @param vehicles vehicles by id, which are changed in place
+     * @throws IOException If an I/O error occurs
+     * @throws ParseException if complete record of journal is corrupted
+     */
+    public static void replay(Path path, Map<Integer, Vehicle> vehicles) throws IOException, ParseException {
+        replay(path, handler -> handler.apply(vehicles));
+    }
+
+    /**
+     * Method to replay journal file on top of storage, which is filled from snapshot
+     * @param path of journal file
+     * @param storage vehicles, which are changed in place
+     * @throws IOException If an I/O error occurs
+     * @throws ParseException if complete record of journal is corrupted
+     */
+    public static void replay(Path path, VehicleStorage storage) throws IOException, ParseException {
+        replay(path, handler -> handler.apply(storage));
+    }
+
+    private static void replay(Path path, RecordAction action) throws IOException, ParseException {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        boolean tornTail = hasTornTail(path);
+        JSONParser parser = new JSONParser();
+        RecordHandler handler = new RecordHandler();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String current = reader.readLine();
+            while (current != null) {
+                String next = reader.readLine();
+                if (next == null && tornTail) {
+                    break;
+                }
+
+                handler.reset();
+                parser.parse(current, handler);
+                action.apply(handler);
+                current = next;
+            }
+        }
+    }
+
+    /**
+     * Method to check, whether last record of journal wasn't written up to its line break
+     * @param path of journal file
+     * @return true if journal doesn't end with line break
+     * @throws IOException If an I/O error occurs
+     */
+    private static boolean hasTornTail(Path path) throws IOException {
+        try (FileChannel file = FileChannel.open(path, READ)) {
+            long size = file.size();
+            if (size == 0) {
+                return false;
+            }
+
+            ByteBuffer last = ByteBuffer.allocate(1);
+            file.read(last, size - 1);
+            return last.get(0) != '\n';
+        }
+    }
+
+    /**
+     * Method to open journal for appends. Records, which are already in file, are counted,
+     * and torn tail is cut off, so next record starts on its own line
+     * @param options additional options to open file with
+     * @throws IOException If an I/O error occurs
+     */
+    private void open(OpenOption... options) throws IOException {
+        Set<OpenOption> openOptions = new HashSet<>(List.of(CREATE, READ, WRITE));
+        openOptions.addAll(List.of(options));
+        channel = FileChannel.open(path, openOptions);
+        records = 0;
+        long end = 0;
+        long position = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (channel.read(buffer, position) > 0) {
+            buffer.flip();
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    records++;
+                    end = position + i + 1;
+                }
+            }
+
+            position += buffer.limit();
+            buffer.clear();
+        }
+
+        if (end < position) {
+            channel.truncate(end);
+        }
+
+        channel.position(end);
+        tornAt = -1;
+        writer = new VehicleJSONWriter(newWriter(channel));
+    }
+
+    /**
+     * Method to create writer of records into journal's channel
+     * @param channel of journal file
+     * @return writer
+     */
+    Writer newWriter(FileChannel channel) {
+        return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private void append() throws IOException {
+        long start = System.nanoTime();
+        if (tornAt >= 0) {
+            cutOff(tornAt);
+        }
+
+        long position = channel.position();
+        try {
+            writer.write(line);
+            writer.flush();
+        } catch (IOException | RuntimeException e) {
+            discard(position, e);
+            throw e;
+        }
+
+        if (scheduler.shouldForce()) {
+            channel.force(false);
+        }
+
+        records++;
+        VehicleMetrics.global().getJournalStatistics().record(channel.position() - position, System.nanoTime() - start);
+    }
+
+    /**
+     * Method to drop record, which failed to be written. Its rest is left in buffer of writer, so writer is replaced
+     * without flushing, and its written part is cut off, so next record doesn't continue torn line.
+     * If file can't be cut now, it is cut before next record
+     * @param position where record starts
+     * @param failure of writing, which gets failure of cutting as suppressed
+     */
+    private void discard(long position, Exception failure) {
+        writer = new VehicleJSONWriter(newWriter(channel));
+        tornAt = position;
+        try {
+            cutOff(position);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void cutOff(long position) throws IOException {
+        channel.truncate(position);
+        channel.position(position);
+        tornAt = -1;
+    }
+
+    /**
+     * Action, which applies parsed record to vehicles
+     */
+    private interface RecordAction {
+        void apply(RecordHandler handler) throws ParseException;
+    }
+
+    /**
+     * Handler of one journal record
+     */
+    private static class RecordHandler extends VehicleContentHandler {
+        private final List<Vehicle> vehicles;
+        private final List<Integer> ids = new ArrayList<>();
+        private String op;
+
+        RecordHandler() {
+            this(new ArrayList<>());
+        }
+
+        private RecordHandler(List<Vehicle> vehicles) {
+            super("Vehicles", vehicles::add);
+            this.vehicles = vehicles;
+        }
+
+        @Override
+        public boolean primitive(Object value) throws ParseException {
+            if (getDepth() == 1) {
+                if ("Op".equals(getCurrentKey())) {
+                    op = (String) value;
+                } else if ("Ids".equals(getCurrentKey())) {
+                    ids.add(Math.toIntExact((Long) value));
+                }
+            }
+
+            return super.primitive(value);
+        }
+
+        void reset() {
+            vehicles.clear();
+            ids.clear();
+            op = null;
+        }
+
+        void apply(Map<Integer, Vehicle> target) throws ParseException {
+            if (op == null) {
+                throw new ParseException(ParseException.ERROR_UNEXPECTED_TOKEN);
+            }
+
+            switch (op) {
+                case "PUT" -> vehicles.forEach(vehicle -> target.put(vehicle.getId(), vehicle));
+                case "REMOVE" -> ids.forEach(target::remove);
+                case "CLEAR" -> target.clear();
+                default -> throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_TOKEN, op);
+            }
+        }
+
+        void apply(VehicleStorage target) throws ParseException {
+            if (op == null) {
+                throw new ParseException(ParseException.ERROR_UNEXPECTED_TOKEN);
+            }
+
+            switch (op) {
+                case "PUT" -> vehicles.forEach(vehicle -> {
+                    if (target.get(vehicle.getId()) == null) {
+                        target.add(vehicle);
+                    } else {
+                        target.update(vehicle);
+                    }
+                });
+                case "REMOVE" -> ids.forEach(target::remove);
+                case "CLEAR" -> target.clear();
+                default -> throw new ParseException(-1, ParseException.ERROR_UNEXPECTED_TOKEN, op);
+            }
+        }
+    }
+}
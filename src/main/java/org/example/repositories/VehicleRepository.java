@@ -0,0 +1,452 @@
+package org.example.repositories;
+
+import org.example.enums.FsyncPolicy;
+import org.example.enums.StorageType;
+import org.example.metrics.LoadEvent;
+import org.example.metrics.SaveEvent;
+import org.example.metrics.VehicleMetrics;
+import org.example.models.Vehicle;
+import org.example.services.VehicleService;
+import org.example.services.VehicleStorage;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Base repository class to save and use information about vehicles in snapshot file.
+ * Every change is appended to journal next to the file, and journal is folded
+ * back into the file by background compactor.
+ * Appends are serialized by journal lock, and snapshot is guarded by snapshot lock, which is always taken first,
+ * so long compaction doesn't hold appends. Order of changes in journal is still the order of appends,
+ * so caller should append changes in the same order, as it applies them
+ */
+public abstract class VehicleRepository {
+    private static final int COMPACTION_THRESHOLD = 10_000;
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final Path compactingJournalPath;
+    private final FsyncPolicy fsyncPolicy;
+    private final FsyncScheduler scheduler;
+    private final Object snapshotLock = new Object();
+    private final Object journalLock = new Object();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "vehicle-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private VehicleJournal journal;
+    private Future<?> compaction;
+
+    protected VehicleRepository(String fileName, FsyncPolicy fsyncPolicy) {
+        this.snapshotPath = Path.of(fileName).toAbsolutePath();
+        this.journalPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".journal");
+        this.compactingJournalPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".journal.old");
+        this.fsyncPolicy = fsyncPolicy;
+        this.scheduler = new FsyncScheduler(fsyncPolicy);
+    }
+
+    /**
+     * Method to read saved information in file and replay journal on top of it
+     * @return vehicle's service with saved information
+     * @throws IOException If an I/O error occurs
+     * @throws ParseException if an parse error occurs
+     */
+    public VehicleService read() throws IOException, ParseException {
+        return read(StorageType.OBJECTS);
+    }
+
+    /**
+     * Method to read saved information in file and replay journal on top of it.
+     * Vehicles go from snapshot straight to storage, so collection isn't kept on heap on the way
+     * @param storageType how service keeps vehicles in memory
+     * @return vehicle's service with saved information
+     * @throws IOException If an I/O error occurs
+     * @throws ParseException if an parse error occurs
+     */
+    public VehicleService read(StorageType storageType) throws IOException, ParseException {
+        return new VehicleService(readStorage(storageType), this);
+    }
+
+    /**
+     * Method to read saved vehicles, when service is created by caller
+     * @return vehicles with replayed journal
+     * @throws IOException If an I/O error occurs
+     * @throws ParseException if an parse error occurs
+     */
+    public Collection<Vehicle> readCollection() throws IOException, ParseException {
+        Collection<Vehicle> vehicles = readCopy();
+        compactRotatedJournal();
+        return vehicles;
+    }
+
+    /**
+     * Method to read saved vehicles without taking files over, for example to import them to other collection.
+     * Journal is replayed only in memory and journal, which was rotated before crash, isn't compacted,
+     * so files stay as they are
+     * @return vehicles with replayed journal
+     * @throws IOException If an I/O error occurs
+     * @throws ParseException if an parse error occurs
+     */
+    public Collection<Vehicle> readCopy() throws IOException, ParseException {
+        LoadEvent event = new LoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long bytes = bytesToLoad();
+        ArrayDeque<Vehicle> vehicles = new ArrayDeque<>();
+        readSnapshot(snapshotPath, vehicles::add);
+        if (Files.exists(compactingJournalPath) || Files.exists(journalPath)) {
+            Map<Integer, Vehicle> vehiclesById = new LinkedHashMap<>();
+            vehicles.forEach(vehicle -> vehiclesById.put(vehicle.getId(), vehicle));
+            VehicleJournal.replay(compactingJournalPath, vehiclesById);
+            VehicleJournal.replay(journalPath, vehiclesById);
+            vehicles = new ArrayDeque<>(vehiclesById.values());
+        }
+
+        recordLoad(event, start, bytes, vehicles.size());
+        return vehicles;
+    }
+
+    /**
+     * Method to read saved vehicles straight into storage, when service is created by caller.
+     * Every vehicle of snapshot is added to storage as soon as it is parsed and journal is replayed on storage,
+     * so off-heap storage is loaded without collection of vehicle objects on heap
+     * @param storageType how vehicles are kept in memory
+     * @return storage with replayed journal
+     * @throws IOException If an I/O error occurs
+     * @throws ParseException if an parse error occurs
+     */
+    public VehicleStorage readStorage(StorageType storageType) throws IOException, ParseException {
+        LoadEvent event = new LoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long bytes = bytesToLoad();
+        VehicleStorage storage = VehicleStorage.create(storageType, 0);
+        readSnapshot(snapshotPath, storage::add);
+        VehicleJournal.replay(compactingJournalPath, storage);
+        VehicleJournal.replay(journalPath, storage);
+        recordLoad(event, start, bytes, storage.size());
+        compactRotatedJournal();
+        return storage;
+    }
+
+    /**
+     * Method to save information about vehicles to file.
+     * Data is written to temporary file, which replaces old file by atomic rename,
+     * so crash during saving never leaves half-written collection
+     * @param service where information is
+     * @throws IOException If an I/O error occurs
+     */
+    public void write(VehicleService service) throws IOException {
+        synchronized (snapshotLock) {
+            boolean force = scheduler.shouldForce();
+            writeSnapshot(service::forEach, force);
+            if (force || fsyncPolicy == FsyncPolicy.NEVER) {
+                synchronized (journalLock) {
+                    if (journal == null) {
+                        Files.deleteIfExists(journalPath);
+                    } else {
+                        journal.reset();
+                    }
+                }
+
+                Files.deleteIfExists(compactingJournalPath);
+            }
+        }
+    }
+
+    /**
+     * Method to append added or changed vehicles to journal
+     * @param vehicles new states of vehicles
+     */
+    public void logPut(Collection<Vehicle> vehicles) {
+        try {
+            synchronized (journalLock) {
+                journal().put(vehicles);
+            }
+
+            compactIfNeeded();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Method to append removed vehicles to journal
+     * @param vehicles removed vehicles
+     */
+    public void logRemove(Collection<Vehicle> vehicles) {
+        try {
+            synchronized (journalLock) {
+                journal().remove(vehicles);
+            }
+
+            compactIfNeeded();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Method to append cleaning of collection to journal
+     */
+    public void logClear() {
+        try {
+            synchronized (journalLock) {
+                journal().clear();
+            }
+
+            compactIfNeeded();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    /**
+     * Method to create repository, which format is chosen by file's extension
+     * @param fileName is name of snapshot file, ".bin" files are binary
+     * @param fsyncPolicy when data is forced to disk
+     * @return repository
+     */
+    public static VehicleRepository forFile(String fileName, FsyncPolicy fsyncPolicy) {
+        return forFile(fileName, fsyncPolicy, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Method to create repository, which format is chosen by file's extension
+     * @param fileName is name of snapshot file, ".bin" files are binary
+     * @param fsyncPolicy when data is forced to disk
+     * @param parseThreads how many threads parse large json snapshot, binary snapshot is read by one thread
+     * @return repository
+     */
+    public static VehicleRepository forFile(String fileName, FsyncPolicy fsyncPolicy, int parseThreads) {
+        if (fileName.endsWith(".bin")) {
+            return new VehicleBinaryRepository(fileName, fsyncPolicy);
+        }
+
+        return new VehicleJSONRepository(fileName, fsyncPolicy, parseThreads);
+    }
+
+    /**
+     * Method to read vehicles from snapshot file
+     * @param path of snapshot file
+     * @param action to perform for each vehicle in saved order, as soon as it is read
+     * @throws IOException If an I/O error occurs
+     * @throws ParseException if an parse error occurs
+     */
+    protected abstract void readSnapshot(Path path, Consumer<Vehicle> action) throws IOException, ParseException;
+
+    /**
+     * Method to write vehicles to snapshot file
+     * @param channel of empty temporary file
+     * @param vehicles to write
+     * @throws IOException If an I/O error occurs
+     */
+    protected abstract void writeSnapshot(FileChannel channel, VehicleSource vehicles) throws IOException;
+
+    /**
+     * Method to get journal, which is opened on the first append. Caller must hold journal lock
+     * @return journal
+     * @throws IOException If an I/O error occurs
+     */
+    private VehicleJournal journal() throws IOException {
+        if (journal == null) {
+            journal = new VehicleJournal(journalPath, fsyncPolicy);
+        }
+
+        return journal;
+    }
+
+    /**
+     * Method to hand full journal over to background compactor
+     * @throws IOException If an I/O error occurs
+     */
+    private void compactIfNeeded() throws IOException {
+        synchronized (journalLock) {
+            if (!isCompactionNeeded()) {
+                return;
+            }
+        }
+
+        synchronized (snapshotLock) {
+            synchronized (journalLock) {
+                if (!isCompactionNeeded()) {
+                    return;
+                }
+
+                if (!Files.exists(compactingJournalPath)) {
+                    journal.rotate(compactingJournalPath);
+                }
+
+                submitCompaction();
+            }
+        }
+    }
+
+    /**
+     * Method to check, whether journal is full and no compaction is running. Caller must hold journal lock
+     * @return true if journal should be handed over to compactor
+     */
+    private boolean isCompactionNeeded() {
+        return journal.getRecords() >= COMPACTION_THRESHOLD && (compaction == null || compaction.isDone());
+    }
+
+    /**
+     * Method to fold rotated journal into fresh snapshot
+     * @return nothing, so failures are kept in future
+     * @throws IOException If an I/O error occurs
+     * @throws ParseException if an parse error occurs
+     */
+    private Void compact() throws IOException, ParseException {
+        synchronized (snapshotLock) {
+            if (!Files.exists(compactingJournalPath)) {
+                return null;
+            }
+
+            Map<Integer, Vehicle> vehiclesById = new LinkedHashMap<>();
+            if (Files.exists(snapshotPath)) {
+                readSnapshot(snapshotPath, vehicle -> vehiclesById.put(vehicle.getId(), vehicle));
+            }
+
+            VehicleJournal.replay(compactingJournalPath, vehiclesById);
+            writeSnapshot(vehiclesById.values()::forEach, fsyncPolicy != FsyncPolicy.NEVER);
+            Files.delete(compactingJournalPath);
+        }
+
+        return null;
+    }
+
+    /**
+     * Method to write snapshot to temporary file and swap it with old one
+     * @param vehicles what to write
+     * @param force whether data must be forced to disk
+     * @throws IOException If an I/O error occurs
+     */
+    private void writeSnapshot(VehicleSource vehicles, boolean force) throws IOException {
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long bytes;
+        Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+                writeSnapshot(channel, vehicles);
+                if (force) {
+                    channel.force(true);
+                }
+
+                bytes = channel.size();
+            }
+
+            Files.move(temp, snapshotPath, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        if (force) {
+            forceDirectory(snapshotPath.getParent());
+        }
+
+        VehicleMetrics.global().getSnapshotWriteStatistics().record(bytes, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setFile(snapshotPath.toString());
+            event.setBytes(bytes);
+            event.setForced(force);
+            event.commit();
+        }
+    }
+
+    private long bytesToLoad() throws IOException {
+        return Files.size(snapshotPath) + sizeIfExists(compactingJournalPath) + sizeIfExists(journalPath);
+    }
+
+    /**
+     * Method to record metrics of finished load
+     * @param event of load
+     * @param start time of load in nanoseconds
+     * @param bytes count of read bytes
+     * @param vehicles count of loaded vehicles
+     */
+    private void recordLoad(LoadEvent event, long start, long bytes, int vehicles) {
+        VehicleMetrics.global().getSnapshotReadStatistics().record(bytes, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setFile(snapshotPath.toString());
+            event.setBytes(bytes);
+            event.setVehicles(vehicles);
+            event.commit();
+        }
+    }
+
+    /**
+     * Method to start compaction of journal, which was rotated before crash, in background
+     */
+    private void compactRotatedJournal() {
+        synchronized (journalLock) {
+            if (Files.exists(compactingJournalPath)) {
+                submitCompaction();
+            }
+        }
+    }
+
+    /**
+     * Method to hand rotated journal over to compactor. Failure of previous compaction is reported first,
+     * so it isn't lost with its future. Rotated journal of failed compaction is still there and is compacted again.
+     * Caller must hold journal lock
+     */
+    private void submitCompaction() {
+        if (compaction != null && compaction.isDone()) {
+            try {
+                compaction.get();
+            } catch (ExecutionException e) {
+                System.err.println("Compaction of journal " + compactingJournalPath + " failed: " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        compaction = compactor.submit(this::compact);
+    }
+
+    private static long sizeIfExists(Path path) throws IOException {
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
+    /**
+     * Method to force directory entry, so rename survives power loss
+     * @param directory to force
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // some platforms can't open directories, rename is still atomic there
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.repositories;
+
+import org.example.models.Vehicle;
+
+import java.util.function.Consumer;
+
+/**
+ * Source of vehicles, which can be walked through without copying
+ */
+@FunctionalInterface
+public interface VehicleSource {
+    void forEach(Consumer<? super Vehicle> action);
+}
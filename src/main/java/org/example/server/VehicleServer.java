@@ -0,0 +1,97 @@
+package org.example.server;
+
+import org.example.console.Console;
+import org.example.metrics.VehicleMetrics;
+import org.example.services.VehicleService;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server, which gives the same commands as console to many clients over TCP.
+ * Every connection is served by its own thread and console with own history, all of them share one service.
+ * Command is read only after previous one is done, so fast client is slowed down by TCP flow control,
+ * and clients over limit wait in accept backlog until some connection is closed.
+ * Commands aren't authenticated, so server should listen only on loopback address, unless other one is given explicitly.
+ * Scripts and imported files are read only inside data directory, so client can't read other files of server
+ */
+public class VehicleServer implements Runnable {
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    private final VehicleService service;
+    private final InetAddress address;
+    private final int port;
+    private final Path dataDirectory;
+    private final Semaphore connections;
+    private final AtomicInteger connectionCounter = new AtomicInteger();
+
+    public VehicleServer(VehicleService service, InetAddress address, int port, Path dataDirectory, int maxConnections) {
+        this.service = service;
+        this.dataDirectory = dataDirectory;
+        this.address = address;
+        this.port = port;
+        this.connections = new Semaphore(maxConnections);
+    }
+
+    /**
+     * Method to accept connections until server is interrupted
+     */
+    @Override
+    public void run() {
+        try (ServerSocket serverSocket = new ServerSocket(port, connections.availablePermits(), address)) {
+            System.out.println("Сервер запущен на " + serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort());
+            while (!Thread.currentThread().isInterrupted()) {
+                connections.acquire();
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (IOException e) {
+                    connections.release();
+                    throw e;
+                }
+
+                Thread thread = new Thread(() -> serve(socket), "client-" + connectionCounter.incrementAndGet());
+                thread.setDaemon(true);
+                thread.start();
+            }
+        } catch (IOException e) {
+            System.out.println("Сервер остановлен : " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Method to run console for one client
+     * @param socket of client
+     */
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            PrintStream out = new PrintStream(
+                    new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE), false, StandardCharsets.UTF_8
+            );
+            new Console(
+                    service,
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8),
+                    out,
+                    VehicleMetrics.global(),
+                    dataDirectory
+            ).run();
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Соединение " + Thread.currentThread().getName() + " закрыто : " + e.getMessage());
+        } finally {
+            connections.release();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package org.example.services;
+
+import org.example.collections.IntIntHashMap;
+import org.example.enums.FuelType;
+import org.example.enums.VehicleType;
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+import org.example.models.VehicleValueCache;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Storage of vehicles in columns of primitives: every field of vehicle is kept in its own array
+ * and vehicle takes the same slot in all of them. Dates are kept as epoch days and enums as ordinals,
+ * so only name stays object. Vehicle object is created on every read and isn't connected with storage,
+ * changes are written back by update
+ */
+public class ColumnarVehicleStorage implements VehicleStorage {
+    private static final int MIN_CAPACITY = 16;
+
+    private final IntIntHashMap slotById;
+    private Columns columns;
+    private int end;
+    private int size;
+
+    public ColumnarVehicleStorage(int expectedSize) {
+        slotById = new IntIntHashMap(expectedSize);
+        columns = new Columns(Math.max(MIN_CAPACITY, expectedSize));
+    }
+
+    @Override
+    public void add(Vehicle vehicle) {
+        int id = vehicle.getId();
+        if (slotById.containsKey(id)) {
+            throw new IllegalArgumentException("Collection already contains vehicle with id = " + id);
+        }
+
+        ensureCapacity(1);
+        columns.write(end, vehicle);
+        slotById.put(id, end++);
+        size++;
+    }
+
+    @Override
+    public void addAll(Collection<Vehicle> vehicles) {
+        ensureCapacity(vehicles.size());
+        int added = 0;
+        try {
+            for (Vehicle vehicle : vehicles) {
+                add(vehicle);
+                added++;
+            }
+        } catch (IllegalArgumentException e) {
+            for (Vehicle vehicle : vehicles) {
+                if (added-- == 0) {
+                    break;
+                }
+
+                remove(vehicle.getId());
+            }
+
+            throw e;
+        }
+    }
+
+    @Override
+    public Vehicle get(int id) {
+        int slot = slotById.get(id);
+        return slot < 0 ? null : columns.read(slot);
+    }
+
+    @Override
+    public void update(Vehicle vehicle) {
+        int slot = slotById.get(vehicle.getId());
+        if (slot < 0) {
+            throw new IllegalArgumentException("Collection doesn't exists vehicle with id = " + vehicle.getId());
+        }
+
+        columns.write(slot, vehicle);
+    }
+
+    @Override
+    public Vehicle remove(int id) {
+        int slot = slotById.remove(id);
+        if (slot < 0) {
+            return null;
+        }
+
+        Vehicle vehicle = columns.read(slot);
+        columns.erase(slot, slot + 1);
+        size--;
+        if (slot == end - 1) {
+            end--;
+        } else if (end > MIN_CAPACITY && size < end / 2) {
+            squeeze();
+        }
+
+        return vehicle;
+    }
+
+    @Override
+    public void removeIf(Predicate<? super Vehicle> filter, Consumer<? super Vehicle> removed) {
+        int to = 0;
+        int from = 0;
+        try {
+            for (; from < end; from++) {
+                Vehicle vehicle = columns.read(from);
+                if (vehicle == null) {
+                    continue;
+                }
+
+                if (filter.test(vehicle)) {
+                    slotById.remove(vehicle.getId());
+                    size--;
+                    removed.accept(vehicle);
+                } else {
+                    moveSlot(from, to++);
+                }
+            }
+        } finally {
+            for (; from < end; from++) {
+                if (columns.isUsed(from)) {
+                    moveSlot(from, to++);
+                }
+            }
+
+            columns.erase(to, end);
+            end = to;
+        }
+    }
+
+    @Override
+    public void clear() {
+        columns.erase(0, end);
+        slotById.clear();
+        end = 0;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Vehicle> action) {
+        for (int i = 0; i < end; i++) {
+            Vehicle vehicle = columns.read(i);
+            if (vehicle != null) {
+                action.accept(vehicle);
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<Vehicle> spliterator() {
+        return new VehicleSpliterator(columns::read, 0, end, 0);
+    }
+
+    /**
+     * Method to walk through copy of columns, which isn't affected by later changes.
+     * Columns are copied as arrays of primitives, names are shared
+     * @return spliterator
+     */
+    @Override
+    public Spliterator<Vehicle> snapshotSpliterator() {
+        return new VehicleSpliterator(columns.copy(end, end)::read, 0, end, Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Method to make room for vehicles after the last slot
+     * @param count of vehicles to make room for
+     */
+    private void ensureCapacity(int count) {
+        if (end + count <= columns.capacity()) {
+            return;
+        }
+
+        if (size < end / 2) {
+            squeeze();
+        }
+
+        if (end + count > columns.capacity()) {
+            columns = columns.copy(end, Math.max(columns.capacity() * 2, end + count));
+        }
+    }
+
+    /**
+     * Method to move vehicles over empty slots and renumber them
+     */
+    private void squeeze() {
+        int to = 0;
+        for (int from = 0; from < end; from++) {
+            if (columns.isUsed(from)) {
+                moveSlot(from, to++);
+            }
+        }
+
+        columns.erase(to, end);
+        end = to;
+    }
+
+    /**
+     * Method to move vehicle to other slot
+     * @param from current slot
+     * @param to new slot, which isn't after current one
+     */
+    private void moveSlot(int from, int to) {
+        if (from != to) {
+            columns.move(from, to);
+            slotById.put(columns.ids[to], to);
+        }
+    }
+
+    /**
+     * Arrays of vehicle's fields. Empty slot has no fuel's type, which every vehicle has,
+     * vehicle without type or creation date has marker instead of it
+     */
+    private static class Columns {
+        private static final byte EMPTY = -1;
+        private static final int NO_DATE = Integer.MIN_VALUE;
+        private static final VehicleType[] TYPES = VehicleType.values();
+        private static final FuelType[] FUEL_TYPES = FuelType.values();
+
+        private final int[] ids;
+        private final String[] names;
+        private final int[] xs;
+        private final int[] ys;
+        private final int[] creationDays;
+        private final int[] enginePowers;
+        private final byte[] types;
+        private final byte[] fuelTypes;
+
+        private Columns(int capacity) {
+            ids = new int[capacity];
+            names = new String[capacity];
+            xs = new int[capacity];
+            ys = new int[capacity];
+            creationDays = new int[capacity];
+            enginePowers = new int[capacity];
+            types = new byte[capacity];
+            fuelTypes = new byte[capacity];
+            Arrays.fill(fuelTypes, EMPTY);
+        }
+
+        private int capacity() {
+            return ids.length;
+        }
+
+        private boolean isUsed(int slot) {
+            return fuelTypes[slot] != EMPTY;
+        }
+
+        /**
+         * Method to create vehicle from slot
+         * @param slot of vehicle
+         * @return new vehicle or null, if slot is empty
+         */
+        private Vehicle read(int slot) {
+            if (fuelTypes[slot] == EMPTY) {
+                return null;
+            }
+
+            return new Vehicle(
+                    ids[slot],
+                    names[slot],
+                    new Coordinates(xs[slot], ys[slot]),
+                    creationDays[slot] == NO_DATE ? null : VehicleValueCache.global().date(creationDays[slot]),
+                    enginePowers[slot],
+                    types[slot] == EMPTY ? null : TYPES[types[slot]],
+                    FUEL_TYPES[fuelTypes[slot]]
+            );
+        }
+
+        private void write(int slot, Vehicle vehicle) {
+            ids[slot] = vehicle.getId();
+            names[slot] = vehicle.getName();
+            xs[slot] = vehicle.getCoordinates().getX();
+            ys[slot] = vehicle.getCoordinates().getY();
+            LocalDate creationDate = vehicle.getCreationDate();
+            creationDays[slot] = creationDate == null ? NO_DATE : Math.toIntExact(creationDate.toEpochDay());
+            enginePowers[slot] = vehicle.getEnginePower();
+            types[slot] = vehicle.getType() == null ? EMPTY : (byte) vehicle.getType().ordinal();
+            fuelTypes[slot] = (byte) vehicle.getFuelType().ordinal();
+        }
+
+        private void move(int from, int to) {
+            ids[to] = ids[from];
+            names[to] = names[from];
+            xs[to] = xs[from];
+            ys[to] = ys[from];
+            creationDays[to] = creationDays[from];
+            enginePowers[to] = enginePowers[from];
+            types[to] = types[from];
+            fuelTypes[to] = fuelTypes[from];
+        }
+
+        /**
+         * Method to make slots empty, names are dropped, so they can be collected
+         * @param from the first slot
+         * @param to slot after the last one
+         */
+        private void erase(int from, int to) {
+            Arrays.fill(names, from, to, null);
+            Arrays.fill(fuelTypes, from, to, EMPTY);
+        }
+
+        /**
+         * Method to copy used part of columns to new arrays
+         * @param end slot after the last used one
+         * @param capacity of new columns
+         * @return copy
+         */
+        private Columns copy(int end, int capacity) {
+            Columns copy = new Columns(capacity);
+            System.arraycopy(ids, 0, copy.ids, 0, end);
+            System.arraycopy(names, 0, copy.names, 0, end);
+            System.arraycopy(xs, 0, copy.xs, 0, end);
+            System.arraycopy(ys, 0, copy.ys, 0, end);
+            System.arraycopy(creationDays, 0, copy.creationDays, 0, end);
+            System.arraycopy(enginePowers, 0, copy.enginePowers, 0, end);
+            System.arraycopy(types, 0, copy.types, 0, end);
+            System.arraycopy(fuelTypes, 0, copy.fuelTypes, 0, end);
+            return copy;
+        }
+    }
+}
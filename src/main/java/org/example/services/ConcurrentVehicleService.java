@@ -0,0 +1,243 @@
+package org.example.services;
+
+import org.example.enums.FuelType;
+import org.example.enums.StorageType;
+import org.example.models.Vehicle;
+import org.example.repositories.VehicleRepository;
+import org.example.statistics.EnginePowerStatistics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe service for working with vehicles, which is shared by many clients.
+ * Reads proceed in parallel under read lock, changes are exclusive.
+ * Read lock is reentrant, so saving can walk through collection, while changes wait.
+ * Vehicles are changed by copy, which replaces them in storage, so vehicles, which are returned by reads,
+ * can be used after lock is released
+ */
+public class ConcurrentVehicleService extends VehicleService {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+
+    public ConcurrentVehicleService(
+            Collection<Vehicle> collection,
+            VehicleRepository repository
+    ) {
+        super(collection, repository);
+    }
+
+    public ConcurrentVehicleService(
+            Collection<Vehicle> collection,
+            VehicleRepository repository,
+            StorageType storageType
+    ) {
+        super(collection, repository, storageType);
+    }
+
+    public ConcurrentVehicleService(
+            VehicleStorage collection,
+            VehicleRepository repository
+    ) {
+        super(collection, repository);
+    }
+
+    @Override
+    public void add(Vehicle vehicle) {
+        write(() -> super.add(vehicle));
+    }
+
+    @Override
+    public void addAll(Collection<Vehicle> vehicles) {
+        write(() -> super.addAll(vehicles));
+    }
+
+    @Override
+    public void update(int id, Consumer<Vehicle> changes) {
+        write(() -> super.update(id, changes));
+    }
+
+    @Override
+    public void updateAll(Set<Integer> ids, Consumer<Vehicle> changes) {
+        write(() -> super.updateAll(ids, changes));
+    }
+
+    @Override
+    public void removeById(int id) {
+        write(() -> super.removeById(id));
+    }
+
+    @Override
+    public int removeIf(Predicate<? super Vehicle> filter) {
+        writeLock.lock();
+        try {
+            return super.removeIf(filter);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public int removeAll(Set<Integer> ids) {
+        writeLock.lock();
+        try {
+            return super.removeAll(ids);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        write(super::clear);
+    }
+
+    /**
+     * Method to save current collection to file, changes wait until collection is written
+     * @throws IOException If an I/O error occurs
+     */
+    @Override
+    public void save() throws IOException {
+        readLock.lock();
+        try {
+            super.save();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeGreater(Vehicle vehicle) {
+        write(() -> super.removeGreater(vehicle));
+    }
+
+    @Override
+    public void removeLower(Vehicle vehicle) {
+        write(() -> super.removeLower(vehicle));
+    }
+
+    @Override
+    public OptionalDouble averageOfEnginePower() {
+        return read(super::averageOfEnginePower);
+    }
+
+    /**
+     * Method to get copy of statistics of engine powers, so it isn't changed while caller reads it.
+     * Copy takes the whole distribution, so average alone is got by {@link #averageOfEnginePower}
+     * @return statistics
+     */
+    @Override
+    public EnginePowerStatistics getEnginePowerStatistics() {
+        return read(() -> {
+            EnginePowerStatistics statistics = new EnginePowerStatistics();
+            statistics.merge(super.getEnginePowerStatistics());
+            return statistics;
+        });
+    }
+
+    @Override
+    public List<Vehicle> filterLessThanFuelType(FuelType fuelType) {
+        return read(() -> super.filterLessThanFuelType(fuelType));
+    }
+
+    @Override
+    public List<Vehicle> within(int x1, int y1, int x2, int y2) {
+        return read(() -> super.within(x1, y1, x2, y2));
+    }
+
+    @Override
+    public List<Vehicle> nearest(int x, int y, int count) {
+        return read(() -> super.nearest(x, y, count));
+    }
+
+    @Override
+    public List<Vehicle> findByNamePrefix(String prefix) {
+        return read(() -> super.findByNamePrefix(prefix));
+    }
+
+    @Override
+    public List<Vehicle> findByNameContaining(String part) {
+        return read(() -> super.findByNameContaining(part));
+    }
+
+    @Override
+    public Vehicle getById(int id) {
+        return read(() -> super.getById(id));
+    }
+
+    /**
+     * Method to perform action for each vehicle of copy of slots, which is taken under read lock,
+     * so slow action, for example writing to client's socket, doesn't hold changes of other clients
+     * @param action to perform
+     */
+    @Override
+    public void forEach(Consumer<? super Vehicle> action) {
+        read(super::snapshotSpliterator).forEachRemaining(action);
+    }
+
+    /**
+     * Method to perform action for each vehicle of page in descending order.
+     * Page is copied under read lock and action is performed after lock is released
+     * @param offset count of skipped vehicles
+     * @param limit max count of vehicles in page
+     * @param action to perform
+     */
+    @Override
+    public void forEachDescending(int offset, int limit, Consumer<? super Vehicle> action) {
+        List<Vehicle> page = read(() -> {
+            List<Vehicle> vehicles = new ArrayList<>(Math.min(limit, super.size()));
+            super.forEachDescending(offset, limit, vehicles::add);
+            return vehicles;
+        });
+        page.forEach(action);
+    }
+
+    @Override
+    public int size() {
+        return read(super::size);
+    }
+
+    /**
+     * Method to get spliterator over copy of slots, which is taken under read lock,
+     * so stream isn't broken by later changes and doesn't hold lock
+     * @return spliterator
+     */
+    @Override
+    public Spliterator<Vehicle> spliterator() {
+        return read(super::snapshotSpliterator);
+    }
+
+    @Override
+    public List<Vehicle> getCollection() {
+        return read(super::getCollection);
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        readLock.lock();
+        try {
+            return reader.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private void write(Runnable writer) {
+        writeLock.lock();
+        try {
+            writer.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.services;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Arena of names in UTF-8 outside of heap. Names are appended to direct buffers and never overwritten,
+ * so copy of arena can be read, while original one gets new names. Space of released names isn't reused,
+ * storage moves alive names to new arena, when released bytes take more than alive ones
+ */
+class NameArena {
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private ByteBuffer[] chunks;
+    private int chunkCount;
+    private long aliveBytes;
+    private long releasedBytes;
+
+    NameArena() {
+        this(new ByteBuffer[1], 0);
+    }
+
+    private NameArena(ByteBuffer[] chunks, int chunkCount) {
+        this.chunks = chunks;
+        this.chunkCount = chunkCount;
+    }
+
+    /**
+     * Method to append name to arena
+     * @param bytes of name in UTF-8
+     * @return address of name, which has number of chunk in high half and offset in low half
+     */
+    long add(byte[] bytes) {
+        ByteBuffer chunk = chunkCount == 0 ? null : chunks[chunkCount - 1];
+        if (chunk == null || chunk.remaining() < bytes.length) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            }
+
+            chunk = ByteBuffer.allocateDirect(Math.max(CHUNK_SIZE, bytes.length));
+            chunks[chunkCount++] = chunk;
+        }
+
+        long address = (long) (chunkCount - 1) << 32 | chunk.position();
+        chunk.put(bytes);
+        aliveBytes += bytes.length;
+        return address;
+    }
+
+    /**
+     * Method to read name
+     * @param address of name
+     * @param length of name in bytes
+     * @return bytes of name in UTF-8
+     */
+    byte[] read(long address, int length) {
+        byte[] bytes = new byte[length];
+        chunks[(int) (address >>> 32)].get((int) address, bytes);
+        return bytes;
+    }
+
+    /**
+     * Method to check, if name at address is the same as bytes
+     * @param address of name
+     * @param length of name in bytes
+     * @param bytes to compare with
+     * @return true, if name is the same
+     */
+    boolean matches(long address, int length, byte[] bytes) {
+        return length == bytes.length && regionMatches(chunks[(int) (address >>> 32)], (int) address, bytes);
+    }
+
+    /**
+     * Method to check, if name at address contains bytes, name isn't read to heap
+     * @param address of name
+     * @param length of name in bytes
+     * @param bytes to look for
+     * @param prefix whether bytes must be at the start of name
+     * @return true, if name contains bytes
+     */
+    boolean contains(long address, int length, byte[] bytes, boolean prefix) {
+        ByteBuffer chunk = chunks[(int) (address >>> 32)];
+        int offset = (int) address;
+        int last = prefix ? Math.min(0, length - bytes.length) : length - bytes.length;
+        for (int from = 0; from <= last; from++) {
+            if (regionMatches(chunk, offset + from, bytes)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean regionMatches(ByteBuffer chunk, int offset, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (chunk.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Method to mark name as not used anymore
+     * @param length of name in bytes
+     */
+    void release(int length) {
+        aliveBytes -= length;
+        releasedBytes += length;
+    }
+
+    /**
+     * Method to check, if alive names are worth moving to new arena
+     * @return true, if released bytes take more than chunk and more than alive ones
+     */
+    boolean isWasteful() {
+        return releasedBytes > CHUNK_SIZE && releasedBytes > aliveBytes;
+    }
+
+    /**
+     * Method to get arena for reading names, which are already written, while this arena gets new ones
+     * @return copy of arena, which shares chunks
+     */
+    NameArena copy() {
+        return new NameArena(Arrays.copyOf(chunks, Math.max(1, chunkCount)), chunkCount);
+    }
+}
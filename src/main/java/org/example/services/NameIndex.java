@@ -0,0 +1,39 @@
+package org.example.services;
+
+import org.example.models.Vehicle;
+
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
+/**
+ * Index of vehicle's names, which service keeps next to storage and tells about every change of storage
+ */
+public interface NameIndex {
+    void add(Vehicle vehicle);
+
+    void remove(Vehicle vehicle);
+
+    default void addAll(Collection<Vehicle> vehicles) {
+        vehicles.forEach(this::add);
+    }
+
+    default void removeAll(Collection<Vehicle> vehicles) {
+        vehicles.forEach(this::remove);
+    }
+
+    void clear();
+
+    /**
+     * Method to walk through ids of vehicles, which names start with prefix
+     * @param prefix of name
+     * @param action to perform for each id, ids are ordered by name and then by id
+     */
+    void forEachWithPrefix(String prefix, IntConsumer action);
+
+    /**
+     * Method to walk through ids of vehicles, which names contain part
+     * @param part of name
+     * @param action to perform for each id, ids are ordered by name and then by id
+     */
+    void forEachContaining(String part, IntConsumer action);
+}
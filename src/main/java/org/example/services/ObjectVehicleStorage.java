@@ -0,0 +1,211 @@
+package org.example.services;
+
+import org.example.collections.IntIntHashMap;
+import org.example.models.Vehicle;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Storage of vehicle objects in insertion order with constant-time access and removal by id.
+ * Vehicles live in array of slots, removed slots are left empty and squeezed out,
+ * when they take more than half of array
+ */
+public class ObjectVehicleStorage implements VehicleStorage {
+    private static final int MIN_CAPACITY = 16;
+
+    private final IntIntHashMap slotById;
+    private Vehicle[] slots;
+    private int end;
+    private int size;
+
+    public ObjectVehicleStorage(int expectedSize) {
+        slotById = new IntIntHashMap(expectedSize);
+        slots = new Vehicle[Math.max(MIN_CAPACITY, expectedSize)];
+    }
+
+    @Override
+    public void add(Vehicle vehicle) {
+        int id = vehicle.getId();
+        if (slotById.containsKey(id)) {
+            throw new IllegalArgumentException("Collection already contains vehicle with id = " + id);
+        }
+
+        ensureCapacity(1);
+        slots[end] = vehicle;
+        slotById.put(id, end++);
+        size++;
+    }
+
+    @Override
+    public void addAll(Collection<Vehicle> vehicles) {
+        ensureCapacity(vehicles.size());
+        int added = 0;
+        try {
+            for (Vehicle vehicle : vehicles) {
+                add(vehicle);
+                added++;
+            }
+        } catch (IllegalArgumentException e) {
+            for (Vehicle vehicle : vehicles) {
+                if (added-- == 0) {
+                    break;
+                }
+
+                remove(vehicle.getId());
+            }
+
+            throw e;
+        }
+    }
+
+    @Override
+    public Vehicle get(int id) {
+        int slot = slotById.get(id);
+        return slot < 0 ? null : slots[slot];
+    }
+
+    @Override
+    public void update(Vehicle vehicle) {
+        int slot = slotById.get(vehicle.getId());
+        if (slot < 0) {
+            throw new IllegalArgumentException("Collection doesn't exists vehicle with id = " + vehicle.getId());
+        }
+
+        slots[slot] = vehicle;
+    }
+
+    @Override
+    public Vehicle remove(int id) {
+        int slot = slotById.remove(id);
+        if (slot < 0) {
+            return null;
+        }
+
+        Vehicle vehicle = slots[slot];
+        slots[slot] = null;
+        size--;
+        if (slot == end - 1) {
+            end--;
+        } else if (end > MIN_CAPACITY && size < end / 2) {
+            squeeze();
+        }
+
+        return vehicle;
+    }
+
+    @Override
+    public void removeIf(Predicate<? super Vehicle> filter, Consumer<? super Vehicle> removed) {
+        int to = 0;
+        int from = 0;
+        try {
+            for (; from < end; from++) {
+                Vehicle vehicle = slots[from];
+                if (vehicle == null) {
+                    continue;
+                }
+
+                if (filter.test(vehicle)) {
+                    slotById.remove(vehicle.getId());
+                    size--;
+                    removed.accept(vehicle);
+                } else {
+                    moveSlot(from, to++);
+                }
+            }
+        } finally {
+            for (; from < end; from++) {
+                if (slots[from] != null) {
+                    moveSlot(from, to++);
+                }
+            }
+
+            Arrays.fill(slots, to, end, null);
+            end = to;
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(slots, 0, end, null);
+        slotById.clear();
+        end = 0;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Vehicle> action) {
+        for (int i = 0; i < end; i++) {
+            Vehicle vehicle = slots[i];
+            if (vehicle != null) {
+                action.accept(vehicle);
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<Vehicle> spliterator() {
+        Vehicle[] current = slots;
+        return new VehicleSpliterator(slot -> current[slot], 0, end, 0);
+    }
+
+    @Override
+    public Spliterator<Vehicle> snapshotSpliterator() {
+        Vehicle[] copy = Arrays.copyOf(slots, end);
+        return new VehicleSpliterator(slot -> copy[slot], 0, end, Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Method to make room for vehicles after the last slot
+     * @param count of vehicles to make room for
+     */
+    private void ensureCapacity(int count) {
+        if (end + count <= slots.length) {
+            return;
+        }
+
+        if (size < end / 2) {
+            squeeze();
+        }
+
+        if (end + count > slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(slots.length * 2, end + count));
+        }
+    }
+
+    /**
+     * Method to move vehicles over empty slots and renumber them
+     */
+    private void squeeze() {
+        int to = 0;
+        for (int from = 0; from < end; from++) {
+            if (slots[from] != null) {
+                moveSlot(from, to++);
+            }
+        }
+
+        Arrays.fill(slots, to, end, null);
+        end = to;
+    }
+
+    /**
+     * Method to move vehicle to other slot
+     * @param from current slot
+     * @param to new slot, which isn't after current one
+     */
+    private void moveSlot(int from, int to) {
+        if (from != to) {
+            Vehicle vehicle = slots[from];
+            slots[to] = vehicle;
+            slotById.put(vehicle.getId(), to);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package org.example.services;
+
+import org.example.collections.LongIntHashMap;
+import org.example.models.Vehicle;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Name index for storage outside of heap, which keeps no names itself. Every part of 1, 2 and 3 chars of name
+ * and start of name of 1, 2 and 3 chars lead to ids of vehicles, which names have them, so part is looked for
+ * only among vehicles of its rarest part, and their names are compared in UTF-8 in arena of storage.
+ * Parts are packed into long keys of primitive map, and lists of ids lie in slices of one shared array,
+ * so, like grid of coordinates, index has no object per name or part and garbage collector doesn't walk through it.
+ * Ids of removed vehicles and of old names are left in lists and skipped, until there are more removed
+ * vehicles than alive ones, then lists are built again from storage
+ */
+class OffHeapNameIndex implements NameIndex {
+    private static final Comparator<Found> ORDER = Comparator.<Found, String>comparing(found -> found.name)
+            .thenComparingInt(found -> found.id);
+    private static final int GRAM_LENGTH = 3;
+    private static final long START = 1L << 50;
+    private static final int MIN_CAPACITY = 16;
+    /**
+     * Vehicles of list, which takes more than this part of storage, are checked longer, than storage is scanned
+     */
+    private static final int SCAN_DIVISOR = 8;
+
+    private final OffHeapVehicleStorage storage;
+    private Lists lists = new Lists();
+    private int removed;
+
+    OffHeapNameIndex(OffHeapVehicleStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public void add(Vehicle vehicle) {
+        put(vehicle.getName(), vehicle.getId());
+    }
+
+    @Override
+    public void remove(Vehicle vehicle) {
+        removed++;
+        if (removed > storage.size() + MIN_CAPACITY) {
+            lists = new Lists();
+            removed = 0;
+            storage.forEachNameContaining(new byte[0], false, this::put);
+        }
+    }
+
+    @Override
+    public void clear() {
+        lists = new Lists();
+        removed = 0;
+    }
+
+    @Override
+    public void forEachWithPrefix(String prefix, IntConsumer action) {
+        find(prefix, true, action);
+    }
+
+    @Override
+    public void forEachContaining(String part, IntConsumer action) {
+        find(part, false, action);
+    }
+
+    /**
+     * Method to find vehicles among ids of the rarest part and check their names in arena.
+     * When list holds many of vehicles, storage is scanned instead. Empty part is contained in every name,
+     * and part with unpaired surrogate can't be encoded, then every name is checked as string
+     * @param part of name
+     * @param prefix whether name must start with part
+     * @param action to perform for each id, ids are ordered by name and then by id
+     */
+    private void find(String part, boolean prefix, IntConsumer action) {
+        if (part.isEmpty() || !StandardCharsets.UTF_8.newEncoder().canEncode(part)) {
+            scan(part, new byte[0], prefix, action);
+            return;
+        }
+
+        byte[] bytes = part.getBytes(StandardCharsets.UTF_8);
+        int gramLength = Math.min(part.length(), GRAM_LENGTH);
+        int candidates = prefix ? lists.find(START | gram(part, 0, gramLength)) : -1;
+        if (prefix && candidates < 0) {
+            return;
+        }
+
+        for (int from = 0; from + gramLength <= part.length(); from++) {
+            int list = lists.find(gram(part, from, gramLength));
+            if (list < 0) {
+                return;
+            }
+
+            if (candidates < 0 || lists.sizes[list] < lists.sizes[candidates]) {
+                candidates = list;
+            }
+        }
+
+        if (lists.sizes[candidates] > storage.size() / SCAN_DIVISOR) {
+            scan(part, bytes, prefix, action);
+            return;
+        }
+
+        List<Found> found = new ArrayList<>();
+        lists.forEach(candidates, id -> {
+            String name = storage.getNameContaining(id, bytes, prefix);
+            if (name != null && (prefix ? name.startsWith(part) : name.contains(part))) {
+                found.add(new Found(name, id));
+            }
+        });
+        found.sort(ORDER);
+        for (int i = 0; i < found.size(); i++) {
+            if (i == 0 || found.get(i - 1).id != found.get(i).id) {
+                action.accept(found.get(i).id);
+            }
+        }
+    }
+
+    /**
+     * Method to find vehicles by bytes of part in the whole arena and to check found names again as strings
+     * @param part of name
+     * @param bytes of part in UTF-8 or no bytes, if every name is checked
+     * @param prefix whether name must start with part
+     * @param action to perform for each id, ids are ordered by name and then by id
+     */
+    private void scan(String part, byte[] bytes, boolean prefix, IntConsumer action) {
+        List<Found> found = new ArrayList<>();
+        storage.forEachNameContaining(bytes, prefix, (name, id) -> {
+            if (prefix ? name.startsWith(part) : name.contains(part)) {
+                found.add(new Found(name, id));
+            }
+        });
+        found.sort(ORDER);
+        found.forEach(vehicle -> action.accept(vehicle.id));
+    }
+
+    /**
+     * Method to add id to lists of every part and of start of name
+     * @param name of vehicle
+     * @param id of vehicle
+     */
+    private void put(String name, int id) {
+        for (int gramLength = 1; gramLength <= GRAM_LENGTH && gramLength <= name.length(); gramLength++) {
+            lists.add(START | gram(name, 0, gramLength), id);
+            for (int from = 0; from + gramLength <= name.length(); from++) {
+                lists.add(gram(name, from, gramLength), id);
+            }
+        }
+    }
+
+    /**
+     * Method to pack part of text into key with its length
+     * @param text with part
+     * @param from index of part's first char
+     * @param length of part, up to 3 chars
+     * @return key
+     */
+    private static long gram(String text, int from, int length) {
+        long key = (long) length << 48;
+        for (int i = 0; i < length; i++) {
+            key |= (long) text.charAt(from + i) << (16 * i);
+        }
+
+        return key;
+    }
+
+    /**
+     * Lists of ids by keys of parts in primitive arrays. Ids of every list lie in one slice of shared array,
+     * slices are sized by powers of two and released slices are reused by lists of the same size class.
+     * Lists are never deleted, they are dropped all at once, when index is built again
+     */
+    private static class Lists {
+        private static final int MIN_LISTS = 16;
+        private static final int MIN_ENTRIES = 64;
+        private static final int MIN_LIST_CAPACITY = 2;
+        private static final int SIZE_CLASSES = 32;
+
+        private final LongIntHashMap numbers = new LongIntHashMap();
+        private int[] offsets = new int[MIN_LISTS];
+        private int[] capacities = new int[MIN_LISTS];
+        private int[] sizes = new int[MIN_LISTS];
+        private int end;
+        private int[] ids = new int[MIN_ENTRIES];
+        private int entryEnd;
+        /**
+         * Heads of lists of released slices by logarithm of capacity, next slice's offset is kept in ids of slice
+         */
+        private final int[] freeSlices = new int[SIZE_CLASSES];
+
+        private Lists() {
+            Arrays.fill(freeSlices, -1);
+        }
+
+        /**
+         * Method to find number of list
+         * @param key of part
+         * @return number of list or -1, if no name has part
+         */
+        private int find(long key) {
+            return numbers.get(key);
+        }
+
+        /**
+         * Method to add id to list of part. Parts of one name are added one after another,
+         * so repeated part of the same name is found at the end of its list
+         * @param key of part
+         * @param id to add
+         */
+        private void add(long key, int id) {
+            int list = numbers.get(key);
+            if (list < 0) {
+                list = create(key);
+            } else if (sizes[list] > 0 && ids[offsets[list] + sizes[list] - 1] == id) {
+                return;
+            }
+
+            if (sizes[list] == capacities[list]) {
+                resize(list, Math.max(capacities[list] * 2, MIN_LIST_CAPACITY));
+            }
+
+            ids[offsets[list] + sizes[list]++] = id;
+        }
+
+        private void forEach(int list, IntConsumer action) {
+            int from = offsets[list];
+            for (int i = from; i < from + sizes[list]; i++) {
+                action.accept(ids[i]);
+            }
+        }
+
+        private int create(long key) {
+            if (end == offsets.length) {
+                int capacity = end * 2;
+                offsets = Arrays.copyOf(offsets, capacity);
+                capacities = Arrays.copyOf(capacities, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+            }
+
+            numbers.put(key, end);
+            return end++;
+        }
+
+        private void resize(int list, int capacity) {
+            int offset = allocate(capacity);
+            if (capacities[list] > 0) {
+                System.arraycopy(ids, offsets[list], ids, offset, sizes[list]);
+                release(offsets[list], capacities[list]);
+            }
+
+            offsets[list] = offset;
+            capacities[list] = capacity;
+        }
+
+        /**
+         * Method to take slice of entries, released slice of the same size is taken first
+         * @param capacity of slice, power of two
+         * @return offset of slice
+         */
+        private int allocate(int capacity) {
+            int sizeClass = Integer.numberOfTrailingZeros(capacity);
+            int offset = freeSlices[sizeClass];
+            if (offset >= 0) {
+                freeSlices[sizeClass] = ids[offset];
+                return offset;
+            }
+
+            if (entryEnd + capacity > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(ids.length * 2, entryEnd + capacity));
+            }
+
+            offset = entryEnd;
+            entryEnd += capacity;
+            return offset;
+        }
+
+        private void release(int offset, int capacity) {
+            int sizeClass = Integer.numberOfTrailingZeros(capacity);
+            ids[offset] = freeSlices[sizeClass];
+            freeSlices[sizeClass] = offset;
+        }
+    }
+
+    /**
+     * Found vehicle's name and id
+     */
+    private static class Found {
+        private final String name;
+        private final int id;
+
+        private Found(String name, int id) {
+            this.name = name;
+            this.id = id;
+        }
+    }
+}
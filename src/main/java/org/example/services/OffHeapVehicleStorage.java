@@ -0,0 +1,483 @@
+package org.example.services;
+
+import org.example.collections.IntIntHashMap;
+import org.example.enums.FuelType;
+import org.example.enums.VehicleType;
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+import org.example.models.VehicleValueCache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Storage of vehicles in records of fixed width in direct buffers outside of heap, names are kept in arena
+ * outside of heap too. Heap holds only pages of records and map from id to slot, which are arrays without
+ * references, so garbage collector doesn't walk through vehicles. Vehicle object is created on every read
+ * and isn't connected with storage, changes are written back by update
+ */
+public class OffHeapVehicleStorage implements VehicleStorage {
+    private static final int MIN_CAPACITY = 16;
+
+    private final IntIntHashMap slotById;
+    private Records records;
+    private int end;
+    private int size;
+
+    public OffHeapVehicleStorage(int expectedSize) {
+        slotById = new IntIntHashMap(expectedSize);
+        records = new Records(Math.max(MIN_CAPACITY, expectedSize));
+    }
+
+    @Override
+    public void add(Vehicle vehicle) {
+        int id = vehicle.getId();
+        if (slotById.containsKey(id)) {
+            throw new IllegalArgumentException("Collection already contains vehicle with id = " + id);
+        }
+
+        ensureCapacity(1);
+        records.write(end, vehicle);
+        slotById.put(id, end++);
+        size++;
+    }
+
+    @Override
+    public void addAll(Collection<Vehicle> vehicles) {
+        ensureCapacity(vehicles.size());
+        int added = 0;
+        try {
+            for (Vehicle vehicle : vehicles) {
+                add(vehicle);
+                added++;
+            }
+        } catch (IllegalArgumentException e) {
+            for (Vehicle vehicle : vehicles) {
+                if (added-- == 0) {
+                    break;
+                }
+
+                remove(vehicle.getId());
+            }
+
+            throw e;
+        }
+    }
+
+    @Override
+    public Vehicle get(int id) {
+        int slot = slotById.get(id);
+        return slot < 0 ? null : records.read(slot);
+    }
+
+    @Override
+    public void update(Vehicle vehicle) {
+        int slot = slotById.get(vehicle.getId());
+        if (slot < 0) {
+            throw new IllegalArgumentException("Collection doesn't exists vehicle with id = " + vehicle.getId());
+        }
+
+        records.write(slot, vehicle);
+        compactNamesIfWasteful();
+    }
+
+    @Override
+    public Vehicle remove(int id) {
+        int slot = slotById.remove(id);
+        if (slot < 0) {
+            return null;
+        }
+
+        Vehicle vehicle = records.read(slot);
+        records.erase(slot);
+        size--;
+        if (slot == end - 1) {
+            end--;
+        } else if (end > MIN_CAPACITY && size < end / 2) {
+            squeeze();
+        }
+
+        compactNamesIfWasteful();
+        return vehicle;
+    }
+
+    @Override
+    public void removeIf(Predicate<? super Vehicle> filter, Consumer<? super Vehicle> removed) {
+        int to = 0;
+        int from = 0;
+        try {
+            for (; from < end; from++) {
+                Vehicle vehicle = records.read(from);
+                if (vehicle == null) {
+                    continue;
+                }
+
+                if (filter.test(vehicle)) {
+                    slotById.remove(vehicle.getId());
+                    records.erase(from);
+                    size--;
+                    removed.accept(vehicle);
+                } else {
+                    moveSlot(from, to++);
+                }
+            }
+        } finally {
+            for (; from < end; from++) {
+                if (records.isUsed(from)) {
+                    moveSlot(from, to++);
+                }
+            }
+
+            end = to;
+            records.trim(end);
+            compactNamesIfWasteful();
+        }
+    }
+
+    /**
+     * Method to remove all vehicles, memory outside of heap is freed, when garbage collector drops old buffers
+     */
+    @Override
+    public void clear() {
+        records = new Records(MIN_CAPACITY);
+        slotById.clear();
+        end = 0;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Vehicle> action) {
+        for (int i = 0; i < end; i++) {
+            Vehicle vehicle = records.read(i);
+            if (vehicle != null) {
+                action.accept(vehicle);
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<Vehicle> spliterator() {
+        return new VehicleSpliterator(records::read, 0, end, 0);
+    }
+
+    /**
+     * Method to walk through copy of records, which isn't affected by later changes.
+     * Pages are copied outside of heap, names are shared, because arena isn't overwritten
+     * @return spliterator
+     */
+    @Override
+    public Spliterator<Vehicle> snapshotSpliterator() {
+        return new VehicleSpliterator(records.copy(end)::read, 0, end, Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Method to walk through vehicles, which names contain bytes. Names are compared in arena,
+     * only names of matching vehicles are read to heap
+     * @param bytes part of name in UTF-8
+     * @param prefix whether name must start with bytes
+     * @param action to perform for each name and id
+     */
+    void forEachNameContaining(byte[] bytes, boolean prefix, ObjIntConsumer<String> action) {
+        for (int slot = 0; slot < end; slot++) {
+            if (records.isUsed(slot) && records.nameContains(slot, bytes, prefix)) {
+                action.accept(records.getName(slot), records.getId(slot));
+            }
+        }
+    }
+
+    /**
+     * Method to get name of vehicle, if it contains bytes. Name is compared in arena
+     * and read to heap only if it matches
+     * @param id of vehicle
+     * @param bytes part of name in UTF-8
+     * @param prefix whether name must start with bytes
+     * @return name or null, if there is no such vehicle or its name doesn't contain bytes
+     */
+    String getNameContaining(int id, byte[] bytes, boolean prefix) {
+        int slot = slotById.get(id);
+        return slot >= 0 && records.nameContains(slot, bytes, prefix) ? records.getName(slot) : null;
+    }
+
+    /**
+     * Method to make room for vehicles after the last slot
+     * @param count of vehicles to make room for
+     */
+    private void ensureCapacity(int count) {
+        if (end + count <= records.capacity()) {
+            return;
+        }
+
+        if (size < end / 2) {
+            squeeze();
+        }
+
+        records.grow(end + count);
+    }
+
+    /**
+     * Method to move vehicles over empty slots and renumber them
+     */
+    private void squeeze() {
+        int to = 0;
+        for (int from = 0; from < end; from++) {
+            if (records.isUsed(from)) {
+                moveSlot(from, to++);
+            }
+        }
+
+        end = to;
+        records.trim(end);
+    }
+
+    /**
+     * Method to move vehicle to other slot
+     * @param from current slot
+     * @param to new slot, which isn't after current one
+     */
+    private void moveSlot(int from, int to) {
+        if (from != to) {
+            records.move(from, to);
+            slotById.put(records.getId(to), to);
+        }
+    }
+
+    private void compactNamesIfWasteful() {
+        if (records.names.isWasteful()) {
+            records.compactNames(end);
+        }
+    }
+
+    /**
+     * Pages of records of the same width in direct buffers. Enums are kept as ordinal + 1,
+     * so zero marks empty slot by fuel's type and absent vehicle's type, new pages are empty at once
+     */
+    private static class Records {
+        private static final int PAGE_SHIFT = 12;
+        private static final int PAGE_RECORDS = 1 << PAGE_SHIFT;
+        private static final int ID = 0;
+        private static final int X = 4;
+        private static final int Y = 8;
+        private static final int CREATION_DAY = 12;
+        private static final int ENGINE_POWER = 16;
+        private static final int NAME_LENGTH = 20;
+        private static final int NAME_ADDRESS = 24;
+        private static final int TYPE = 32;
+        private static final int FUEL_TYPE = 33;
+        private static final int RECORD_SIZE = 34;
+        private static final int PAGE_SIZE = PAGE_RECORDS * RECORD_SIZE;
+        private static final int NO_DATE = Integer.MIN_VALUE;
+        private static final VehicleType[] TYPES = VehicleType.values();
+        private static final FuelType[] FUEL_TYPES = FuelType.values();
+
+        private ByteBuffer[] pages;
+        private int pageCount;
+        private NameArena names;
+
+        private Records(int capacity) {
+            this(new ByteBuffer[pagesFor(capacity)], new NameArena());
+            grow(capacity);
+        }
+
+        private Records(ByteBuffer[] pages, NameArena names) {
+            this.pages = pages;
+            this.names = names;
+        }
+
+        private int capacity() {
+            return pageCount << PAGE_SHIFT;
+        }
+
+        private boolean isUsed(int slot) {
+            return page(slot).get(offset(slot) + FUEL_TYPE) != 0;
+        }
+
+        private int getId(int slot) {
+            return page(slot).getInt(offset(slot) + ID);
+        }
+
+        private int getX(int slot) {
+            return page(slot).getInt(offset(slot) + X);
+        }
+
+        private int getY(int slot) {
+            return page(slot).getInt(offset(slot) + Y);
+        }
+
+        private String getName(int slot) {
+            ByteBuffer page = page(slot);
+            int offset = offset(slot);
+            byte[] name = names.read(page.getLong(offset + NAME_ADDRESS), page.getInt(offset + NAME_LENGTH));
+            return new String(name, StandardCharsets.UTF_8);
+        }
+
+        private boolean nameContains(int slot, byte[] bytes, boolean prefix) {
+            ByteBuffer page = page(slot);
+            int offset = offset(slot);
+            return names.contains(page.getLong(offset + NAME_ADDRESS), page.getInt(offset + NAME_LENGTH), bytes, prefix);
+        }
+
+        /**
+         * Method to create vehicle from slot
+         * @param slot of vehicle
+         * @return new vehicle or null, if slot is empty
+         */
+        private Vehicle read(int slot) {
+            ByteBuffer page = page(slot);
+            int offset = offset(slot);
+            byte fuelType = page.get(offset + FUEL_TYPE);
+            if (fuelType == 0) {
+                return null;
+            }
+
+            byte type = page.get(offset + TYPE);
+            int creationDay = page.getInt(offset + CREATION_DAY);
+            return new Vehicle(
+                    page.getInt(offset + ID),
+                    getName(slot),
+                    new Coordinates(page.getInt(offset + X), page.getInt(offset + Y)),
+                    creationDay == NO_DATE ? null : VehicleValueCache.global().date(creationDay),
+                    page.getInt(offset + ENGINE_POWER),
+                    type == 0 ? null : TYPES[type - 1],
+                    FUEL_TYPES[fuelType - 1]
+            );
+        }
+
+        /**
+         * Method to write vehicle to slot, name is appended to arena only if it is changed
+         * @param slot of vehicle
+         * @param vehicle to write
+         */
+        private void write(int slot, Vehicle vehicle) {
+            ByteBuffer page = page(slot);
+            int offset = offset(slot);
+            byte[] name = vehicle.getName().getBytes(StandardCharsets.UTF_8);
+            boolean used = page.get(offset + FUEL_TYPE) != 0;
+            long nameAddress = page.getLong(offset + NAME_ADDRESS);
+            int nameLength = page.getInt(offset + NAME_LENGTH);
+            if (!used || !names.matches(nameAddress, nameLength, name)) {
+                if (used) {
+                    names.release(nameLength);
+                }
+
+                page.putLong(offset + NAME_ADDRESS, names.add(name));
+                page.putInt(offset + NAME_LENGTH, name.length);
+            }
+
+            LocalDate creationDate = vehicle.getCreationDate();
+            page.putInt(offset + ID, vehicle.getId());
+            page.putInt(offset + X, vehicle.getCoordinates().getX());
+            page.putInt(offset + Y, vehicle.getCoordinates().getY());
+            page.putInt(offset + CREATION_DAY, creationDate == null ? NO_DATE : Math.toIntExact(creationDate.toEpochDay()));
+            page.putInt(offset + ENGINE_POWER, vehicle.getEnginePower());
+            page.put(offset + TYPE, vehicle.getType() == null ? 0 : (byte) (vehicle.getType().ordinal() + 1));
+            page.put(offset + FUEL_TYPE, (byte) (vehicle.getFuelType().ordinal() + 1));
+        }
+
+        /**
+         * Method to move record to other slot, old slot becomes empty
+         * @param from current slot
+         * @param to new slot
+         */
+        private void move(int from, int to) {
+            page(to).put(offset(to), page(from), offset(from), RECORD_SIZE);
+            page(from).put(offset(from) + FUEL_TYPE, (byte) 0);
+        }
+
+        /**
+         * Method to make slot empty and release its name
+         * @param slot of vehicle
+         */
+        private void erase(int slot) {
+            ByteBuffer page = page(slot);
+            int offset = offset(slot);
+            if (page.get(offset + FUEL_TYPE) != 0) {
+                names.release(page.getInt(offset + NAME_LENGTH));
+                page.put(offset + FUEL_TYPE, (byte) 0);
+            }
+        }
+
+        /**
+         * Method to add empty pages
+         * @param capacity count of slots, which pages must hold
+         */
+        private void grow(int capacity) {
+            int count = pagesFor(capacity);
+            if (count > pages.length) {
+                pages = Arrays.copyOf(pages, Math.max(pages.length * 2, count));
+            }
+
+            for (; pageCount < count; pageCount++) {
+                pages[pageCount] = ByteBuffer.allocateDirect(PAGE_SIZE);
+            }
+        }
+
+        /**
+         * Method to drop empty pages after the last used slot, one page is kept for next vehicles
+         * @param end slot after the last used one
+         */
+        private void trim(int end) {
+            int count = pagesFor(end) + 1;
+            for (; pageCount > count; pageCount--) {
+                pages[pageCount - 1] = null;
+            }
+        }
+
+        /**
+         * Method to move names of used slots to new arena, so released names are dropped with old one
+         * @param end slot after the last used one
+         */
+        private void compactNames(int end) {
+            NameArena compacted = new NameArena();
+            for (int slot = 0; slot < end; slot++) {
+                ByteBuffer page = page(slot);
+                int offset = offset(slot);
+                if (page.get(offset + FUEL_TYPE) != 0) {
+                    byte[] name = names.read(page.getLong(offset + NAME_ADDRESS), page.getInt(offset + NAME_LENGTH));
+                    page.putLong(offset + NAME_ADDRESS, compacted.add(name));
+                }
+            }
+
+            names = compacted;
+        }
+
+        /**
+         * Method to copy pages with used slots to new buffers
+         * @param end slot after the last used one
+         * @return copy, which reads names from arena, as it is now
+         */
+        private Records copy(int end) {
+            Records copy = new Records(new ByteBuffer[pagesFor(end)], names.copy());
+            for (; copy.pageCount < copy.pages.length; copy.pageCount++) {
+                ByteBuffer page = ByteBuffer.allocateDirect(PAGE_SIZE);
+                page.put(0, pages[copy.pageCount], 0, PAGE_SIZE);
+                copy.pages[copy.pageCount] = page;
+            }
+
+            return copy;
+        }
+
+        private ByteBuffer page(int slot) {
+            return pages[slot >>> PAGE_SHIFT];
+        }
+
+        private static int offset(int slot) {
+            return (slot & (PAGE_RECORDS - 1)) * RECORD_SIZE;
+        }
+
+        private static int pagesFor(int capacity) {
+            return (capacity + PAGE_RECORDS - 1) >>> PAGE_SHIFT;
+        }
+    }
+}
@@ -0,0 +1,680 @@
+package org.example.services;
+
+import org.example.collections.IntIntHashMap;
+import org.example.collections.LongIntHashMap;
+import org.example.collections.SortedIntTree;
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
+/**
+ * Uniform grid over vehicle's coordinates. Every non-empty square cell keeps ids and coordinates
+ * of its vehicles, so rectangles and neighbourhoods are answered by visiting only nearby cells.
+ * Cells are halved, when they get too crowded, like hash table grows, when it gets too full,
+ * and doubled back, when they get too empty. Cells are found by packed coordinates in primitive map,
+ * and bounds of grid follow the outermost non-empty cells, so they shrink, when vehicles leave.
+ * Cells are kept in primitive arrays without object per cell, so grid serves storage outside of heap too,
+ * and garbage collector doesn't walk through it
+ */
+public class VehicleGridIndex {
+    private static final int DEFAULT_CELL_SHIFT = 6;
+    private static final int MAX_CELL_LOAD = 64;
+    private static final int MIN_CELL_LOAD = 4;
+    private static final int MIN_CELL_CAPACITY = 4;
+
+    private final Axis columns = new Axis();
+    private final Axis rows = new Axis();
+    private Cells cells = new Cells();
+    private int cellShift = DEFAULT_CELL_SHIFT;
+    private int size;
+    private int minCellX = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+    private int minCellY = Integer.MAX_VALUE;
+    private int maxCellY = Integer.MIN_VALUE;
+
+    public int size() {
+        return size;
+    }
+
+    public void add(Vehicle vehicle) {
+        Coordinates coordinates = vehicle.getCoordinates();
+        put(vehicle.getId(), coordinates.getX(), coordinates.getY());
+        size++;
+        if (size > MAX_CELL_LOAD * cells.count() && cellShift > 0) {
+            rebuild(cellShift - 1);
+        }
+    }
+
+    public void remove(Vehicle vehicle) {
+        Coordinates coordinates = vehicle.getCoordinates();
+        int x = coordinates.getX();
+        int y = coordinates.getY();
+        int cell = cells.find(x >> cellShift, y >> cellShift);
+        if (cell >= 0 && cells.remove(cell, vehicle.getId())) {
+            size--;
+            if (cells.sizes[cell] == 0) {
+                columns.remove(cells.cellXs[cell]);
+                rows.remove(cells.cellYs[cell]);
+                cells.delete(cell);
+                updateBounds();
+            }
+
+            if (size < MIN_CELL_LOAD * cells.count() && cellShift < DEFAULT_CELL_SHIFT) {
+                rebuild(cellShift + 1);
+            } else if (cells.isWasteful()) {
+                rebuild(cellShift);
+            }
+        }
+    }
+
+    public void addAll(Collection<Vehicle> vehicles) {
+        vehicles.forEach(this::add);
+    }
+
+    public void removeAll(Collection<Vehicle> vehicles) {
+        vehicles.forEach(this::remove);
+    }
+
+    public void clear() {
+        cells = new Cells();
+        size = 0;
+        cellShift = DEFAULT_CELL_SHIFT;
+        resetBounds();
+    }
+
+    /**
+     * Method to walk through ids of vehicles inside rectangle, borders are included.
+     * Only cells, which cross rectangle, are visited
+     * @param x1 one border by x
+     * @param y1 one border by y
+     * @param x2 other border by x
+     * @param y2 other border by y
+     * @param action to perform for each id
+     */
+    public void forEachWithin(int x1, int y1, int x2, int y2, IntConsumer action) {
+        int left = Math.min(x1, x2);
+        int right = Math.max(x1, x2);
+        int bottom = Math.min(y1, y2);
+        int top = Math.max(y1, y2);
+        int fromX = Math.max(left >> cellShift, minCellX);
+        int toX = Math.min(right >> cellShift, maxCellX);
+        int fromY = Math.max(bottom >> cellShift, minCellY);
+        int toY = Math.min(top >> cellShift, maxCellY);
+        if (fromX > toX || fromY > toY) {
+            return;
+        }
+
+        if ((long) (toX - fromX + 1) * (toY - fromY + 1) > cells.count()) {
+            for (int cell = 0; cell < cells.end; cell++) {
+                int cellX = cells.cellXs[cell];
+                int cellY = cells.cellYs[cell];
+                if (cells.sizes[cell] > 0 && cellX >= fromX && cellX <= toX && cellY >= fromY && cellY <= toY) {
+                    cells.forEachWithin(cell, left, bottom, right, top, action);
+                }
+            }
+
+            return;
+        }
+
+        for (int cellX = fromX; cellX <= toX; cellX++) {
+            for (int cellY = fromY; cellY <= toY; cellY++) {
+                int cell = cells.find(cellX, cellY);
+                if (cell >= 0) {
+                    cells.forEachWithin(cell, left, bottom, right, top, action);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to find ids of vehicles, which are the nearest to point.
+     * Rings of cells around point are visited, until no cell outside can hold closer vehicle
+     * @param x of point
+     * @param y of point
+     * @param count how many vehicles to find
+     * @return ids from the nearest vehicle, vehicles at the same distance are ordered by id
+     */
+    public int[] nearest(int x, int y, int count) {
+        Candidates candidates = new Candidates(Math.min(count, size));
+        if (candidates.capacity == 0) {
+            return new int[0];
+        }
+
+        int centerX = x >> cellShift;
+        int centerY = y >> cellShift;
+        long visited = 0;
+        int radius = Math.max(
+                Math.max(minCellX - centerX, centerX - maxCellX),
+                Math.max(Math.max(minCellY - centerY, centerY - maxCellY), 0)
+        );
+        while (true) {
+            visited += visitRing(centerX, centerY, radius, cell -> cells.offerTo(cell, candidates, x, y));
+            if (centerX - radius <= minCellX && centerX + radius >= maxCellX
+                    && centerY - radius <= minCellY && centerY + radius >= maxCellY) {
+                break;
+            }
+
+            if (candidates.isFull() && candidates.farthest() < square(distanceOutside(x, y, radius))) {
+                break;
+            }
+
+            if (visited > 4L * cells.count()) {
+                Candidates all = new Candidates(candidates.capacity);
+                for (int cell = 0; cell < cells.end; cell++) {
+                    cells.offerTo(cell, all, x, y);
+                }
+
+                return all.sortedIds();
+            }
+
+            radius++;
+        }
+
+        return candidates.sortedIds();
+    }
+
+    /**
+     * Method to visit cells at given Chebyshev distance from center cell, which are inside bounds of grid
+     * @param centerX of center cell
+     * @param centerY of center cell
+     * @param radius of ring in cells
+     * @param action to perform for number of each non-empty cell
+     * @return count of looked up cells
+     */
+    private long visitRing(int centerX, int centerY, int radius, IntConsumer action) {
+        long bottom = (long) centerY - radius;
+        long top = (long) centerY + radius;
+        long looked = visitRow(bottom, (long) centerX - radius, (long) centerX + radius, action);
+        if (radius == 0) {
+            return looked;
+        }
+
+        looked += visitRow(top, (long) centerX - radius, (long) centerX + radius, action);
+        looked += visitColumn((long) centerX - radius, bottom + 1, top - 1, action);
+        looked += visitColumn((long) centerX + radius, bottom + 1, top - 1, action);
+        return looked;
+    }
+
+    private long visitRow(long cellY, long fromX, long toX, IntConsumer action) {
+        if (cellY < minCellY || cellY > maxCellY) {
+            return 0;
+        }
+
+        long from = Math.max(fromX, minCellX);
+        long to = Math.min(toX, maxCellX);
+        for (long cellX = from; cellX <= to; cellX++) {
+            visit((int) cellX, (int) cellY, action);
+        }
+
+        return Math.max(0, to - from + 1);
+    }
+
+    private long visitColumn(long cellX, long fromY, long toY, IntConsumer action) {
+        if (cellX < minCellX || cellX > maxCellX) {
+            return 0;
+        }
+
+        long from = Math.max(fromY, minCellY);
+        long to = Math.min(toY, maxCellY);
+        for (long cellY = from; cellY <= to; cellY++) {
+            visit((int) cellX, (int) cellY, action);
+        }
+
+        return Math.max(0, to - from + 1);
+    }
+
+    private void visit(int cellX, int cellY, IntConsumer action) {
+        int cell = cells.find(cellX, cellY);
+        if (cell >= 0) {
+            action.accept(cell);
+        }
+    }
+
+    /**
+     * Method to get distance from point to the nearest point outside of cells around its cell
+     * @param x of point
+     * @param y of point
+     * @param radius of square around point's cell in cells
+     * @return distance
+     */
+    private long distanceOutside(int x, int y, int radius) {
+        long left = x - (((long) (x >> cellShift) - radius) << cellShift);
+        long right = (((long) (x >> cellShift) + radius + 1) << cellShift) - x;
+        long bottom = y - (((long) (y >> cellShift) - radius) << cellShift);
+        long top = (((long) (y >> cellShift) + radius + 1) << cellShift) - y;
+        return Math.min(Math.min(left, right), Math.min(bottom, top));
+    }
+
+    private void put(int id, int x, int y) {
+        cells.add(cellOf(x, y), id, x, y);
+    }
+
+    /**
+     * Method to get number of cell, which point falls into, cell is created, if it is empty
+     * @param x of point
+     * @param y of point
+     * @return number of cell
+     */
+    private int cellOf(int x, int y) {
+        int cellX = x >> cellShift;
+        int cellY = y >> cellShift;
+        int cell = cells.find(cellX, cellY);
+        if (cell < 0) {
+            cell = cells.create(cellX, cellY);
+            columns.add(cellX);
+            rows.add(cellY);
+            minCellX = Math.min(minCellX, cellX);
+            maxCellX = Math.max(maxCellX, cellX);
+            minCellY = Math.min(minCellY, cellY);
+            maxCellY = Math.max(maxCellY, cellY);
+        }
+
+        return cell;
+    }
+
+    /**
+     * Method to move all vehicles to grid with other size of cells, or with the same size,
+     * when released slices take too much room. Vehicles of every new cell are counted first,
+     * so every cell gets slice of its size at once and no slice is released on the way
+     * @param newCellShift logarithm of new size of cells
+     */
+    private void rebuild(int newCellShift) {
+        Cells oldCells = cells;
+        cells = new Cells();
+        cellShift = newCellShift;
+        resetBounds();
+        for (int cell = 0; cell < oldCells.end; cell++) {
+            int from = oldCells.offsets[cell];
+            for (int i = from; i < from + oldCells.sizes[cell]; i++) {
+                int newCell = cellOf(oldCells.xs[i], oldCells.ys[i]);
+                cells.sizes[newCell]++;
+            }
+        }
+
+        cells.reserveCounted();
+        for (int cell = 0; cell < oldCells.end; cell++) {
+            int from = oldCells.offsets[cell];
+            for (int i = from; i < from + oldCells.sizes[cell]; i++) {
+                put(oldCells.ids[i], oldCells.xs[i], oldCells.ys[i]);
+            }
+        }
+    }
+
+    /**
+     * Method to move bounds of grid to the outermost non-empty cells
+     */
+    private void updateBounds() {
+        minCellX = columns.min();
+        maxCellX = columns.max();
+        minCellY = rows.min();
+        maxCellY = rows.max();
+    }
+
+    private void resetBounds() {
+        columns.clear();
+        rows.clear();
+        minCellX = Integer.MAX_VALUE;
+        maxCellX = Integer.MIN_VALUE;
+        minCellY = Integer.MAX_VALUE;
+        maxCellY = Integer.MIN_VALUE;
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+
+    /**
+     * Cells of grid in primitive arrays. Every cell is numbered, and ids and coordinates of its vehicles
+     * lie in one slice of shared entry arrays. Slices are sized by powers of two and released slices
+     * are reused by cells of the same size class, numbers of deleted cells are reused too.
+     * New cell gets its slice with the first vehicle, and deleted cell has size 0,
+     * so walking through numbers skips deleted cells
+     */
+    private static class Cells {
+        private static final int MIN_CELLS = 16;
+        private static final int MIN_ENTRIES = 64;
+        private static final int SIZE_CLASSES = 32;
+
+        private final LongIntHashMap numbers = new LongIntHashMap();
+        private int[] cellXs = new int[MIN_CELLS];
+        private int[] cellYs = new int[MIN_CELLS];
+        private int[] offsets = new int[MIN_CELLS];
+        private int[] capacities = new int[MIN_CELLS];
+        private int[] sizes = new int[MIN_CELLS];
+        private int end;
+        private int[] freeNumbers = new int[MIN_CELLS];
+        private int freeNumberCount;
+        private int[] ids = new int[MIN_ENTRIES];
+        private int[] xs = new int[MIN_ENTRIES];
+        private int[] ys = new int[MIN_ENTRIES];
+        private int entryEnd;
+        /**
+         * Heads of lists of released slices by logarithm of capacity, next slice's offset is kept in ids of slice
+         */
+        private final int[] freeSlices = new int[SIZE_CLASSES];
+        private long reserved;
+
+        private Cells() {
+            Arrays.fill(freeSlices, -1);
+        }
+
+        private int count() {
+            return numbers.size();
+        }
+
+        /**
+         * Method to find number of cell
+         * @param cellX of cell
+         * @param cellY of cell
+         * @return number of cell or -1, if cell is empty
+         */
+        private int find(int cellX, int cellY) {
+            return numbers.get(key(cellX, cellY));
+        }
+
+        private int create(int cellX, int cellY) {
+            int cell;
+            if (freeNumberCount > 0) {
+                cell = freeNumbers[--freeNumberCount];
+            } else {
+                if (end == cellXs.length) {
+                    int capacity = end * 2;
+                    cellXs = Arrays.copyOf(cellXs, capacity);
+                    cellYs = Arrays.copyOf(cellYs, capacity);
+                    offsets = Arrays.copyOf(offsets, capacity);
+                    capacities = Arrays.copyOf(capacities, capacity);
+                    sizes = Arrays.copyOf(sizes, capacity);
+                }
+
+                cell = end++;
+            }
+
+            cellXs[cell] = cellX;
+            cellYs[cell] = cellY;
+            capacities[cell] = 0;
+            sizes[cell] = 0;
+            numbers.put(key(cellX, cellY), cell);
+            return cell;
+        }
+
+        /**
+         * Method to delete empty cell and release its slice
+         * @param cell number of cell
+         */
+        private void delete(int cell) {
+            numbers.remove(key(cellXs[cell], cellYs[cell]));
+            if (capacities[cell] > 0) {
+                release(offsets[cell], capacities[cell]);
+            }
+
+            capacities[cell] = 0;
+            if (freeNumberCount == freeNumbers.length) {
+                freeNumbers = Arrays.copyOf(freeNumbers, freeNumberCount * 2);
+            }
+
+            freeNumbers[freeNumberCount++] = cell;
+        }
+
+        private void add(int cell, int id, int x, int y) {
+            if (sizes[cell] == capacities[cell]) {
+                resize(cell, Math.max(capacities[cell] * 2, MIN_CELL_CAPACITY));
+            }
+
+            int i = offsets[cell] + sizes[cell]++;
+            ids[i] = id;
+            xs[i] = x;
+            ys[i] = y;
+        }
+
+        private boolean remove(int cell, int id) {
+            int from = offsets[cell];
+            int last = from + sizes[cell] - 1;
+            for (int i = from; i <= last; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[last];
+                    xs[i] = xs[last];
+                    ys[i] = ys[last];
+                    sizes[cell]--;
+                    if (sizes[cell] < capacities[cell] / 4 && capacities[cell] > MIN_CELL_CAPACITY) {
+                        resize(cell, capacities[cell] / 2);
+                    }
+
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Method to check, whether released slices take more room than slices of cells
+         * @return true if entries should be packed again
+         */
+        private boolean isWasteful() {
+            return entryEnd > MIN_ENTRIES && entryEnd > 2 * reserved;
+        }
+
+        private void forEachWithin(int cell, int left, int bottom, int right, int top, IntConsumer action) {
+            int from = offsets[cell];
+            for (int i = from; i < from + sizes[cell]; i++) {
+                if (xs[i] >= left && xs[i] <= right && ys[i] >= bottom && ys[i] <= top) {
+                    action.accept(ids[i]);
+                }
+            }
+        }
+
+        private void offerTo(int cell, Candidates candidates, int x, int y) {
+            int from = offsets[cell];
+            for (int i = from; i < from + sizes[cell]; i++) {
+                candidates.offer(square((double) xs[i] - x) + square((double) ys[i] - y), ids[i]);
+            }
+        }
+
+        /**
+         * Method to give every cell slice for count of vehicles, which is kept in its size, and empty it
+         */
+        private void reserveCounted() {
+            for (int cell = 0; cell < end; cell++) {
+                int capacity = Integer.highestOneBit(Math.max(sizes[cell], MIN_CELL_CAPACITY) - 1) << 1;
+                offsets[cell] = allocate(capacity);
+                capacities[cell] = capacity;
+                sizes[cell] = 0;
+            }
+        }
+
+        private void resize(int cell, int capacity) {
+            int offset = allocate(capacity);
+            if (capacities[cell] > 0) {
+                System.arraycopy(ids, offsets[cell], ids, offset, sizes[cell]);
+                System.arraycopy(xs, offsets[cell], xs, offset, sizes[cell]);
+                System.arraycopy(ys, offsets[cell], ys, offset, sizes[cell]);
+                release(offsets[cell], capacities[cell]);
+            }
+
+            offsets[cell] = offset;
+            capacities[cell] = capacity;
+        }
+
+        /**
+         * Method to take slice of entries, released slice of the same size is taken first
+         * @param capacity of slice, power of two
+         * @return offset of slice
+         */
+        private int allocate(int capacity) {
+            reserved += capacity;
+            int sizeClass = Integer.numberOfTrailingZeros(capacity);
+            int offset = freeSlices[sizeClass];
+            if (offset >= 0) {
+                freeSlices[sizeClass] = ids[offset];
+                return offset;
+            }
+
+            if (entryEnd + capacity > ids.length) {
+                int length = Math.max(ids.length * 2, entryEnd + capacity);
+                ids = Arrays.copyOf(ids, length);
+                xs = Arrays.copyOf(xs, length);
+                ys = Arrays.copyOf(ys, length);
+            }
+
+            offset = entryEnd;
+            entryEnd += capacity;
+            return offset;
+        }
+
+        private void release(int offset, int capacity) {
+            reserved -= capacity;
+            int sizeClass = Integer.numberOfTrailingZeros(capacity);
+            ids[offset] = freeSlices[sizeClass];
+            freeSlices[sizeClass] = offset;
+        }
+    }
+
+    /**
+     * Coordinates of non-empty cells along one axis with count of cells in each of them,
+     * so the outermost coordinate is known after the last cell at the border is removed
+     */
+    private static class Axis {
+        private final IntIntHashMap counts = new IntIntHashMap();
+        private final SortedIntTree coordinates = new SortedIntTree();
+
+        private void add(int coordinate) {
+            int count = counts.get(coordinate);
+            if (count < 0) {
+                coordinates.add(coordinate);
+                count = 0;
+            }
+
+            counts.put(coordinate, count + 1);
+        }
+
+        private void remove(int coordinate) {
+            int count = counts.get(coordinate);
+            if (count == 1) {
+                counts.remove(coordinate);
+                coordinates.remove(coordinate);
+            } else {
+                counts.put(coordinate, count - 1);
+            }
+        }
+
+        private int min() {
+            return coordinates.isEmpty() ? Integer.MAX_VALUE : coordinates.get(0);
+        }
+
+        private int max() {
+            return coordinates.isEmpty() ? Integer.MIN_VALUE : coordinates.get(coordinates.size() - 1);
+        }
+
+        private void clear() {
+            counts.clear();
+            coordinates.clear();
+        }
+    }
+
+    /**
+     * Bounded max-heap of the nearest found vehicles, the farthest one is on top
+     */
+    private static class Candidates {
+        private final int capacity;
+        private final double[] distances;
+        private final int[] ids;
+        private int size;
+
+        private Candidates(int capacity) {
+            this.capacity = capacity;
+            this.distances = new double[capacity];
+            this.ids = new int[capacity];
+        }
+
+        private boolean isFull() {
+            return size == capacity;
+        }
+
+        /**
+         * Method to get squared distance to the farthest candidate
+         * @return squared distance
+         */
+        private double farthest() {
+            return distances[0];
+        }
+
+        private void offer(double distance, int id) {
+            if (size < capacity) {
+                distances[size] = distance;
+                ids[size] = id;
+                siftUp(size++);
+            } else if (isCloser(distance, id, 0)) {
+                distances[0] = distance;
+                ids[0] = id;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Method to get ids of candidates from the nearest one
+         * @return ids
+         */
+        private int[] sortedIds() {
+            int[] result = new int[size];
+            while (size > 0) {
+                result[size - 1] = ids[0];
+                size--;
+                distances[0] = distances[size];
+                ids[0] = ids[size];
+                siftDown(0);
+            }
+
+            return result;
+        }
+
+        private boolean isCloser(double distance, int id, int index) {
+            return distance < distances[index] || (distance == distances[index] && id < ids[index]);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!isCloser(distances[parent], ids[parent], index)) {
+                    return;
+                }
+
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int largest = index;
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                    if (isCloser(distances[largest], ids[largest], child)) {
+                        largest = child;
+                    }
+                }
+
+                if (largest == index) {
+                    return;
+                }
+
+                swap(index, largest);
+                index = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            double distance = distances[i];
+            distances[i] = distances[j];
+            distances[j] = distance;
+            int id = ids[i];
+            ids[i] = ids[j];
+            ids[j] = id;
+        }
+    }
+}
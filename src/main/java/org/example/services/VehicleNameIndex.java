@@ -0,0 +1,251 @@
+package org.example.services;
+
+import org.example.collections.SortedIntTree;
+import org.example.models.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Index of vehicle's names. Distinct names are kept sorted with ids of their vehicles,
+ * so names with prefix are one range of keys. Every distinct name gets number, and every part
+ * of 1, 2 and 3 chars leads to numbers of names, which contain it, so substring is looked for only among
+ * names with its rarest part instead of the whole collection, and short substring is found by its own list.
+ * Name with one vehicle keeps its id inline, tree of ids is made only for the second vehicle.
+ * Numbers of removed names are left in lists of parts and skipped, until there are more removed
+ * names than alive ones, then lists are built again
+ */
+public class VehicleNameIndex implements NameIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int MIN_CAPACITY = 16;
+    /**
+     * Names of list, which takes more than this part of distinct names, are sorted longer,
+     * than sorted names are walked through
+     */
+    private static final int SCAN_DIVISOR = 8;
+
+    private final NavigableMap<String, Name> byName = new TreeMap<>();
+    private final Map<String, IntList> numbersByGram = new HashMap<>();
+    private String[] namesByNumber = new String[MIN_CAPACITY];
+    private int nextNumber;
+    private int removedNames;
+
+    @Override
+    public void add(Vehicle vehicle) {
+        Name name = byName.get(vehicle.getName());
+        if (name == null) {
+            name = new Name(vehicle.getId());
+            byName.put(vehicle.getName(), name);
+            number(vehicle.getName(), name);
+        } else {
+            name.add(vehicle.getId());
+        }
+    }
+
+    @Override
+    public void remove(Vehicle vehicle) {
+        Name name = byName.get(vehicle.getName());
+        if (name == null || !name.remove(vehicle.getId()) || !name.isEmpty()) {
+            return;
+        }
+
+        byName.remove(vehicle.getName());
+        namesByNumber[name.number] = null;
+        removedNames++;
+        if (removedNames > byName.size() + MIN_CAPACITY) {
+            renumber();
+        }
+    }
+
+    @Override
+    public void clear() {
+        byName.clear();
+        numbersByGram.clear();
+        namesByNumber = new String[MIN_CAPACITY];
+        nextNumber = 0;
+        removedNames = 0;
+    }
+
+    @Override
+    public void forEachWithPrefix(String prefix, IntConsumer action) {
+        for (Map.Entry<String, Name> entry : byName.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+
+            entry.getValue().forEach(action);
+        }
+    }
+
+    /**
+     * Method to walk through ids of vehicles, which names contain part.
+     * Part up to 3 chars is looked for by its own list, longer part by list of its rarest part of 3 chars.
+     * When list holds many of distinct names, sorted names are walked through instead,
+     * and empty part is contained in every name
+     * @param part of name
+     * @param action to perform for each id, ids are ordered by name and then by id
+     */
+    @Override
+    public void forEachContaining(String part, IntConsumer action) {
+        if (part.isEmpty()) {
+            byName.values().forEach(name -> name.forEach(action));
+            return;
+        }
+
+        int gramLength = Math.min(part.length(), GRAM_LENGTH);
+        IntList candidates = null;
+        for (int from = 0; from + gramLength <= part.length(); from++) {
+            IntList numbers = numbersByGram.get(part.substring(from, from + gramLength));
+            if (numbers == null) {
+                return;
+            }
+
+            if (candidates == null || numbers.size < candidates.size) {
+                candidates = numbers;
+            }
+        }
+
+        if (candidates.size > byName.size() / SCAN_DIVISOR) {
+            byName.forEach((text, name) -> {
+                if (text.contains(part)) {
+                    name.forEach(action);
+                }
+            });
+            return;
+        }
+
+        List<String> found = new ArrayList<>();
+        for (int i = 0; i < candidates.size; i++) {
+            String name = namesByNumber[candidates.values[i]];
+            if (name != null && name.contains(part)) {
+                found.add(name);
+            }
+        }
+
+        found.sort(null);
+        found.forEach(name -> byName.get(name).forEach(action));
+    }
+
+    /**
+     * Method to give next number to name and add it to lists of its parts.
+     * Numbers only grow, so repeated part of the same name is found at the end of its list
+     * @param text of name
+     * @param name to give number
+     */
+    private void number(String text, Name name) {
+        if (nextNumber == namesByNumber.length) {
+            namesByNumber = Arrays.copyOf(namesByNumber, nextNumber * 2);
+        }
+
+        name.number = nextNumber++;
+        namesByNumber[name.number] = text;
+        for (int gramLength = 1; gramLength <= GRAM_LENGTH; gramLength++) {
+            for (int from = 0; from + gramLength <= text.length(); from++) {
+                IntList numbers = numbersByGram.computeIfAbsent(
+                        text.substring(from, from + gramLength), key -> new IntList()
+                );
+                if (numbers.size == 0 || numbers.values[numbers.size - 1] != name.number) {
+                    numbers.add(name.number);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to build lists of parts again only with alive names
+     */
+    private void renumber() {
+        numbersByGram.clear();
+        namesByNumber = new String[Math.max(MIN_CAPACITY, byName.size())];
+        nextNumber = 0;
+        removedNames = 0;
+        byName.forEach(this::number);
+    }
+
+    /**
+     * Distinct name with ids of its vehicles. The only id is kept inline, and tree is made for the second id
+     * and dropped again, when one id is left. Name without ids is removed from index at once
+     */
+    private static class Name {
+        private int number;
+        private int id;
+        private int count = 1;
+        private SortedIntTree ids;
+
+        private Name(int id) {
+            this.id = id;
+        }
+
+        private void add(int newId) {
+            if (ids == null) {
+                if (id == newId) {
+                    return;
+                }
+
+                ids = new SortedIntTree();
+                ids.add(id);
+            }
+
+            if (ids.add(newId)) {
+                count++;
+            }
+        }
+
+        private boolean remove(int oldId) {
+            if (ids == null) {
+                if (count == 0 || id != oldId) {
+                    return false;
+                }
+
+                count = 0;
+                return true;
+            }
+
+            if (!ids.remove(oldId)) {
+                return false;
+            }
+
+            count--;
+            if (count == 1) {
+                id = ids.get(0);
+                ids = null;
+            }
+
+            return true;
+        }
+
+        private boolean isEmpty() {
+            return count == 0;
+        }
+
+        private void forEach(IntConsumer action) {
+            if (ids != null) {
+                ids.forEach(action);
+            } else if (count == 1) {
+                action.accept(id);
+            }
+        }
+    }
+
+    /**
+     * Growing list of ints
+     */
+    private static class IntList {
+        private int[] values = new int[1];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.services;
+
+import org.example.collections.SortedIntTree;
+import org.example.enums.FuelType;
+import org.example.models.Vehicle;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Index of vehicle's ids in the order, which is defined by {@link Vehicle#compareTo}:
+ * by fuel's type first and by id then. Every fuel's type has its own sorted partition,
+ * so ranges of greater or lower vehicles are cut without comparing every element
+ */
+public class VehicleOrderIndex {
+    private static final int FUEL_TYPES_COUNT = FuelType.values().length;
+
+    private final Map<FuelType, SortedIntTree> partitions = new EnumMap<>(FuelType.class);
+
+    public VehicleOrderIndex() {
+        for (FuelType fuelType : FuelType.values()) {
+            partitions.put(fuelType, new SortedIntTree());
+        }
+    }
+
+    public void add(Vehicle vehicle) {
+        partitions.get(vehicle.getFuelType()).add(vehicle.getId());
+    }
+
+    public void remove(Vehicle vehicle) {
+        partitions.get(vehicle.getFuelType()).remove(vehicle.getId());
+    }
+
+    /**
+     * Method to move id to partition of new fuel's type, nothing is done, if fuel's type isn't changed
+     * @param id of vehicle
+     * @param oldFuelType fuel's type, by which id is indexed now
+     * @param newFuelType current fuel's type of vehicle
+     */
+    public void move(int id, FuelType oldFuelType, FuelType newFuelType) {
+        if (oldFuelType != newFuelType) {
+            partitions.get(oldFuelType).remove(id);
+            partitions.get(newFuelType).add(id);
+        }
+    }
+
+    /**
+     * Method to add many vehicles with one merge pass over every partition
+     * @param vehicles to add
+     */
+    public void addAll(Collection<Vehicle> vehicles) {
+        forEachPartition(vehicles, SortedIntTree::addAll);
+    }
+
+    /**
+     * Method to remove many vehicles with one merge pass over every partition
+     * @param vehicles to remove
+     */
+    public void removeAll(Collection<Vehicle> vehicles) {
+        forEachPartition(vehicles, SortedIntTree::removeAll);
+    }
+
+    public void clear() {
+        partitions.values().forEach(SortedIntTree::clear);
+    }
+
+    /**
+     * Method to cut ids of all vehicles, which are greater than given one
+     * @param vehicle to compare with
+     * @param removedIds receives every cut id
+     */
+    public void cutGreater(Vehicle vehicle, IntConsumer removedIds) {
+        SortedIntTree partition = partitions.get(vehicle.getFuelType());
+        int from = partition.upperBound(vehicle.getId());
+        partition.forEach(from, partition.size(), removedIds);
+        partition.removeRange(from, partition.size());
+
+        for (int rank = vehicle.getFuelType().getRank() + 1; rank < FUEL_TYPES_COUNT; rank++) {
+            SortedIntTree greaterPartition = partitions.get(FuelType.byRank(rank));
+            greaterPartition.forEach(removedIds);
+            greaterPartition.clear();
+        }
+    }
+
+    /**
+     * Method to cut ids of all vehicles, which are lower than given one
+     * @param vehicle to compare with
+     * @param removedIds receives every cut id
+     */
+    public void cutLower(Vehicle vehicle, IntConsumer removedIds) {
+        for (int rank = 0; rank < vehicle.getFuelType().getRank(); rank++) {
+            SortedIntTree lowerPartition = partitions.get(FuelType.byRank(rank));
+            lowerPartition.forEach(removedIds);
+            lowerPartition.clear();
+        }
+
+        SortedIntTree partition = partitions.get(vehicle.getFuelType());
+        int to = partition.lowerBound(vehicle.getId());
+        partition.forEach(0, to, removedIds);
+        partition.removeRange(0, to);
+    }
+
+    /**
+     * Method to walk through ids of vehicles, which fuel's type is less than given one
+     * @param fuelType to compare with
+     * @param action to perform for each id
+     */
+    public void forEachLessThanFuelType(FuelType fuelType, IntConsumer action) {
+        for (int rank = 0; rank < fuelType.getRank(); rank++) {
+            partitions.get(FuelType.byRank(rank)).forEach(action);
+        }
+    }
+
+    /**
+     * Method to count vehicles, which fuel's type is less than given one
+     * @param fuelType to compare with
+     * @return count of vehicles
+     */
+    public int countLessThanFuelType(FuelType fuelType) {
+        int count = 0;
+        for (int rank = 0; rank < fuelType.getRank(); rank++) {
+            count += partitions.get(FuelType.byRank(rank)).size();
+        }
+
+        return count;
+    }
+
+    /**
+     * Method to walk through ids from the greatest vehicle to the lowest one
+     * @param action to perform for each id
+     */
+    public void forEachDescending(IntConsumer action) {
+        forEachDescending(0, Integer.MAX_VALUE, action);
+    }
+
+    /**
+     * Method to walk through page of ids from the greatest vehicle to the lowest one.
+     * Skipped partitions are passed by their sizes, so only ids of the page are touched
+     * @param offset count of the greatest ids to skip
+     * @param limit maximal count of ids to walk through
+     * @param action to perform for each id
+     */
+    public void forEachDescending(int offset, int limit, IntConsumer action) {
+        for (int rank = FUEL_TYPES_COUNT - 1; rank >= 0 && limit > 0; rank--) {
+            SortedIntTree partition = partitions.get(FuelType.byRank(rank));
+            int to = partition.size() - offset;
+            if (to <= 0) {
+                offset = -to;
+                continue;
+            }
+
+            int from = Math.max(0, to - limit);
+            partition.forEachDescending(from, to, action);
+            limit -= to - from;
+            offset = 0;
+        }
+    }
+
+    /**
+     * Method to split ids of vehicles by fuel's type and pass them sorted to their partitions
+     * @param vehicles to split
+     * @param action to perform for each partition and its sorted ids
+     */
+    private void forEachPartition(Collection<Vehicle> vehicles, BiConsumer<SortedIntTree, int[]> action) {
+        int[] counts = new int[FUEL_TYPES_COUNT];
+        for (Vehicle vehicle : vehicles) {
+            counts[vehicle.getFuelType().getRank()]++;
+        }
+
+        int[][] ids = new int[FUEL_TYPES_COUNT][];
+        for (int rank = 0; rank < FUEL_TYPES_COUNT; rank++) {
+            ids[rank] = new int[counts[rank]];
+            counts[rank] = 0;
+        }
+
+        for (Vehicle vehicle : vehicles) {
+            int rank = vehicle.getFuelType().getRank();
+            ids[rank][counts[rank]++] = vehicle.getId();
+        }
+
+        for (int rank = 0; rank < FUEL_TYPES_COUNT; rank++) {
+            Arrays.sort(ids[rank]);
+            action.accept(partitions.get(FuelType.byRank(rank)), ids[rank]);
+        }
+    }
+}
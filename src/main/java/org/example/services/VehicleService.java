@@ -1,75 +1,233 @@
 package org.example.services;
 
 import org.example.enums.FuelType;
+import org.example.enums.StorageType;
+import org.example.metrics.BulkRemoveEvent;
 import org.example.models.Vehicle;
-import org.example.repositories.VehicleJSONRepository;
+import org.example.models.VehicleValueCache;
+import org.example.repositories.VehicleRepository;
+import org.example.statistics.EnginePowerStatistics;
 
 import java.io.IOException;
 import java.time.LocalDate;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Service for working with vehicles
  */
 public class VehicleService {
-    private final ArrayDeque<Vehicle> collection;
-    private final VehicleJSONRepository repository;
+    private final VehicleStorage collection;
+    private final VehicleOrderIndex orderIndex = new VehicleOrderIndex();
+    private final VehicleGridIndex gridIndex = new VehicleGridIndex();
+    private final NameIndex nameIndex;
+    private final EnginePowerStatistics statistics = new EnginePowerStatistics();
+    private final VehicleValueCache cache = VehicleValueCache.global();
+    private final VehicleRepository repository;
     private final LocalDate initializedDate;
 
     public VehicleService(
-            ArrayDeque<Vehicle> collection,
-            VehicleJSONRepository repository
+            Collection<Vehicle> collection,
+            VehicleRepository repository
+    ) {
+        this(collection, repository, StorageType.OBJECTS);
+    }
+
+    public VehicleService(
+            Collection<Vehicle> collection,
+            VehicleRepository repository,
+            StorageType storageType
+    ) {
+        this(storageOf(collection, storageType), repository);
+    }
+
+    /**
+     * Constructor for service over storage, which is already filled, only indexes are built.
+     * Storage outside of heap gets name index, which keeps ids by parts of names and compares names in its arena,
+     * so heap doesn't keep copies of names
+     * @param collection filled storage
+     * @param repository where changes are saved
+     */
+    public VehicleService(
+            VehicleStorage collection,
+            VehicleRepository repository
     ) {
         this.collection = collection;
         this.repository = repository;
+        this.nameIndex = collection instanceof OffHeapVehicleStorage offHeapStorage
+                ? new OffHeapNameIndex(offHeapStorage)
+                : new VehicleNameIndex();
+
         this.initializedDate = LocalDate.now();
 
-        int maxInd = 0;
-        for (Vehicle vehicle : collection) {
-            maxInd = Math.max(maxInd, vehicle.getId() + 1);
-        }
+        int[] maxInd = {0};
+        collection.forEach(vehicle -> {
+            index(vehicle);
+            maxInd[0] = Math.max(maxInd[0], vehicle.getId() + 1);
+        });
 
-        Vehicle.setNextId(maxInd);
+        Vehicle.setNextId(maxInd[0]);
     }
 
     /**
-     * Method to add new vehicle to collection
+     * Method to add new vehicle to collection, its name and coordinates are replaced with cached ones
      * @param vehicle is new element
      */
     public void add(Vehicle vehicle) {
+        cache.canonicalize(vehicle);
         collection.add(vehicle);
+        index(vehicle);
+        repository.logPut(List.of(vehicle));
+    }
 
+    /**
+     * Method to add many vehicles at once, indexes are merged in one pass and journal gets one record
+     * @param vehicles are new elements
+     */
+    public void addAll(Collection<Vehicle> vehicles) {
+        vehicles.forEach(cache::canonicalize);
+        collection.addAll(vehicles);
+        orderIndex.addAll(vehicles);
+        gridIndex.addAll(vehicles);
+        nameIndex.addAll(vehicles);
+        vehicles.forEach(vehicle -> statistics.add(vehicle.getEnginePower()));
+        repository.logPut(vehicles);
     }
 
     /**
-     * Method to remove vehicle from collection by id
-     * @param id is id of vehicle to remove
+     * Method to change vehicle from collection by id. Changes are applied to copy of vehicle,
+     * which replaces it in storage, so vehicle, which was already given to reader, is never changed.
+     * If changes fail, copy is dropped, so collection, indexes and journal keep stored vehicle
+     * @param id is id of vehicle to change
+     * @param changes to apply to vehicle
      */
-    public void removeById(Integer id) {
-        boolean vehicleWasFound = false;
-        for (Vehicle vehicle : collection) {
-            if (vehicle.getId().equals(id)) {
-                collection.remove(vehicle);
-                vehicleWasFound = true;
-                break;
-            }
+    public void update(int id, Consumer<Vehicle> changes) {
+        Vehicle stored = getById(id);
+        Vehicle vehicle = stored.copy();
+        changes.accept(vehicle);
+        cache.canonicalize(vehicle);
+        unindexFields(stored);
+        collection.update(vehicle);
+        orderIndex.move(id, stored.getFuelType(), vehicle.getFuelType());
+        indexFields(vehicle);
+        repository.logPut(List.of(vehicle));
+    }
+
+    /**
+     * Method to apply the same changes to many vehicles, as in {@link #update} changes are applied to copies.
+     * Nothing is changed, if some id isn't found or changes fail for some vehicle
+     * @param ids of vehicles to change
+     * @param changes to apply to every vehicle
+     */
+    public void updateAll(Set<Integer> ids, Consumer<Vehicle> changes) {
+        List<Vehicle> stored = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            stored.add(getById(id));
+        }
+
+        List<Vehicle> vehicles = new ArrayList<>(stored.size());
+        stored.forEach(vehicle -> vehicles.add(vehicle.copy()));
+        vehicles.forEach(changes);
+        vehicles.forEach(cache::canonicalize);
+        gridIndex.removeAll(stored);
+        nameIndex.removeAll(stored);
+        stored.forEach(vehicle -> statistics.remove(vehicle.getEnginePower()));
+        vehicles.forEach(collection::update);
+        for (int i = 0; i < vehicles.size(); i++) {
+            Vehicle vehicle = vehicles.get(i);
+            orderIndex.move(vehicle.getId(), stored.get(i).getFuelType(), vehicle.getFuelType());
         }
 
-        if (!vehicleWasFound) {
+        gridIndex.addAll(vehicles);
+        nameIndex.addAll(vehicles);
+        vehicles.forEach(vehicle -> statistics.add(vehicle.getEnginePower()));
+        repository.logPut(vehicles);
+    }
+
+    /**
+     * Method to remove vehicle from collection by id
+     * @param id is id of vehicle to remove
+     */
+    public void removeById(int id) {
+        Vehicle vehicle = collection.remove(id);
+        if (vehicle == null) {
             throw new IllegalArgumentException(
-                    "Collection doesn't exists vehicle with id = " + id.toString()
+                    "Collection doesn't exists vehicle with id = " + id
             );
         }
+
+        unindex(vehicle);
+        repository.logRemove(List.of(vehicle));
+    }
+
+    /**
+     * Method to remove all vehicles, which match filter, in one pass over collection
+     * @param filter which vehicles to remove
+     * @return count of removed vehicles
+     */
+    public int removeIf(Predicate<? super Vehicle> filter) {
+        List<Vehicle> removed = new ArrayList<>();
+        BulkRemoveEvent event = new BulkRemoveEvent();
+        event.begin();
+        try {
+            collection.removeIf(filter, removed::add);
+        } finally {
+            event.commitIfLarge("removeIf", removed.size());
+            unindexRemoved(removed);
+        }
+
+        return removed.size();
+    }
+
+    /**
+     * Method to remove vehicles by ids, every vehicle is found by its id, so collection isn't scanned.
+     * Ids, which collection doesn't contain, are skipped
+     * @param ids of vehicles to remove
+     * @return count of removed vehicles
+     */
+    public int removeAll(Set<Integer> ids) {
+        List<Vehicle> removed = new ArrayList<>(ids.size());
+        BulkRemoveEvent event = new BulkRemoveEvent();
+        event.begin();
+        try {
+            for (int id : ids) {
+                Vehicle vehicle = collection.remove(id);
+                if (vehicle != null) {
+                    removed.add(vehicle);
+                }
+            }
+        } finally {
+            event.commitIfLarge("removeAll", removed.size());
+            unindexRemoved(removed);
+        }
+
+        return removed.size();
     }
 
     /**
-     * Method to clean collection
+     * Method to clean collection. Counter of ids isn't reset, because vehicles get ids in constructor
+     * outside of service, so vehicle created during clear could get id, which is given again later
      */
     public void clear() {
-        Vehicle.setNextId(0);
+        BulkRemoveEvent event = new BulkRemoveEvent();
+        event.begin();
+        int removed = collection.size();
         collection.clear();
+        orderIndex.clear();
+        gridIndex.clear();
+        nameIndex.clear();
+        statistics.clear();
+        event.commitIfLarge("clear", removed);
+        repository.logClear();
     }
 
     /**
@@ -86,14 +244,13 @@ public class VehicleService {
      */
     public void removeGreater(Vehicle vehicle) {
         List<Vehicle> vehiclesToRemove = new ArrayList<>();
-        collection.forEach(currVehicle -> {
-            if (currVehicle.compareTo(vehicle) > 0) {
-                vehiclesToRemove.add(currVehicle);
-            }
-        });
-
-        vehiclesToRemove.forEach(collection::remove);
-        vehiclesToRemove.clear();
+        BulkRemoveEvent event = new BulkRemoveEvent();
+        event.begin();
+        orderIndex.cutGreater(vehicle, id -> vehiclesToRemove.add(removeCut(id)));
+        event.commitIfLarge("removeGreater", vehiclesToRemove.size());
+        if (!vehiclesToRemove.isEmpty()) {
+            repository.logRemove(vehiclesToRemove);
+        }
     }
 
     /**
@@ -102,65 +259,256 @@ public class VehicleService {
      */
     public void removeLower(Vehicle vehicle) {
         List<Vehicle> vehiclesToRemove = new ArrayList<>();
-        collection.forEach(currVehicle -> {
-            if (currVehicle.compareTo(vehicle) < 0) {
-                vehiclesToRemove.add(currVehicle);
-            }
-        });
-
-        vehiclesToRemove.forEach(collection::remove);
-        vehiclesToRemove.clear();
+        BulkRemoveEvent event = new BulkRemoveEvent();
+        event.begin();
+        orderIndex.cutLower(vehicle, id -> vehiclesToRemove.add(removeCut(id)));
+        event.commitIfLarge("removeLower", vehiclesToRemove.size());
+        if (!vehiclesToRemove.isEmpty()) {
+            repository.logRemove(vehiclesToRemove);
+        }
     }
 
     /**
-     * Method to get average value of engine powers
-     * @return average value
+     * Method to get average value of engine powers from statistics without copying them
+     * @return average value or empty, if collection is empty
      */
-    public double averageOfEnginePower() {
-        int sumEnginePower = 0;
-        for (Vehicle vehicle : collection) {
-            sumEnginePower += vehicle.getEnginePower();
-        }
+    public OptionalDouble averageOfEnginePower() {
+        return statistics.getCount() == 0 ? OptionalDouble.empty() : OptionalDouble.of(statistics.getAverage());
+    }
 
-        return (double) sumEnginePower / collection.size();
+    /**
+     * Method to get statistics of engine powers, which is kept up to date on every change
+     * @return statistics
+     */
+    public EnginePowerStatistics getEnginePowerStatistics() {
+        return statistics;
     }
 
     /**
-     * Method to get collection of vehicles, which have fuel's type, which is less than input
+     * Method to get collection of vehicles, which have fuel's type, which is less than input.
+     * Vehicles are taken from fuel's type partitions without comparing every element
      * @param fuelType is input fuel's type
      * @return filtered collection
      */
     public List<Vehicle> filterLessThanFuelType(FuelType fuelType) {
-        List<Vehicle> filteredCollection = new ArrayList<>();
-        collection.forEach(vehicle -> {
-            if (vehicle.compareByFuelTypeTo(fuelType) < 0) {
-                filteredCollection.add(vehicle);
-            }
-        });
+        List<Vehicle> filteredCollection = new ArrayList<>(orderIndex.countLessThanFuelType(fuelType));
+        orderIndex.forEachLessThanFuelType(fuelType, id -> filteredCollection.add(collection.get(id)));
 
         return filteredCollection;
     }
 
+    /**
+     * Method to get vehicles, which coordinates are inside rectangle, borders are included.
+     * Only cells of grid index, which cross rectangle, are visited
+     * @param x1 one border by x
+     * @param y1 one border by y
+     * @param x2 other border by x
+     * @param y2 other border by y
+     * @return vehicles ordered by id
+     */
+    public List<Vehicle> within(int x1, int y1, int x2, int y2) {
+        List<Vehicle> vehicles = new ArrayList<>();
+        gridIndex.forEachWithin(x1, y1, x2, y2, id -> vehicles.add(collection.get(id)));
+        vehicles.sort(Comparator.comparingInt(Vehicle::getId));
+        return vehicles;
+    }
+
+    /**
+     * Method to get vehicles, which are the nearest to point, by grid index
+     * @param x of point
+     * @param y of point
+     * @param count how many vehicles to get
+     * @return vehicles from the nearest one, vehicles at the same distance are ordered by id
+     */
+    public List<Vehicle> nearest(int x, int y, int count) {
+        int[] ids = gridIndex.nearest(x, y, count);
+        List<Vehicle> vehicles = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            vehicles.add(collection.get(id));
+        }
+
+        return vehicles;
+    }
+
+    /**
+     * Method to get vehicles, which names start with prefix, by name index
+     * @param prefix of name
+     * @return vehicles ordered by name and then by id
+     */
+    public List<Vehicle> findByNamePrefix(String prefix) {
+        List<Vehicle> vehicles = new ArrayList<>();
+        nameIndex.forEachWithPrefix(prefix, id -> vehicles.add(collection.get(id)));
+        return vehicles;
+    }
+
+    /**
+     * Method to get vehicles, which names contain part, by name index
+     * @param part of name
+     * @return vehicles ordered by name and then by id
+     */
+    public List<Vehicle> findByNameContaining(String part) {
+        List<Vehicle> vehicles = new ArrayList<>();
+        nameIndex.forEachContaining(part, id -> vehicles.add(collection.get(id)));
+        return vehicles;
+    }
+
     /**
      * Method to return vehicle from collection by id
      * @param id is vehicle's id
      * @return vehicle
      */
-    public Vehicle getById(Integer id) {
-        for (Vehicle vehicle : collection) {
-            if (vehicle.getId().equals(id)) {
-                return vehicle;
-            }
+    public Vehicle getById(int id) {
+        Vehicle vehicle = collection.get(id);
+        if (vehicle == null) {
+            throw new IllegalArgumentException(
+                    "Collection doesn't exists vehicle with id = " + id
+            );
         }
 
-        throw new IllegalArgumentException();
+        return vehicle;
     }
 
+    /**
+     * Method to walk through collection without copying it
+     * @param action to perform for each vehicle
+     */
+    public void forEach(Consumer<? super Vehicle> action) {
+        collection.forEach(action);
+    }
+
+    /**
+     * Method to walk through collection from the greatest vehicle to the lowest one without sorting
+     * @param action to perform for each vehicle
+     */
+    public void forEachDescending(Consumer<? super Vehicle> action) {
+        forEachDescending(0, Integer.MAX_VALUE, action);
+    }
+
+    /**
+     * Method to walk through page of collection from the greatest vehicle to the lowest one without sorting
+     * @param offset count of the greatest vehicles to skip
+     * @param limit maximal count of vehicles to walk through
+     * @param action to perform for each vehicle
+     */
+    public void forEachDescending(int offset, int limit, Consumer<? super Vehicle> action) {
+        orderIndex.forEachDescending(offset, limit, id -> action.accept(collection.get(id)));
+    }
+
+    public int size() {
+        return collection.size();
+    }
+
+    /**
+     * Method to walk through collection by stream without copying it.
+     * Collection mustn't be changed, while stream is walked
+     * @return stream of vehicles in insertion order
+     */
+    public Stream<Vehicle> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Method to get spliterator over collection, which is split in halves for parallel streams
+     * @return spliterator
+     */
+    public Spliterator<Vehicle> spliterator() {
+        return collection.spliterator();
+    }
+
+    /**
+     * Method to copy collection, views above don't need copy
+     * @return new list of vehicles
+     */
     public List<Vehicle> getCollection() {
-        return new ArrayList<>(collection);
+        List<Vehicle> vehicles = new ArrayList<>(collection.size());
+        collection.forEach(vehicles::add);
+        return vehicles;
+    }
+
+    public Class<?> getCollectionType() {
+        return collection.getClass();
     }
 
     public LocalDate getInitializedDate() {
         return initializedDate;
     }
+
+    /**
+     * Method to get spliterator over copy of storage's slots, which is safe to walk while collection is changed
+     * @return spliterator
+     */
+    protected Spliterator<Vehicle> snapshotSpliterator() {
+        return collection.snapshotSpliterator();
+    }
+
+    private static VehicleStorage storageOf(Collection<Vehicle> vehicles, StorageType storageType) {
+        VehicleStorage storage = VehicleStorage.create(storageType, vehicles.size());
+        vehicles.forEach(storage::add);
+        return storage;
+    }
+
+    /**
+     * Method to add vehicle to all indexes and statistics
+     * @param vehicle to add
+     */
+    private void index(Vehicle vehicle) {
+        orderIndex.add(vehicle);
+        indexFields(vehicle);
+    }
+
+    /**
+     * Method to remove vehicle from all indexes and statistics
+     * @param vehicle to remove
+     */
+    private void unindex(Vehicle vehicle) {
+        orderIndex.remove(vehicle);
+        unindexFields(vehicle);
+    }
+
+    /**
+     * Method to add vehicle to indexes and statistics except order index,
+     * which is changed only with fuel's type
+     * @param vehicle to add
+     */
+    private void indexFields(Vehicle vehicle) {
+        gridIndex.add(vehicle);
+        nameIndex.add(vehicle);
+        statistics.add(vehicle.getEnginePower());
+    }
+
+    /**
+     * Method to remove vehicle from indexes and statistics except order index
+     * @param vehicle to remove
+     */
+    private void unindexFields(Vehicle vehicle) {
+        gridIndex.remove(vehicle);
+        nameIndex.remove(vehicle);
+        statistics.remove(vehicle.getEnginePower());
+    }
+
+    /**
+     * Method to remove vehicles, which are already removed from storage, from all indexes at once
+     * and to log their removal
+     * @param removed vehicles
+     */
+    private void unindexRemoved(List<Vehicle> removed) {
+        orderIndex.removeAll(removed);
+        gridIndex.removeAll(removed);
+        nameIndex.removeAll(removed);
+        removed.forEach(vehicle -> statistics.remove(vehicle.getEnginePower()));
+        if (!removed.isEmpty()) {
+            repository.logRemove(removed);
+        }
+    }
+
+    /**
+     * Method to remove vehicle, which id is already cut from order index
+     * @param id of vehicle
+     * @return removed vehicle
+     */
+    private Vehicle removeCut(int id) {
+        Vehicle vehicle = collection.remove(id);
+        unindexFields(vehicle);
+        return vehicle;
+    }
 }
@@ -0,0 +1,79 @@
+package org.example.services;
+
+import org.example.models.Vehicle;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Spliterator over range of storage's slots, which skips empty slots.
+ * Range is split in halves, so parallel streams walk vehicles without copying them.
+ * Slots are read by function, which gives null for empty slot
+ */
+class VehicleSpliterator implements Spliterator<Vehicle> {
+    private static final int MIN_SPLIT_SIZE = 1 << 10;
+
+    private final IntFunction<Vehicle> slots;
+    private final int characteristics;
+    private final int to;
+    private int from;
+
+    VehicleSpliterator(IntFunction<Vehicle> slots, int from, int to, int characteristics) {
+        this.slots = slots;
+        this.from = from;
+        this.to = to;
+        this.characteristics = characteristics | ORDERED | NONNULL;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Vehicle> action) {
+        while (from < to) {
+            Vehicle vehicle = slots.apply(from++);
+            if (vehicle != null) {
+                action.accept(vehicle);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Vehicle> action) {
+        for (int i = from; i < to; i++) {
+            Vehicle vehicle = slots.apply(i);
+            if (vehicle != null) {
+                action.accept(vehicle);
+            }
+        }
+
+        from = to;
+    }
+
+    @Override
+    public Spliterator<Vehicle> trySplit() {
+        int middle = (from + to) >>> 1;
+        if (middle - from < MIN_SPLIT_SIZE) {
+            return null;
+        }
+
+        Spliterator<Vehicle> prefix = new VehicleSpliterator(slots, from, middle, characteristics);
+        from = middle;
+        return prefix;
+    }
+
+    /**
+     * Method to estimate count of vehicles, empty slots are counted too
+     * @return count of remaining slots
+     */
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.services;
+
+import org.example.enums.StorageType;
+import org.example.models.Vehicle;
+
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Storage of vehicles in insertion order with constant-time access and removal by id.
+ * Storage may keep vehicles not as objects, then every read gives new copy of vehicle,
+ * so changed vehicle must be written back by update
+ */
+public interface VehicleStorage {
+    /**
+     * Method to create storage of type
+     * @param type of storage
+     * @param expectedSize count of vehicles, which storage is sized for
+     * @return empty storage
+     */
+    static VehicleStorage create(StorageType type, int expectedSize) {
+        return switch (type) {
+            case OBJECTS -> new ObjectVehicleStorage(expectedSize);
+            case COLUMNS -> new ColumnarVehicleStorage(expectedSize);
+            case OFF_HEAP -> new OffHeapVehicleStorage(expectedSize);
+        };
+    }
+
+    /**
+     * Method to add vehicle to the end of storage
+     * @param vehicle to add
+     * @throws IllegalArgumentException if storage already contains vehicle with the same id
+     */
+    void add(Vehicle vehicle);
+
+    /**
+     * Method to add many vehicles to the end of storage, room is made once.
+     * If some id is already taken, nothing is added
+     * @param vehicles to add
+     */
+    void addAll(Collection<Vehicle> vehicles);
+
+    /**
+     * Method to get vehicle by id
+     * @param id of vehicle
+     * @return vehicle or null, if storage doesn't contain it
+     */
+    Vehicle get(int id);
+
+    /**
+     * Method to write changed vehicle back to its place in storage
+     * @param vehicle with id, which storage contains
+     * @throws IllegalArgumentException if storage doesn't contain vehicle with the same id
+     */
+    void update(Vehicle vehicle);
+
+    /**
+     * Method to remove vehicle by id
+     * @param id of vehicle
+     * @return removed vehicle or null, if storage doesn't contain it
+     */
+    Vehicle remove(int id);
+
+    /**
+     * Method to remove all vehicles, which match filter, in one pass, which squeezes empty slots at the same time
+     * @param filter which vehicles to remove
+     * @param removed receives every removed vehicle
+     */
+    void removeIf(Predicate<? super Vehicle> filter, Consumer<? super Vehicle> removed);
+
+    void clear();
+
+    int size();
+
+    /**
+     * Method to walk through vehicles in insertion order
+     * @param action to perform for each vehicle
+     */
+    void forEach(Consumer<? super Vehicle> action);
+
+    /**
+     * Method to walk through live vehicles in insertion order, storage mustn't be changed meanwhile
+     * @return spliterator
+     */
+    Spliterator<Vehicle> spliterator();
+
+    /**
+     * Method to walk through copy of storage, which isn't affected by later changes
+     * @return spliterator
+     */
+    Spliterator<Vehicle> snapshotSpliterator();
+}
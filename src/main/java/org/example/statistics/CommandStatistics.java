@@ -0,0 +1,54 @@
+package org.example.statistics;
+
+/**
+ * Statistics of one command: how many times it was run, how many times it failed and how long it took
+ */
+public class CommandStatistics {
+    private final Histogram latencies = new Histogram();
+    private long errors;
+    private long totalNanos;
+
+    /**
+     * Method to count one run of command
+     * @param nanos duration of run
+     * @param failed whether command failed
+     */
+    public void record(long nanos, boolean failed) {
+        latencies.record(nanos);
+        totalNanos += nanos;
+        if (failed) {
+            errors++;
+        }
+    }
+
+    /**
+     * Method to add all runs of other statistics
+     * @param other statistics
+     */
+    public void merge(CommandStatistics other) {
+        latencies.merge(other.latencies);
+        errors += other.errors;
+        totalNanos += other.totalNanos;
+    }
+
+    public long getCount() {
+        return latencies.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Method to get duration at given percentile
+     * @param percentile from 0 to 100
+     * @return duration in nanoseconds
+     */
+    public long getLatencyAtPercentile(double percentile) {
+        return latencies.getValueAtPercentile(percentile);
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.statistics;
+
+import org.example.collections.IntIntHashMap;
+import org.example.collections.SortedIntTree;
+
+/**
+ * Statistics of engine's powers, which is updated on every change of collection
+ * and answers without walking through it. Counts of distinct powers are kept in primitive map
+ * and the powers themselves in sorted tree, so exact minimum and maximum are found without boxing
+ */
+public class EnginePowerStatistics {
+    private final IntIntHashMap counts = new IntIntHashMap();
+    private final SortedIntTree powers = new SortedIntTree();
+    private final Histogram histogram = new Histogram();
+    private long sum;
+    private int count;
+
+    public void add(int enginePower) {
+        addCount(enginePower, 1);
+        histogram.record(enginePower);
+        sum += enginePower;
+        count++;
+    }
+
+    public void remove(int enginePower) {
+        int powerCount = counts.get(enginePower);
+        if (powerCount < 0) {
+            throw new IllegalArgumentException("Engine's power " + enginePower + " wasn't added");
+        }
+
+        if (powerCount == 1) {
+            counts.remove(enginePower);
+            powers.remove(enginePower);
+        } else {
+            counts.put(enginePower, powerCount - 1);
+        }
+
+        histogram.remove(enginePower);
+        sum -= enginePower;
+        count--;
+    }
+
+    /**
+     * Method to add all values of other statistics
+     * @param other statistics
+     */
+    public void merge(EnginePowerStatistics other) {
+        other.powers.forEach(power -> addCount(power, other.counts.get(power)));
+        histogram.merge(other.histogram);
+        sum += other.sum;
+        count += other.count;
+    }
+
+    public void clear() {
+        counts.clear();
+        powers.clear();
+        histogram.clear();
+        sum = 0;
+        count = 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Method to get average value of engine powers
+     * @return average value or 0, if there are no vehicles
+     */
+    public double getAverage() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public int getMin() {
+        return count == 0 ? 0 : powers.get(0);
+    }
+
+    public int getMax() {
+        return count == 0 ? 0 : powers.get(powers.size() - 1);
+    }
+
+    /**
+     * Method to count engine's power several times
+     * @param enginePower to count
+     * @param times how many times to count it
+     */
+    private void addCount(int enginePower, int times) {
+        int powerCount = counts.get(enginePower);
+        if (powerCount < 0) {
+            powers.add(enginePower);
+            powerCount = 0;
+        }
+
+        counts.put(enginePower, powerCount + times);
+    }
+
+    /**
+     * Method to get approximate engine's power at given percentile
+     * @param percentile from 0 to 100
+     * @return engine's power, which is exact below 128 and within 1/64 above
+     */
+    public long getPercentile(double percentile) {
+        return Math.max(getMin(), Math.min(histogram.getValueAtPercentile(percentile), getMax()));
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable histogram of non-negative values with logarithmic buckets.
+ * Values below 128 are counted exactly, greater values fall into buckets,
+ * which are at most 1/64 of value wide
+ */
+public class Histogram {
+    private static final int EXACT_LIMIT = 128;
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = EXACT_LIMIT + (63 - 7) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+
+    /**
+     * Method to count one value
+     * @param value non-negative value
+     */
+    public void record(long value) {
+        counts[index(value)]++;
+        totalCount++;
+    }
+
+    /**
+     * Method to forget one earlier counted value
+     * @param value non-negative value, which was recorded before
+     */
+    public void remove(long value) {
+        int index = index(value);
+        if (counts[index] == 0) {
+            throw new IllegalArgumentException("Value " + value + " wasn't recorded");
+        }
+
+        counts[index]--;
+        totalCount--;
+    }
+
+    /**
+     * Method to add all values of other histogram
+     * @param other histogram
+     */
+    public void merge(Histogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+
+        totalCount += other.totalCount;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Method to get value at given percentile
+     * @param percentile from 0 to 100
+     * @return the greatest value of bucket, which contains percentile, or 0 for empty histogram
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValue(i);
+            }
+        }
+
+        return highestValue(BUCKETS - 1);
+    }
+
+    private static int index(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Expected value >= 0, but value = " + value);
+        }
+
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return EXACT_LIMIT + (exponent - 7) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValue(int index) {
+        if (index < EXACT_LIMIT) {
+            return index;
+        }
+
+        int exponent = (index - EXACT_LIMIT) / SUB_BUCKETS + 7;
+        int subBucket = (index - EXACT_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (((long) subBucket + 1) << shift) - 1;
+    }
+}
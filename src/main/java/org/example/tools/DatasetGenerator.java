@@ -0,0 +1,287 @@
+package org.example.tools;
+
+import org.example.enums.FuelType;
+import org.example.enums.VehicleChangeParam;
+import org.example.enums.VehicleType;
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+import org.example.repositories.VehicleJSONWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Generator of json files with vehicles and of command scripts of any size.
+ * Distributions are configured by properties:
+ * seed, fuelTypes and vehicleTypes (weights like "PLASMA:3,BOAT:1", NONE is vehicle without type),
+ * names (count of different names), nameSkew (exponent of Zipf distribution of names),
+ * coordinates (uniform or gaussian), x, y and enginePower (ranges like "1:100000"),
+ * commands (weights of commands in script) and ids (ids of vehicles, which are used by commands)
+ */
+public class DatasetGenerator {
+    private static final LocalDate FIRST_DATE = LocalDate.of(2000, 1, 1);
+    private static final int DAYS = 365 * 25;
+    /**
+     * Side of rectangle in within command is this part of coordinate's range
+     */
+    private static final int WITHIN_PART = 20;
+    private static final int NEAREST_COUNT = 10;
+
+    private final Random random;
+    private final WeightedChoice<FuelType> fuelTypes;
+    private final WeightedChoice<VehicleType> vehicleTypes;
+    private final WeightedChoice<String> names;
+    private final boolean gaussianCoordinates;
+    private final int[] xRange;
+    private final int[] yRange;
+    private final int[] enginePowerRange;
+    private final WeightedChoice<String> commands;
+    private final int ids;
+
+    public DatasetGenerator(Properties properties) {
+        random = new Random(Long.parseLong(properties.getProperty("seed", "42")));
+        fuelTypes = WeightedChoice.parse(
+                properties.getProperty("fuelTypes", "GASOLINE,KEROSENE,MANPOWER,PLASMA"),
+                FuelType::valueOf
+        );
+        vehicleTypes = WeightedChoice.parse(
+                properties.getProperty("vehicleTypes", "PLANE,BOAT,BICYCLE,SPACESHIP,NONE"),
+                type -> type.equals("NONE") ? null : VehicleType.valueOf(type)
+        );
+        List<String> nameValues = new ArrayList<>();
+        int nameCount = Integer.parseInt(properties.getProperty("names", "1000"));
+        for (int i = 0; i < nameCount; i++) {
+            nameValues.add("vehicle-" + i);
+        }
+
+        names = WeightedChoice.zipf(nameValues, Double.parseDouble(properties.getProperty("nameSkew", "0")));
+        gaussianCoordinates = properties.getProperty("coordinates", "uniform").equals("gaussian");
+        xRange = parseRange(properties.getProperty("x", "-575:10000"));
+        yRange = parseRange(properties.getProperty("y", "-285:10000"));
+        enginePowerRange = parseRange(properties.getProperty("enginePower", "1:100000"));
+        commands = WeightedChoice.parse(
+                properties.getProperty(
+                        "commands",
+                        "add:4,update:1,remove_by_id:1,average_of_engine_power:1,stats:1,filter_less_than_fuel_type:1,info:1"
+                ),
+                command -> command
+        );
+        ids = Integer.parseInt(properties.getProperty("ids", "1000"));
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 3 || !(args[0].equals("vehicles") || args[0].equals("script"))) {
+            System.out.println("Usage : DatasetGenerator vehicles|script file_name count (distributions are set by -D properties)");
+            System.exit(1);
+        }
+
+        DatasetGenerator generator = new DatasetGenerator(System.getProperties());
+        int count = Integer.parseInt(args[2]);
+        try (Writer writer = Files.newBufferedWriter(Path.of(args[1]))) {
+            if (args[0].equals("vehicles")) {
+                generator.writeVehicles(writer, count);
+            } else {
+                generator.writeScript(writer, count);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Method to generate vehicle
+     * @param id of vehicle
+     * @return vehicle
+     */
+    public Vehicle nextVehicle(int id) {
+        return new Vehicle(
+                id,
+                names.next(random),
+                nextCoordinates(),
+                FIRST_DATE.plusDays(random.nextInt(DAYS)),
+                nextInt(enginePowerRange),
+                vehicleTypes.next(random),
+                fuelTypes.next(random)
+        );
+    }
+
+    /**
+     * Method to write json file with vehicles, which have ids from 0 to count - 1.
+     * Vehicles are generated while file is written, so count isn't limited by memory
+     * @param writer where to write
+     * @param count of vehicles
+     * @throws IOException If an I/O error occurs
+     */
+    public void writeVehicles(Writer writer, int count) throws IOException {
+        VehicleJSONWriter vehicleWriter = new VehicleJSONWriter(new BufferedWriter(writer));
+        vehicleWriter.writeCollection(action -> {
+            for (int id = 0; id < count; id++) {
+                action.accept(nextVehicle(id));
+            }
+        });
+        vehicleWriter.flush();
+    }
+
+    /**
+     * Method to write script with commands in the same form, as user enters them in console
+     * @param writer where to write
+     * @param count of commands
+     * @throws IOException If an I/O error occurs
+     */
+    public void writeScript(Writer writer, int count) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            lines.setLength(0);
+            appendCommand(lines, commands.next(random));
+            writer.append(lines);
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Method to append command with all its arguments and answers
+     * @param lines where to append
+     * @param command name of command
+     */
+    private void appendCommand(StringBuilder lines, String command) {
+        switch (command) {
+            case "add", "remove_greater", "remove_lower" -> {
+                lines.append(command).append('\n');
+                appendVehicle(lines, nextVehicle(0));
+            }
+            case "update" -> {
+                lines.append("update ").append(random.nextInt(ids)).append('\n');
+                appendChanges(lines);
+            }
+            case "update_all" -> {
+                lines.append("update_all");
+                appendIds(lines);
+                appendChanges(lines);
+            }
+            case "remove_by_id" -> lines.append("remove_by_id ").append(random.nextInt(ids)).append('\n');
+            case "remove_all_by_id" -> {
+                lines.append("remove_all_by_id");
+                appendIds(lines);
+            }
+            case "filter_less_than_fuel_type" -> lines.append("filter_less_than_fuel_type ")
+                    .append(fuelTypes.next(random).name()).append('\n');
+            case "within" -> {
+                Coordinates corner = nextCoordinates();
+                lines.append("within ").append(corner.getX().intValue()).append(' ').append(corner.getY().intValue())
+                        .append(' ').append(corner.getX() + (xRange[1] - xRange[0]) / WITHIN_PART)
+                        .append(' ').append(corner.getY() + (yRange[1] - yRange[0]) / WITHIN_PART).append('\n');
+            }
+            case "nearest" -> {
+                Coordinates point = nextCoordinates();
+                lines.append("nearest ").append(point.getX().intValue()).append(' ').append(point.getY().intValue())
+                        .append(' ').append(NEAREST_COUNT).append('\n');
+            }
+            case "find_name_prefix" -> {
+                String name = names.next(random);
+                lines.append("find_name_prefix ").append(name, 0, 1 + random.nextInt(name.length())).append('\n');
+            }
+            case "find_name_contains" -> {
+                String name = names.next(random);
+                int from = random.nextInt(name.length());
+                lines.append("find_name_contains ")
+                        .append(name, from, from + 1 + random.nextInt(name.length() - from)).append('\n');
+            }
+            default -> lines.append(command).append('\n');
+        }
+    }
+
+    /**
+     * Method to append answers, which console asks, when vehicle is created
+     * @param lines where to append
+     * @param vehicle with answers
+     */
+    private void appendVehicle(StringBuilder lines, Vehicle vehicle) {
+        lines.append(vehicle.getName()).append('\n')
+                .append(vehicle.getCoordinates().getX().intValue()).append('\n')
+                .append(vehicle.getCoordinates().getY().intValue()).append('\n')
+                .append(vehicle.getEnginePower()).append('\n')
+                .append(vehicle.getType() == null ? "" : vehicle.getType().name()).append('\n')
+                .append(vehicle.getFuelType().name()).append('\n');
+    }
+
+    /**
+     * Method to append answers, which console asks, when vehicle is updated. Every parameter is changed with chance 1/2
+     * @param lines where to append
+     */
+    private void appendChanges(StringBuilder lines) {
+        for (VehicleChangeParam param : VehicleChangeParam.values()) {
+            if (random.nextBoolean()) {
+                lines.append("нет\n");
+                continue;
+            }
+
+            lines.append("да\n");
+            switch (param) {
+                case NAME -> lines.append(names.next(random)).append('\n');
+                case COORDINATES -> {
+                    Coordinates coordinates = nextCoordinates();
+                    lines.append(coordinates.getX().intValue()).append('\n')
+                            .append(coordinates.getY().intValue()).append('\n');
+                }
+                case ENGINE_POWER -> lines.append(nextInt(enginePowerRange)).append('\n');
+                case VEHICLE_TYPE -> {
+                    VehicleType type = vehicleTypes.next(random);
+                    lines.append(type == null ? "" : type.name()).append('\n');
+                }
+                case FUEL_TYPE -> lines.append(fuelTypes.next(random).name()).append('\n');
+            }
+        }
+    }
+
+    private void appendIds(StringBuilder lines) {
+        int count = 1 + random.nextInt(10);
+        for (int i = 0; i < count; i++) {
+            lines.append(' ').append(random.nextInt(ids));
+        }
+
+        lines.append('\n');
+    }
+
+    private Coordinates nextCoordinates() {
+        return new Coordinates(nextCoordinate(xRange), nextCoordinate(yRange));
+    }
+
+    private int nextInt(int[] range) {
+        return range[0] + random.nextInt(range[1] - range[0] + 1);
+    }
+
+    /**
+     * Method to generate coordinate from range, which is uniform or gaussian around middle of range
+     * @param range minimum and maximum
+     * @return coordinate
+     */
+    private int nextCoordinate(int[] range) {
+        if (!gaussianCoordinates) {
+            return nextInt(range);
+        }
+
+        double middle = (range[0] + (double) range[1]) / 2;
+        double value = middle + random.nextGaussian() * (range[1] - range[0]) / 6;
+        return (int) Math.max(range[0], Math.min(range[1], Math.round(value)));
+    }
+
+    private static int[] parseRange(String text) {
+        int separator = text.indexOf(':', 1);
+        int[] range = {Integer.parseInt(text.substring(0, separator)), Integer.parseInt(text.substring(separator + 1))};
+        if (range[0] > range[1]) {
+            throw new IllegalArgumentException("Wrong range " + text);
+        }
+
+        return range;
+    }
+}
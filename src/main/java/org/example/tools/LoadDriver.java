@@ -0,0 +1,151 @@
+package org.example.tools;
+
+import org.example.console.Console;
+import org.example.enums.FsyncPolicy;
+import org.example.enums.StorageType;
+import org.example.metrics.VehicleMetrics;
+import org.example.repositories.VehicleRepository;
+import org.example.services.ConcurrentVehicleService;
+import org.example.services.VehicleService;
+import org.example.services.VehicleStorage;
+import org.example.statistics.CommandStatistics;
+import org.json.simple.parser.ParseException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Driver, which replays script on collection from file and reports throughput and latency percentiles of every command.
+ * Script is always run through console, which counts its commands in metrics of the run, so every command
+ * takes the same path, as when user enters it, and time of reading its answers isn't counted.
+ * Properties: mode (service doesn't format found vehicles, console also formats them into discarded output),
+ * threads (every thread replays whole script on one shared collection) and fsync
+ */
+public class LoadDriver {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+
+    private final VehicleService service;
+    private final List<String> script;
+    private final boolean console;
+    private final int threads;
+
+    public LoadDriver(VehicleService service, List<String> script, boolean console, int threads) {
+        this.service = service;
+        this.script = script;
+        this.console = console;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage : LoadDriver data_file script_file (-Dmode=service|console -Dthreads=N -Dfsync=NEVER -Dstorage=OBJECTS|COLUMNS|OFF_HEAP)");
+            System.exit(1);
+        }
+
+        try {
+            FsyncPolicy fsyncPolicy = FsyncPolicy.valueOf(System.getProperty("fsync", FsyncPolicy.NEVER.name()));
+            StorageType storageType = StorageType.valueOf(System.getProperty("storage", StorageType.OBJECTS.name()));
+            int threads = Integer.parseInt(System.getProperty("threads", "1"));
+            boolean console = System.getProperty("mode", "service").equals("console");
+
+            VehicleRepository repository = VehicleRepository.forFile(args[0], fsyncPolicy);
+            VehicleStorage vehicles = repository.readStorage(storageType);
+            VehicleService service = threads == 1
+                    ? new VehicleService(vehicles, repository)
+                    : new ConcurrentVehicleService(vehicles, repository);
+            List<String> script = Files.readAllLines(Path.of(args[1]));
+
+            LoadDriver driver = new LoadDriver(service, script, console, threads);
+            long start = System.nanoTime();
+            Map<String, CommandStatistics> statistics = driver.run();
+            driver.report(statistics, System.nanoTime() - start, System.out);
+        } catch (IOException | ParseException | InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Method to replay script in all threads
+     * @return statistics of every command from all threads
+     * @throws InterruptedException if driver is interrupted
+     * @throws ExecutionException if some thread fails
+     */
+    public Map<String, CommandStatistics> run() throws InterruptedException, ExecutionException {
+        VehicleMetrics metrics = new VehicleMetrics();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> runConsole(metrics)));
+            }
+
+            for (Future<?> result : results) {
+                result.get();
+            }
+
+            return metrics.getCommandStatistics();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Method to print throughput and latency percentiles of every command
+     * @param statistics of commands
+     * @param wallNanos time of whole run
+     * @param out where to print
+     */
+    public void report(Map<String, CommandStatistics> statistics, long wallNanos, PrintStream out) {
+        double seconds = wallNanos / 1e9;
+        long total = statistics.values().stream().mapToLong(CommandStatistics::getCount).sum();
+        out.printf("Mode : %s, threads : %d, time : %.3f s, commands : %d, throughput : %.0f ops/s%n",
+                console ? "console" : "service", threads, seconds, total, total / seconds);
+        out.printf("%-28s %10s %8s %12s", "command", "count", "errors", "ops/s");
+        for (double percentile : PERCENTILES) {
+            out.printf(" %10s", percentile == 100 ? "max us" : "p" + formatPercentile(percentile) + " us");
+        }
+
+        out.println();
+        statistics.forEach((name, commandStatistics) -> {
+            out.printf("%-28s %10d %8d %12.0f", name, commandStatistics.getCount(), commandStatistics.getErrors(),
+                    commandStatistics.getCount() / seconds);
+            for (double percentile : PERCENTILES) {
+                out.printf(" %10.1f", commandStatistics.getLatencyAtPercentile(percentile) / 1e3);
+            }
+
+            out.println();
+        });
+    }
+
+    /**
+     * Method to run script through console, which counts every command in metrics of the run
+     * @param metrics of the run, which are shared by all threads
+     * @return nothing, because statistics are taken from metrics after all threads are done
+     * @throws IOException If an I/O error occurs
+     */
+    private Void runConsole(VehicleMetrics metrics) throws IOException {
+        Reader reader = new StringReader(String.join("\n", script));
+        Console console = this.console
+                ? new Console(service, reader, new PrintStream(OutputStream.nullOutputStream()), metrics)
+                : Console.silent(service, reader, metrics);
+        console.run();
+        return null;
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+}
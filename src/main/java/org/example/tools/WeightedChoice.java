@@ -0,0 +1,92 @@
+package org.example.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Random choice from values with given weights
+ * @param <T> type of values
+ */
+public class WeightedChoice<T> {
+    private final List<T> values;
+    private final double[] cumulativeWeights;
+
+    public WeightedChoice(List<T> values, double[] weights) {
+        if (values.isEmpty() || values.size() != weights.length) {
+            throw new IllegalArgumentException("Expected one weight for every value");
+        }
+
+        this.values = values;
+        this.cumulativeWeights = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Weight must be >= 0, but weight = " + weights[i]);
+            }
+
+            sum += weights[i];
+            cumulativeWeights[i] = sum;
+        }
+
+        if (sum == 0) {
+            throw new IllegalArgumentException("At least one weight must be > 0");
+        }
+    }
+
+    /**
+     * Method to parse weights in format "VALUE:weight,VALUE:weight", value without weight gets weight 1
+     * @param text with weights
+     * @param parser of values
+     * @param <T> type of values
+     * @return choice
+     */
+    public static <T> WeightedChoice<T> parse(String text, Function<String, T> parser) {
+        List<T> values = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (String part : text.split(",")) {
+            String[] valueAndWeight = part.trim().split(":");
+            values.add(parser.apply(valueAndWeight[0]));
+            weights.add(valueAndWeight.length > 1 ? Double.parseDouble(valueAndWeight[1]) : 1);
+        }
+
+        return new WeightedChoice<>(values, weights.stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    /**
+     * Method to make Zipf distribution over values, first value is the most frequent one
+     * @param values to choose from
+     * @param exponent of distribution, 0 makes all values equally frequent
+     * @param <T> type of values
+     * @return choice
+     */
+    public static <T> WeightedChoice<T> zipf(List<T> values, double exponent) {
+        double[] weights = new double[values.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 1 / Math.pow(i + 1, exponent);
+        }
+
+        return new WeightedChoice<>(values, weights);
+    }
+
+    /**
+     * Method to choose random value
+     * @param random generator
+     * @return value
+     */
+    public T next(Random random) {
+        double point = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, point);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        while (cumulativeWeights[index] <= point && index < cumulativeWeights.length - 1) {
+            index++;
+        }
+
+        return values.get(index);
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Randomized comparison of map with {@link LinkedHashMap}. Keys are taken from small range,
+ * so the same keys are put and removed many times and long probe chains are shifted back on removal
+ */
+class IntIntHashMapTest {
+    private static final int OPERATIONS = 200_000;
+
+    @Test
+    void matchesReferenceMap() {
+        Random random = new Random(42);
+        IntIntHashMap map = new IntIntHashMap();
+        Map<Integer, Integer> reference = new LinkedHashMap<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            int key = randomKey(random);
+            int operation = random.nextInt(100);
+            if (operation < 45) {
+                int value = random.nextInt(Integer.MAX_VALUE);
+                assertEquals(reference.getOrDefault(key, -1), map.put(key, value), "put " + key);
+                reference.put(key, value);
+            } else if (operation < 80) {
+                assertEquals(reference.getOrDefault(key, -1), map.remove(key), "remove " + key);
+                reference.remove(key);
+            } else if (operation < 99) {
+                assertEquals(reference.getOrDefault(key, -1), map.get(key), "get " + key);
+                assertEquals(reference.containsKey(key), map.containsKey(key), "containsKey " + key);
+            } else if (random.nextInt(100) == 0) {
+                map.clear();
+                reference.clear();
+            }
+
+            assertEquals(reference.size(), map.size());
+        }
+
+        reference.forEach((key, value) -> assertEquals(value, map.get(key), "get " + key));
+    }
+
+    @Test
+    void rejectsNegativeValue() {
+        IntIntHashMap map = new IntIntHashMap();
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, -1));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void rejectsExpectedSizeBeyondLargestCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new IntIntHashMap(Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> new IntIntHashMap(805_306_369));
+        assertEquals(0, new IntIntHashMap(-1).size());
+    }
+
+    /**
+     * Method to get key, which often falls into the same cell as other keys
+     * @param random source of keys
+     * @return key
+     */
+    private static int randomKey(Random random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> random.nextInt(2_000);
+            case 1 -> random.nextInt(64) << 16;
+            default -> -random.nextInt(2_000) - 1;
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.collections;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Randomized comparison of tree with {@link TreeSet}. Small range of values keeps tree small and dense,
+ * large range makes many leaves, which are split, merged and dropped
+ */
+class SortedIntTreeTest {
+    private static final int OPERATIONS = 100_000;
+
+    @ParameterizedTest
+    @ValueSource(ints = {500, 50_000})
+    void matchesReferenceSet(int range) {
+        Random random = new Random(range);
+        SortedIntTree tree = new SortedIntTree();
+        TreeSet<Integer> reference = new TreeSet<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            int value = random.nextInt(range);
+            int operation = random.nextInt(100);
+            if (operation < 45) {
+                assertEquals(reference.add(value), tree.add(value), "add " + value);
+            } else if (operation < 85) {
+                assertEquals(reference.remove(value), tree.remove(value), "remove " + value);
+            } else if (operation < 87) {
+                int[] sorted = random.ints(random.nextInt(3_000), 0, range).sorted().distinct().toArray();
+                tree.addAll(sorted);
+                for (int added : sorted) {
+                    reference.add(added);
+                }
+            } else if (operation < 89) {
+                int[] sorted = random.ints(random.nextInt(3_000), 0, range).sorted().distinct().toArray();
+                tree.removeAll(sorted);
+                for (int removed : sorted) {
+                    reference.remove(removed);
+                }
+            } else if (operation < 90) {
+                removeRange(random, tree, reference);
+            } else if (operation < 99) {
+                assertEquals(reference.headSet(value).size(), tree.lowerBound(value), "lowerBound " + value);
+                assertEquals(reference.headSet(value, true).size(), tree.upperBound(value), "upperBound " + value);
+                assertEquals(reference.contains(value), tree.contains(value), "contains " + value);
+                Integer ceiling = reference.ceiling(value);
+                if (ceiling != null) {
+                    assertEquals(ceiling, tree.get(tree.lowerBound(value)), "get");
+                }
+            } else {
+                assertWalks(random, tree, reference);
+            }
+
+            assertEquals(reference.size(), tree.size());
+        }
+
+        assertArrayEquals(reference.stream().mapToInt(Integer::intValue).toArray(), tree.toArray());
+        tree.clear();
+        assertEquals(0, tree.size());
+    }
+
+    private static void removeRange(Random random, SortedIntTree tree, TreeSet<Integer> reference) {
+        List<Integer> values = new ArrayList<>(reference);
+        int from = random.nextBoolean() ? 0 : random.nextInt(values.size() + 1);
+        int to = random.nextBoolean() ? values.size() : from + random.nextInt(values.size() - from + 1);
+        tree.removeRange(from, to);
+        values.subList(from, to).forEach(reference::remove);
+    }
+
+    private static void assertWalks(Random random, SortedIntTree tree, TreeSet<Integer> reference) {
+        List<Integer> values = new ArrayList<>(reference);
+        int from = random.nextInt(values.size() + 1);
+        int to = from + random.nextInt(values.size() - from + 1);
+        List<Integer> walked = new ArrayList<>();
+        tree.forEach(from, to, walked::add);
+        assertEquals(values.subList(from, to), walked);
+
+        List<Integer> expected = new ArrayList<>(values.subList(from, to));
+        Collections.reverse(expected);
+        walked.clear();
+        tree.forEachDescending(from, to, walked::add);
+        assertEquals(expected, walked);
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.query;
+
+import org.example.enums.FsyncPolicy;
+import org.example.enums.FuelType;
+import org.example.enums.VehicleType;
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+import org.example.repositories.VehicleRepository;
+import org.example.services.VehicleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of parsing queries: precedence of and, or, not and parentheses, keywords in any case,
+ * quoted values, order, limit, aggregates and rejecting of incorrect text
+ */
+class QueryTest {
+    @TempDir
+    Path directory;
+
+    private VehicleService service;
+
+    @BeforeEach
+    void createService() {
+        service = new VehicleService(
+                List.of(
+                        new Vehicle(1, "Volvo", new Coordinates(1, 2), LocalDate.of(2020, 1, 1), 100, VehicleType.PLANE, FuelType.GASOLINE),
+                        new Vehicle(2, "Лада", new Coordinates(3, 4), LocalDate.of(2021, 5, 5), 80, VehicleType.BOAT, FuelType.KEROSENE),
+                        new Vehicle(3, "Scania R", new Coordinates(5, 6), LocalDate.of(2020, 1, 1), 300, null, FuelType.PLASMA),
+                        new Vehicle(4, "Kamaz", new Coordinates(7, 8), LocalDate.of(2022, 2, 2), 250, VehicleType.BOAT, FuelType.PLASMA)
+                ),
+                VehicleRepository.forFile(directory.resolve("vehicles.json").toString(), FsyncPolicy.NEVER)
+        );
+    }
+
+    @Test
+    void andBindsStrongerThanOr() {
+        assertEquals(List.of(2, 4), ids("enginePower > 90 and type = BOAT or name = 'Лада'"));
+        assertEquals(List.of(4), ids("enginePower > 90 and (type = BOAT or name = 'Лада')"));
+        assertEquals(List.of(1, 3), ids("not type = BOAT"));
+        assertEquals(List.of(1, 2, 3), ids("not (id >= 2 and fuelType = PLASMA) or id = 3"));
+    }
+
+    @Test
+    void comparesValuesOfEveryKind() {
+        assertEquals(List.of(3), ids("type = null"));
+        assertEquals(List.of(1, 3), ids("creationDate <= 2020-12-31"));
+        assertEquals(List.of(3), ids("name = 'Scania R'"));
+        assertEquals(List.of(2, 3), ids("x>1 and y<7"));
+        assertEquals(List.of(1, 2, 4), ids("id != 3"));
+    }
+
+    @Test
+    void keywordsAreInAnyCaseAndQuotedValuesAreNotKeywords() {
+        assertEquals(List.of(1, 4), ids("WHERE EnginePower >= 100 AND id != 3 ORDER BY name DESC"));
+        assertEquals(List.of(), ids("name = 'order' or name = 'and'"));
+    }
+
+    @Test
+    void ordersAndLimitsSelection() {
+        assertEquals(List.of(1, 2, 3, 4), ids(""));
+        assertEquals(List.of(3, 4), ids("order by enginePower desc limit 2"));
+        assertEquals(List.of(4, 3, 1), ids("where enginePower >= 100 order by name asc"));
+        assertEquals(List.of(), ids("limit 0"));
+    }
+
+    @Test
+    void computesAggregates() {
+        Query count = Query.parse("count");
+        assertTrue(count.isAggregate());
+        assertFalse(count.isGrouped());
+        assertEquals(Map.of(), Query.parse("max enginePower where id > 10").aggregate(service));
+        assertEquals(4L, count.aggregate(service).get(null));
+        assertEquals(0L, Query.parse("count where id > 10").aggregate(service).get(null));
+        assertEquals(330L, Query.parse("SUM enginePower where type = BOAT").aggregate(service).get(null));
+
+        Map<Object, Number> averages = Query.parse("avg enginePower by type").aggregate(service);
+        assertEquals(Arrays.asList(null, VehicleType.PLANE, VehicleType.BOAT), new ArrayList<>(averages.keySet()));
+        assertEquals(Arrays.asList(300.0, 100.0, 165.0), new ArrayList<>(averages.values()));
+    }
+
+    @Test
+    void rejectsIncorrectQueries() {
+        for (String text : List.of(
+                "where speed > 1",
+                "where id >> 1",
+                "where id = x",
+                "where name = 'Volvo",
+                "where (id = 1",
+                "where id = 1 extra",
+                "where id =",
+                "order name",
+                "limit -1",
+                "sum name",
+                "count by"
+        )) {
+            assertThrows(IllegalArgumentException.class, () -> Query.parse(text), text);
+        }
+    }
+
+    private List<Integer> ids(String text) {
+        return Query.parse(text).select(service).map(Vehicle::getId).toList();
+    }
+}
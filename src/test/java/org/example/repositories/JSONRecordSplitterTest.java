@@ -0,0 +1,64 @@
+package org.example.repositories;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests of splitting records of array into chunks, brackets and quotes inside strings must not move borders
+ */
+class JSONRecordSplitterTest {
+    private static final String RECORDS = "{\"Name\":\"a]}\\\"{[\",\"Id\":1} , {\"Name\":\"б\",\"Id\":2},"
+            + "{\"Name\":\"c\",\"Tags\":[1,{\"x\":[]}],\"Id\":3}";
+
+    @Test
+    void splitsArrayAtBordersOfRecords() {
+        String json = "{\"Other\":[{\"Id\":0}],\"Collection\":[ " + RECORDS + " \n],\"Tail\":\"]\"}";
+        ByteBuffer buffer = buffer(json);
+
+        assertEquals(List.of(RECORDS), texts(buffer, new JSONRecordSplitter(buffer, "Collection").split(1 << 20)));
+        assertEquals(
+                List.of(
+                        "{\"Name\":\"a]}\\\"{[\",\"Id\":1}",
+                        "{\"Name\":\"б\",\"Id\":2}",
+                        "{\"Name\":\"c\",\"Tags\":[1,{\"x\":[]}],\"Id\":3}"
+                ),
+                texts(buffer, new JSONRecordSplitter(buffer, "Collection").split(1))
+        );
+    }
+
+    @Test
+    void givesNoChunksForEmptyArray() {
+        ByteBuffer buffer = buffer("{\"Collection\":[ ]}");
+        assertEquals(List.of(), new JSONRecordSplitter(buffer, "Collection").split(1));
+    }
+
+    @Test
+    void refusesJsonWithoutSingleArrayOrNotWellFormed() {
+        for (String json : List.of(
+                "{\"Other\":[{\"Id\":1}]}",
+                "{\"Collection\":[{\"Id\":1}],\"Collection\":[{\"Id\":2}]}",
+                "{\"Collection\":[{\"Id\":1}]",
+                "{\"Collection\":[{\"Name\":\"unclosed}]}",
+                "{\"Collection\":[{\"Id\":1}]}]}"
+        )) {
+            ByteBuffer buffer = buffer(json);
+            assertNull(new JSONRecordSplitter(buffer, "Collection").split(1), json);
+        }
+    }
+
+    private static ByteBuffer buffer(String json) {
+        return ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> texts(ByteBuffer buffer, List<int[]> chunks) {
+        return chunks.stream()
+                .map(chunk -> StandardCharsets.UTF_8.decode(buffer.slice(chunk[0], chunk[1] - chunk[0])).toString())
+                .toList();
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.repositories;
+
+import org.example.enums.FsyncPolicy;
+import org.example.enums.FuelType;
+import org.example.enums.VehicleType;
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+import org.json.simple.parser.ParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of journal replay and of recovery of journal, which was torn by crash or by failed write
+ */
+class VehicleJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordsInOrder() throws Exception {
+        Path path = directory.resolve("vehicles.json.journal");
+        try (VehicleJournal journal = new VehicleJournal(path, FsyncPolicy.NEVER)) {
+            journal.put(List.of(vehicle(1), vehicle(2), vehicle(3)));
+            journal.remove(List.of(vehicle(2)));
+            journal.put(List.of(vehicle(3, "Renamed")));
+        }
+
+        Map<Integer, Vehicle> vehicles = new LinkedHashMap<>();
+        VehicleJournal.replay(path, vehicles);
+        assertEquals(List.of(1, 3), List.copyOf(vehicles.keySet()));
+        assertEquals("Renamed", vehicles.get(3).getName());
+
+        try (VehicleJournal journal = new VehicleJournal(path, FsyncPolicy.NEVER)) {
+            journal.clear();
+        }
+
+        VehicleJournal.replay(path, vehicles);
+        assertEquals(0, vehicles.size());
+    }
+
+    @Test
+    void skipsTornTailOnReplay() throws Exception {
+        Path path = directory.resolve("vehicles.json.journal");
+        try (VehicleJournal journal = new VehicleJournal(path, FsyncPolicy.NEVER)) {
+            journal.put(List.of(vehicle(1)));
+            journal.put(List.of(vehicle(2)));
+        }
+
+        cut(path, 1);
+        Map<Integer, Vehicle> vehicles = new LinkedHashMap<>();
+        VehicleJournal.replay(path, vehicles);
+        assertEquals(List.of(1), List.copyOf(vehicles.keySet()));
+    }
+
+    @Test
+    void cutsTornTailAndCountsRecordsOnOpen() throws Exception {
+        Path path = directory.resolve("vehicles.json.journal");
+        try (VehicleJournal journal = new VehicleJournal(path, FsyncPolicy.NEVER)) {
+            journal.put(List.of(vehicle(1)));
+            journal.put(List.of(vehicle(2)));
+            journal.put(List.of(vehicle(3)));
+        }
+
+        cut(path, 20);
+        try (VehicleJournal journal = new VehicleJournal(path, FsyncPolicy.NEVER)) {
+            assertEquals(2, journal.getRecords());
+            journal.put(List.of(vehicle(4)));
+            assertEquals(3, journal.getRecords());
+        }
+
+        Map<Integer, Vehicle> vehicles = new LinkedHashMap<>();
+        VehicleJournal.replay(path, vehicles);
+        assertEquals(List.of(1, 2, 4), List.copyOf(vehicles.keySet()));
+    }
+
+    @Test
+    void rejectsCorruptedCompleteRecord() throws Exception {
+        Path path = directory.resolve("vehicles.json.journal");
+        try (VehicleJournal journal = new VehicleJournal(path, FsyncPolicy.NEVER)) {
+            journal.put(List.of(vehicle(1)));
+        }
+
+        Files.writeString(path, "{\"Op\":\"PUT\",\"Vehicles\":[\n" + Files.readString(path));
+        assertThrows(ParseException.class, () -> VehicleJournal.replay(path, new LinkedHashMap<>()));
+    }
+
+    @Test
+    void failedAppendDoesNotTearLaterRecords() throws Exception {
+        Path path = directory.resolve("vehicles.json.journal");
+        try (var journal = new VehicleJournal(path, FsyncPolicy.NEVER) {
+            boolean failing;
+
+            @Override
+            Writer newWriter(FileChannel channel) {
+                Writer writer = super.newWriter(channel);
+                return new FilterWriter(writer) {
+                    @Override
+                    public void write(char[] chars, int offset, int length) throws IOException {
+                        if (!failing) {
+                            super.write(chars, offset, length);
+                            return;
+                        }
+
+                        failing = false;
+                        super.write(chars, offset, length / 2);
+                        super.flush();
+                        super.write(chars, offset + length / 2, length - length / 2);
+                        throw new IOException("No space left on device");
+                    }
+                };
+            }
+        }) {
+            journal.put(List.of(vehicle(1)));
+            journal.failing = true;
+            assertThrows(IOException.class, () -> journal.put(List.of(vehicle(2))));
+            assertEquals(1, journal.getRecords());
+            journal.put(List.of(vehicle(3)));
+            assertEquals(2, journal.getRecords());
+        }
+
+        Map<Integer, Vehicle> vehicles = new LinkedHashMap<>();
+        VehicleJournal.replay(path, vehicles);
+        assertEquals(List.of(1, 3), List.copyOf(vehicles.keySet()));
+    }
+
+    /**
+     * Method to drop bytes from the end of file, as if crash happened in the middle of append
+     * @param path of file
+     * @param bytes count of dropped bytes
+     * @throws Exception If an I/O error occurs
+     */
+    private static void cut(Path path, int bytes) throws Exception {
+        byte[] content = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(content, content.length - bytes));
+    }
+
+    private static Vehicle vehicle(int id) {
+        return vehicle(id, "Volvo" + id);
+    }
+
+    private static Vehicle vehicle(int id, String name) {
+        return new Vehicle(id, name, new Coordinates(1, 2), LocalDate.EPOCH, 100, VehicleType.PLANE, FuelType.GASOLINE);
+    }
+}
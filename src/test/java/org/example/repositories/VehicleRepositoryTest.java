@@ -0,0 +1,169 @@
+package org.example.repositories;
+
+import org.example.enums.FsyncPolicy;
+import org.example.enums.FuelType;
+import org.example.enums.VehicleType;
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+import org.example.services.VehicleService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of reading snapshot with journal, which was rotated before crash, of parallel reading of large snapshot
+ * and of appending to journal from many threads
+ */
+class VehicleRepositoryTest {
+    private static final int THREADS = 4;
+    private static final int VEHICLES_PER_THREAD = 4_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readCopyDoesNotCompactRotatedJournal() throws Exception {
+        Path snapshot = directory.resolve("vehicles.json");
+        Path rotatedJournal = createRotatedJournal(snapshot);
+        byte[] snapshotBytes = Files.readAllBytes(snapshot);
+
+        Collection<Vehicle> vehicles = VehicleRepository.forFile(snapshot.toString(), FsyncPolicy.NEVER).readCopy();
+        assertEquals(2, vehicles.size());
+        Thread.sleep(200);
+
+        assertTrue(Files.exists(rotatedJournal));
+        assertArrayEquals(snapshotBytes, Files.readAllBytes(snapshot));
+
+        Path converted = directory.resolve("vehicles.bin");
+        VehicleFormatConverter.convert(snapshot.toString(), converted.toString());
+        assertEquals(2, VehicleRepository.forFile(converted.toString(), FsyncPolicy.NEVER).readCopy().size());
+        Thread.sleep(200);
+
+        assertTrue(Files.exists(rotatedJournal));
+        assertArrayEquals(snapshotBytes, Files.readAllBytes(snapshot));
+    }
+
+    @Test
+    void readCollectionCompactsRotatedJournal() throws Exception {
+        Path snapshot = directory.resolve("vehicles.json");
+        Path rotatedJournal = createRotatedJournal(snapshot);
+
+        Collection<Vehicle> vehicles = VehicleRepository.forFile(snapshot.toString(), FsyncPolicy.NEVER).readCollection();
+        assertEquals(2, vehicles.size());
+        for (int i = 0; i < 100 && Files.exists(rotatedJournal); i++) {
+            Thread.sleep(50);
+        }
+
+        assertTrue(Files.notExists(rotatedJournal));
+        assertEquals(2, VehicleRepository.forFile(snapshot.toString(), FsyncPolicy.NEVER).readCopy().size());
+    }
+
+    @Test
+    void appendAfterTornTailSurvivesRestart() throws Exception {
+        Path snapshot = directory.resolve("vehicles.json");
+        VehicleRepository repository = VehicleRepository.forFile(snapshot.toString(), FsyncPolicy.NEVER);
+        VehicleService service = new VehicleService(List.of(), repository);
+        service.add(new Vehicle("Volvo", new Coordinates(1, 2), 100, VehicleType.PLANE, FuelType.GASOLINE));
+        service.save();
+        service.add(new Vehicle("Лада", new Coordinates(3, 4), 80, VehicleType.BOAT, FuelType.KEROSENE));
+
+        Path journal = snapshot.resolveSibling(snapshot.getFileName() + ".journal");
+        byte[] journalBytes = Files.readAllBytes(journal);
+        Files.write(journal, Arrays.copyOf(journalBytes, journalBytes.length - 20));
+
+        service = VehicleRepository.forFile(snapshot.toString(), FsyncPolicy.NEVER).read();
+        assertEquals(1, service.size());
+        service.add(new Vehicle("Scania", new Coordinates(5, 6), 300, VehicleType.PLANE, FuelType.PLASMA));
+        service.add(new Vehicle("Kamaz", new Coordinates(7, 8), 250, VehicleType.BOAT, FuelType.PLASMA));
+
+        Collection<Vehicle> vehicles = VehicleRepository.forFile(snapshot.toString(), FsyncPolicy.NEVER).readCopy();
+        assertEquals(List.of("Volvo", "Scania", "Kamaz"), vehicles.stream().map(Vehicle::getName).toList());
+    }
+
+    @Test
+    void parallelReadingOfLargeSnapshotKeepsOrder() throws Exception {
+        Path snapshot = directory.resolve("vehicles.json");
+        List<Vehicle> saved = new ArrayList<>();
+        for (int id = 1; id <= 40_000; id++) {
+            saved.add(new Vehicle(
+                    id, "Volvo \"[" + id + "]\"", new Coordinates(id, id % 100), LocalDate.EPOCH, 100 + id % 7,
+                    VehicleType.PLANE, FuelType.GASOLINE
+            ));
+        }
+
+        new VehicleService(saved, new VehicleJSONRepository(snapshot.toString(), FsyncPolicy.NEVER)).save();
+        assertTrue(Files.size(snapshot) >= 2 << 20);
+
+        Collection<Vehicle> sequential = new VehicleJSONRepository(snapshot.toString(), FsyncPolicy.NEVER, 1).readCopy();
+        Collection<Vehicle> parallel = new VehicleJSONRepository(snapshot.toString(), FsyncPolicy.NEVER, 3).readCopy();
+        assertEquals(saved.size(), sequential.size());
+        assertEquals(
+                sequential.stream().map(Vehicle::toString).toList(),
+                parallel.stream().map(Vehicle::toString).toList()
+        );
+    }
+
+    @Test
+    void concurrentAppendsSurviveCompaction() throws Exception {
+        Path snapshot = directory.resolve("vehicles.json");
+        VehicleRepository repository = VehicleRepository.forFile(snapshot.toString(), FsyncPolicy.NEVER);
+        new VehicleService(List.of(), repository).save();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int firstId = thread * VEHICLES_PER_THREAD + 1;
+            threads.add(new Thread(() -> {
+                for (int id = firstId; id < firstId + VEHICLES_PER_THREAD; id++) {
+                    repository.logPut(List.of(new Vehicle(
+                            id, "Volvo" + id, new Coordinates(1, 2), LocalDate.EPOCH, 100, VehicleType.PLANE, FuelType.GASOLINE
+                    )));
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Path rotatedJournal = snapshot.resolveSibling(snapshot.getFileName() + ".journal.old");
+        for (int i = 0; i < 100 && Files.exists(rotatedJournal); i++) {
+            Thread.sleep(50);
+        }
+
+        Collection<Vehicle> vehicles = VehicleRepository.forFile(snapshot.toString(), FsyncPolicy.NEVER).readCopy();
+        assertEquals(THREADS * VEHICLES_PER_THREAD, vehicles.size());
+    }
+
+    /**
+     * Method to save snapshot with one vehicle and leave journal with the second one rotated,
+     * as if application crashed before compaction
+     * @param snapshot path of snapshot
+     * @return path of rotated journal
+     * @throws Exception If saving fails
+     */
+    private static Path createRotatedJournal(Path snapshot) throws Exception {
+        VehicleRepository repository = VehicleRepository.forFile(snapshot.toString(), FsyncPolicy.NEVER);
+        VehicleService service = new VehicleService(List.of(), repository);
+        service.add(new Vehicle("Volvo", new Coordinates(1, 2), 100, VehicleType.PLANE, FuelType.GASOLINE));
+        service.save();
+        service.add(new Vehicle("Лада", new Coordinates(3, 4), 80, VehicleType.BOAT, FuelType.KEROSENE));
+
+        Path journal = snapshot.resolveSibling(snapshot.getFileName() + ".journal");
+        Path rotatedJournal = snapshot.resolveSibling(snapshot.getFileName() + ".journal.old");
+        Files.copy(journal, rotatedJournal);
+        Files.delete(journal);
+        return rotatedJournal;
+    }
+}
@@ -0,0 +1,286 @@
+package org.example.services;
+
+import org.example.enums.FsyncPolicy;
+import org.example.enums.FuelType;
+import org.example.enums.StorageType;
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+import org.example.repositories.VehicleRepository;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.example.services.TestVehicles.randomCoordinates;
+import static org.example.services.TestVehicles.randomFuelType;
+import static org.example.services.TestVehicles.randomVehicle;
+import static org.example.services.TestVehicles.stringsById;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress test of service, which is shared by writers and readers. Every writer changes only its own vehicles
+ * and keeps their expected states, so after all threads are finished collection must consist of exactly
+ * these vehicles, every index must agree with collection and journal must give the same collection again.
+ * Readers check, that they never see vehicle, which indexes and storage don't agree about
+ */
+class ConcurrentVehicleServiceTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 2;
+    private static final int OPERATIONS_PER_WRITER = 1_500;
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @EnumSource(StorageType.class)
+    void writersAndReadersKeepServiceConsistent(StorageType storageType) throws Exception {
+        String fileName = directory.resolve("vehicles.json").toString();
+        ConcurrentVehicleService service = new ConcurrentVehicleService(
+                List.of(), VehicleRepository.forFile(fileName, FsyncPolicy.NEVER), storageType
+        );
+        service.save();
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<Map<Integer, String>>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+        try {
+            for (int i = 0; i < WRITERS; i++) {
+                int writer = i;
+                writers.add(executor.submit(() -> write(service, writer)));
+            }
+
+            for (int i = 0; i < READERS; i++) {
+                int reader = i;
+                readers.add(executor.submit(() -> read(service, writing, reader)));
+            }
+
+            Map<Integer, String> expected = new TreeMap<>();
+            for (Future<Map<Integer, String>> writer : writers) {
+                expected.putAll(writer.get(2, TimeUnit.MINUTES));
+            }
+
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(1, TimeUnit.MINUTES);
+            }
+
+            assertEquals(expected, stringsById(service.getCollection()));
+            assertIndexesAgree(service);
+            VehicleService reloaded = VehicleRepository.forFile(fileName, FsyncPolicy.NEVER).read(storageType);
+            assertEquals(expected, stringsById(reloaded.getCollection()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageType.class)
+    void clearDoesNotReuseIds(StorageType storageType) throws Exception {
+        ConcurrentVehicleService service = new ConcurrentVehicleService(
+                List.of(), VehicleRepository.forFile(directory.resolve("cleared.json").toString(), FsyncPolicy.NEVER),
+                storageType
+        );
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        AtomicBoolean adding = new AtomicBoolean(true);
+        List<Future<?>> adders = new ArrayList<>();
+        try {
+            for (int i = 0; i < WRITERS; i++) {
+                Random random = new Random(i);
+                adders.add(executor.submit(() -> {
+                    while (adding.get()) {
+                        service.add(randomVehicle(random, "adder"));
+                    }
+                }));
+            }
+
+            for (int i = 0; i < 200; i++) {
+                service.clear();
+                Thread.yield();
+            }
+
+            adding.set(false);
+            for (Future<?> adder : adders) {
+                adder.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertIndexesAgree(service);
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageType.class)
+    void walkingActionDoesNotHoldWriters(StorageType storageType) throws Exception {
+        ConcurrentVehicleService service = new ConcurrentVehicleService(
+                List.of(), VehicleRepository.forFile(directory.resolve("walked.json").toString(), FsyncPolicy.NEVER),
+                storageType
+        );
+        Random random = new Random(7);
+        for (int i = 0; i < 10; i++) {
+            service.add(randomVehicle(random, "walked"));
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Consumer<Vehicle> slowClient = vehicle -> {
+                try {
+                    executor.submit(() -> service.add(randomVehicle(random, "adder"))).get(10, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new AssertionError("writer waits for walking action", e);
+                }
+            };
+            service.forEachDescending(0, 3, slowClient);
+            service.forEach(slowClient);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(26, service.size());
+        assertIndexesAgree(service);
+    }
+
+    /**
+     * Method to change own vehicles of writer in random way
+     * @param service shared service
+     * @param writer number of writer, which is prefix of names of its vehicles
+     * @return expected states of own vehicles by id
+     */
+    private static Map<Integer, String> write(VehicleService service, int writer) {
+        Random random = new Random(writer);
+        String prefix = "w" + writer + "-";
+        Map<Integer, Vehicle> own = new HashMap<>();
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS_PER_WRITER; i++) {
+            int operation = random.nextInt(100);
+            if (operation < 40 || ids.isEmpty()) {
+                Vehicle vehicle = randomVehicle(random, prefix);
+                own.put(vehicle.getId(), vehicle.copy());
+                ids.add(vehicle.getId());
+                service.add(vehicle);
+            } else if (operation < 70) {
+                int id = ids.get(random.nextInt(ids.size()));
+                Consumer<Vehicle> changes = randomChanges(random, prefix);
+                changes.accept(own.get(id));
+                service.update(id, changes);
+            } else if (operation < 75) {
+                Set<Integer> changed = new LinkedHashSet<>();
+                for (int j = random.nextInt(20); j >= 0; j--) {
+                    changed.add(ids.get(random.nextInt(ids.size())));
+                }
+
+                Consumer<Vehicle> changes = randomChanges(random, prefix);
+                changed.forEach(id -> changes.accept(own.get(id)));
+                service.updateAll(changed, changes);
+            } else if (operation < 90) {
+                int id = ids.remove(random.nextInt(ids.size()));
+                own.remove(id);
+                service.removeById(id);
+            } else if (operation < 97) {
+                Set<Integer> removed = new LinkedHashSet<>();
+                for (int j = random.nextInt(10); j >= 0 && !ids.isEmpty(); j--) {
+                    removed.add(ids.remove(random.nextInt(ids.size())));
+                }
+
+                own.keySet().removeAll(removed);
+                assertEquals(removed.size(), service.removeAll(removed));
+            } else {
+                int enginePower = random.nextInt(100);
+                service.removeIf(vehicle -> vehicle.getName().startsWith(prefix) && vehicle.getEnginePower() < enginePower);
+                own.values().removeIf(vehicle -> vehicle.getEnginePower() < enginePower);
+                ids.removeIf(id -> !own.containsKey(id));
+            }
+        }
+
+        return stringsById(own.values());
+    }
+
+    /**
+     * Method to query service, while writers change it, every answer must be consistent.
+     * Vehicle, which was given to reader, is never changed later, so it is checked after lock is released
+     * @param service shared service
+     * @param writing is true, while writers are running
+     * @param reader number of reader, which is seed of its queries
+     */
+    private static void read(VehicleService service, AtomicBoolean writing, int reader) {
+        Random random = new Random(-1 - reader);
+        while (writing.get()) {
+            List<Vehicle> page = new ArrayList<>();
+            service.forEachDescending(random.nextInt(100), 50, page::add);
+            for (int i = 0; i < page.size(); i++) {
+                assertNotNull(page.get(i));
+                assertTrue(i == 0 || page.get(i - 1).compareTo(page.get(i)) > 0, "descending order");
+            }
+
+            FuelType fuelType = randomFuelType(random);
+            service.filterLessThanFuelType(fuelType)
+                    .forEach(vehicle -> assertTrue(vehicle.getFuelType().getRank() < fuelType.getRank()));
+            service.within(0, 0, 100, 100).forEach(vehicle -> {
+                assertTrue(vehicle.getCoordinates().getX() >= 0 && vehicle.getCoordinates().getX() <= 100);
+                assertTrue(vehicle.getCoordinates().getY() >= 0 && vehicle.getCoordinates().getY() <= 100);
+            });
+            String prefix = "w" + random.nextInt(WRITERS) + "-";
+            service.findByNamePrefix(prefix).forEach(vehicle -> assertTrue(vehicle.getName().startsWith(prefix)));
+            List<Vehicle> sorted = service.stream()
+                    .sorted(Comparator.comparingInt(Vehicle::getEnginePower).thenComparing(Vehicle::getName))
+                    .toList();
+            for (int i = 1; i < sorted.size(); i++) {
+                assertTrue(sorted.get(i - 1).getEnginePower() <= sorted.get(i).getEnginePower(), "sorted stream");
+            }
+
+            service.averageOfEnginePower().ifPresent(average -> assertTrue(average >= 1));
+            assertTrue(service.getEnginePowerStatistics().getCount() >= 0);
+        }
+    }
+
+    /**
+     * Method to check, that every index gives all vehicles of collection
+     * @param service to check
+     */
+    private static void assertIndexesAgree(VehicleService service) {
+        int size = service.size();
+        int[] descending = new int[1];
+        service.forEachDescending(vehicle -> descending[0]++);
+        assertEquals(size, descending[0], "order index");
+        assertEquals(size, service.within(-1_000, -1_000, 1_000, 1_000).size(), "grid index");
+        int named = 0;
+        for (String prefix : List.of("w", "adder")) {
+            named += service.findByNamePrefix(prefix).size();
+        }
+
+        assertEquals(size, named, "name index");
+        assertEquals(size, service.getEnginePowerStatistics().getCount(), "statistics");
+    }
+
+    private static Consumer<Vehicle> randomChanges(Random random, String prefix) {
+        String name = prefix + random.nextInt(1_000);
+        Coordinates coordinates = randomCoordinates(random);
+        int enginePower = 1 + random.nextInt(1_000);
+        FuelType fuelType = randomFuelType(random);
+        return switch (random.nextInt(4)) {
+            case 0 -> vehicle -> vehicle.setName(name);
+            case 1 -> vehicle -> vehicle.setCoordinates(coordinates);
+            case 2 -> vehicle -> vehicle.setEnginePower(enginePower);
+            default -> vehicle -> vehicle.setFuelType(fuelType);
+        };
+    }
+}
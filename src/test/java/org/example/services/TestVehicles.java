@@ -0,0 +1,92 @@
+package org.example.services;
+
+import org.example.enums.FuelType;
+import org.example.enums.VehicleType;
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.stream.StreamSupport;
+
+/**
+ * Random vehicles for randomized tests of storages, indexes and services, and printed forms of vehicles,
+ * which are compared instead of vehicles themselves
+ */
+final class TestVehicles {
+    private static final String[] NAMES = {"Volvo", "Лада", "Škoda", "", "トヨタ", "Mercedes-Benz Actros", "🚗 car"};
+    private static final VehicleType[] TYPES = VehicleType.values();
+    private static final FuelType[] FUEL_TYPES = FuelType.values();
+
+    private TestVehicles() {
+    }
+
+    /**
+     * Method to create vehicle with given id, its creation date and type are sometimes absent
+     * @param random source of fields
+     * @param id of vehicle
+     * @return vehicle
+     */
+    static Vehicle randomVehicle(Random random, int id) {
+        return new Vehicle(
+                id,
+                randomName(random),
+                randomCoordinates(random),
+                random.nextInt(10) == 0 ? null : LocalDate.ofEpochDay(random.nextInt(40_000)),
+                1 + random.nextInt(1_000),
+                random.nextInt(5) == 0 ? null : TYPES[random.nextInt(TYPES.length)],
+                randomFuelType(random)
+        );
+    }
+
+    /**
+     * Method to create new vehicle, which gets next free id like vehicle added by user
+     * @param random source of fields
+     * @param prefix of name
+     * @return vehicle
+     */
+    static Vehicle randomVehicle(Random random, String prefix) {
+        return new Vehicle(
+                prefix + random.nextInt(1_000),
+                randomCoordinates(random),
+                1 + random.nextInt(1_000),
+                TYPES[random.nextInt(TYPES.length)],
+                randomFuelType(random)
+        );
+    }
+
+    static String randomName(Random random) {
+        return NAMES[random.nextInt(NAMES.length)] + random.nextInt(50);
+    }
+
+    static Coordinates randomCoordinates(Random random) {
+        return new Coordinates(random.nextInt(1_000) - 575, random.nextInt(600) - 285);
+    }
+
+    static FuelType randomFuelType(Random random) {
+        return FUEL_TYPES[random.nextInt(FUEL_TYPES.length)];
+    }
+
+    static List<String> strings(Iterable<Vehicle> vehicles) {
+        return strings(vehicles.spliterator());
+    }
+
+    static List<String> strings(Spliterator<Vehicle> vehicles) {
+        return StreamSupport.stream(vehicles, false).map(Vehicle::toString).toList();
+    }
+
+    /**
+     * Method to get printed forms of vehicles, which don't depend on order of vehicles
+     * @param vehicles to print
+     * @return printed forms by id in ascending order of ids
+     */
+    static Map<Integer, String> stringsById(Iterable<Vehicle> vehicles) {
+        Map<Integer, String> strings = new TreeMap<>();
+        vehicles.forEach(vehicle -> strings.put(vehicle.getId(), vehicle.toString()));
+        return strings;
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.services;
+
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Randomized comparison of grid's queries with scan of all vehicles. Vehicles are first crowded
+ * into small square, so cells are halved, and then most of them are removed, so cells are doubled back
+ * and bounds of grid shrink
+ */
+class VehicleGridIndexTest {
+    private static final int VEHICLES = 20_000;
+
+    @Test
+    void matchesScanWhileGrowingAndShrinking() {
+        Random random = new Random(7);
+        VehicleGridIndex index = new VehicleGridIndex();
+        Map<Integer, Vehicle> vehicles = new HashMap<>();
+        for (int id = 0; id < VEHICLES; id++) {
+            Vehicle vehicle = randomVehicle(random, id, id % 10 == 0 ? 1_000 : 40);
+            index.add(vehicle);
+            vehicles.put(id, vehicle);
+            if (id % 1_000 == 0) {
+                assertQueriesMatch(random, index, vehicles);
+            }
+        }
+
+        List<Integer> ids = new ArrayList<>(vehicles.keySet());
+        ids.sort(Comparator.comparingInt(id -> -vehicles.get(id).getCoordinates().getX()));
+        for (int i = 0; i < ids.size() - 10; i++) {
+            index.remove(vehicles.remove(ids.get(i)));
+            if (i % 1_000 == 0) {
+                assertQueriesMatch(random, index, vehicles);
+            }
+        }
+
+        assertQueriesMatch(random, index, vehicles);
+        index.clear();
+        vehicles.clear();
+        assertQueriesMatch(random, index, vehicles);
+    }
+
+    private static void assertQueriesMatch(Random random, VehicleGridIndex index, Map<Integer, Vehicle> vehicles) {
+        for (int i = 0; i < 20; i++) {
+            int x1 = random.nextInt(1_100) - 575;
+            int y1 = random.nextInt(1_100) - 285;
+            int x2 = x1 + random.nextInt(200) - 100;
+            int y2 = y1 + random.nextInt(200) - 100;
+            List<Integer> found = new ArrayList<>();
+            index.forEachWithin(x1, y1, x2, y2, found::add);
+            int[] expected = vehicles.values().stream()
+                    .filter(vehicle -> isWithin(vehicle.getCoordinates(), x1, y1, x2, y2))
+                    .mapToInt(Vehicle::getId)
+                    .sorted()
+                    .toArray();
+            assertArrayEquals(expected, found.stream().mapToInt(Integer::intValue).sorted().toArray(), "within");
+
+            int count = random.nextInt(50);
+            int[] nearest = vehicles.values().stream()
+                    .sorted(Comparator.comparingDouble((Vehicle vehicle) -> distance(vehicle, x1, y1))
+                            .thenComparingInt(Vehicle::getId))
+                    .limit(count)
+                    .mapToInt(Vehicle::getId)
+                    .toArray();
+            assertArrayEquals(nearest, index.nearest(x1, y1, count), "nearest");
+        }
+    }
+
+    private static boolean isWithin(Coordinates coordinates, int x1, int y1, int x2, int y2) {
+        return coordinates.getX() >= Math.min(x1, x2) && coordinates.getX() <= Math.max(x1, x2)
+                && coordinates.getY() >= Math.min(y1, y2) && coordinates.getY() <= Math.max(y1, y2);
+    }
+
+    private static double distance(Vehicle vehicle, int x, int y) {
+        double dx = (double) vehicle.getCoordinates().getX() - x;
+        double dy = (double) vehicle.getCoordinates().getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    private static Vehicle randomVehicle(Random random, int id, int spread) {
+        Vehicle vehicle = TestVehicles.randomVehicle(random, id);
+        vehicle.setCoordinates(new Coordinates(random.nextInt(spread) - 575 + 1, random.nextInt(spread) - 285 + 1));
+        return vehicle;
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.services;
+
+import org.example.enums.FuelType;
+import org.example.enums.VehicleType;
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Randomized comparison of name indexes over heap and over storage outside of heap with scan of all vehicles.
+ * Names are short and made of few letters, so many vehicles share one name and parts of 1 and 2 chars
+ * are found in many names
+ */
+class VehicleNameIndexTest {
+    private static final int OPERATIONS = 20_000;
+    private static final String LETTERS = "abcя";
+
+    @Test
+    void matchesScan() {
+        assertIndexMatchesScan(new VehicleNameIndex(), null);
+    }
+
+    @Test
+    void offHeapIndexMatchesScan() {
+        OffHeapVehicleStorage storage = new OffHeapVehicleStorage(16);
+        assertIndexMatchesScan(new OffHeapNameIndex(storage), storage);
+    }
+
+    /**
+     * Method to add, rename and remove vehicles in random way and compare index with scan.
+     * Changes are made in storage, if it is given, in the same order as service makes them
+     * @param index to check
+     * @param storage, which index reads names from, or null
+     */
+    private static void assertIndexMatchesScan(NameIndex index, OffHeapVehicleStorage storage) {
+        Random random = new Random(11);
+        Map<Integer, Vehicle> vehicles = new HashMap<>();
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            int operation = random.nextInt(100);
+            if (operation < 50 || ids.isEmpty()) {
+                Vehicle vehicle = vehicle(i, randomText(random, 1 + random.nextInt(5)));
+                if (storage != null) {
+                    storage.add(vehicle);
+                }
+
+                index.add(vehicle);
+                vehicles.put(i, vehicle);
+                ids.add(i);
+            } else if (operation < 75) {
+                Vehicle stored = vehicles.get(ids.get(random.nextInt(ids.size())));
+                Vehicle vehicle = vehicle(stored.getId(), randomText(random, 1 + random.nextInt(5)));
+                index.remove(stored);
+                if (storage != null) {
+                    storage.update(vehicle);
+                }
+
+                index.add(vehicle);
+                vehicles.put(vehicle.getId(), vehicle);
+            } else {
+                int id = ids.remove(random.nextInt(ids.size()));
+                if (storage != null) {
+                    storage.remove(id);
+                }
+
+                index.remove(vehicles.remove(id));
+            }
+
+            if (i % 500 == 0) {
+                assertQueriesMatch(random, index, vehicles);
+            }
+        }
+
+        assertQueriesMatch(random, index, vehicles);
+        if (storage != null) {
+            storage.clear();
+        }
+
+        index.clear();
+        vehicles.clear();
+        assertQueriesMatch(random, index, vehicles);
+    }
+
+    private static void assertQueriesMatch(Random random, NameIndex index, Map<Integer, Vehicle> vehicles) {
+        for (int i = 0; i < 20; i++) {
+            String part = randomText(random, random.nextInt(5));
+            List<Integer> containing = new ArrayList<>();
+            index.forEachContaining(part, containing::add);
+            assertEquals(scan(vehicles, name -> name.contains(part)), containing, "contains " + part);
+
+            List<Integer> withPrefix = new ArrayList<>();
+            index.forEachWithPrefix(part, withPrefix::add);
+            assertEquals(scan(vehicles, name -> name.startsWith(part)), withPrefix, "prefix " + part);
+        }
+    }
+
+    private static List<Integer> scan(Map<Integer, Vehicle> vehicles, Predicate<String> filter) {
+        return vehicles.values().stream()
+                .filter(vehicle -> filter.test(vehicle.getName()))
+                .sorted(Comparator.comparing(Vehicle::getName).thenComparingInt(Vehicle::getId))
+                .map(Vehicle::getId)
+                .toList();
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+
+        return text.toString();
+    }
+
+    private static Vehicle vehicle(int id, String name) {
+        return new Vehicle(id, name, new Coordinates(1, 2), LocalDate.EPOCH, 100, VehicleType.PLANE, FuelType.GASOLINE);
+    }
+}
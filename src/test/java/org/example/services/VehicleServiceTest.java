@@ -0,0 +1,147 @@
+package org.example.services;
+
+import org.example.enums.FsyncPolicy;
+import org.example.enums.StorageType;
+import org.example.models.Coordinates;
+import org.example.models.Vehicle;
+import org.example.repositories.VehicleRepository;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.example.services.TestVehicles.randomCoordinates;
+import static org.example.services.TestVehicles.randomName;
+import static org.example.services.TestVehicles.randomVehicle;
+import static org.example.services.TestVehicles.strings;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Randomized comparison of queries of service over every storage with service over objects.
+ * Storage outside of heap answers queries by scan of its records instead of indexes, results must be the same
+ */
+class VehicleServiceTest {
+    private static final int OPERATIONS = 5_000;
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @EnumSource(StorageType.class)
+    void queriesMatchObjectStorage(StorageType storageType) {
+        VehicleService expected = new VehicleService(List.of(), repository("expected.json"), StorageType.OBJECTS);
+        VehicleService actual = new VehicleService(List.of(), repository("actual.json"), storageType);
+        Random random = new Random(11);
+        for (int i = 0; i < OPERATIONS; i++) {
+            int id = random.nextInt(500);
+            int operation = random.nextInt(100);
+            if (operation < 40) {
+                if (!contains(expected, id)) {
+                    Vehicle vehicle = randomVehicle(random, id);
+                    expected.add(vehicle);
+                    actual.add(vehicle.copy());
+                }
+            } else if (operation < 60) {
+                if (contains(expected, id)) {
+                    String name = randomName(random);
+                    Coordinates coordinates = randomCoordinates(random);
+                    expected.update(id, vehicle -> {
+                        vehicle.setName(name);
+                        vehicle.setCoordinates(coordinates);
+                    });
+                    actual.update(id, vehicle -> {
+                        vehicle.setName(name);
+                        vehicle.setCoordinates(coordinates);
+                    });
+                }
+            } else if (operation < 75) {
+                if (contains(expected, id)) {
+                    expected.removeById(id);
+                    actual.removeById(id);
+                }
+            } else {
+                assertQueriesMatch(random, expected, actual);
+            }
+        }
+
+        assertQueriesMatch(random, expected, actual);
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageType.class)
+    void failedChangesLeaveVehiclesAsStored(StorageType storageType) throws Exception {
+        VehicleService service = new VehicleService(List.of(), repository("failed.json"), storageType);
+        service.save();
+        Random random = new Random(13);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Vehicle vehicle = randomVehicle(random, "v");
+            service.add(vehicle);
+            ids.add(vehicle.getId());
+        }
+
+        List<String> before = strings(service.getCollection());
+        Consumer<Vehicle> failing = vehicle -> {
+            vehicle.setName("Changed");
+            vehicle.setCoordinates(new Coordinates(400, 300));
+            vehicle.setEnginePower(1);
+            if (ids.indexOf(vehicle.getId()) >= 5) {
+                throw new IllegalStateException("Changes of vehicle " + vehicle.getId() + " failed");
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> service.update(ids.get(7), failing));
+        assertThrows(
+                IllegalStateException.class,
+                () -> service.updateAll(Set.of(ids.get(2), ids.get(3), ids.get(6), ids.get(8)), failing)
+        );
+
+        assertEquals(before, strings(service.getCollection()));
+        assertEquals(List.of(), service.findByNamePrefix("Changed"));
+        assertEquals(List.of(), service.within(400, 300, 400, 300));
+        assertEquals(10, service.getEnginePowerStatistics().getCount());
+        assertEquals(before, strings(repository("failed.json").readCopy()));
+    }
+
+    private static void assertQueriesMatch(Random random, VehicleService expected, VehicleService actual) {
+        Coordinates from = randomCoordinates(random);
+        Coordinates to = randomCoordinates(random);
+        assertEquals(
+                strings(expected.within(from.getX(), from.getY(), to.getX(), to.getY())),
+                strings(actual.within(from.getX(), from.getY(), to.getX(), to.getY())),
+                "within"
+        );
+        int count = random.nextInt(30);
+        assertEquals(
+                strings(expected.nearest(from.getX(), from.getY(), count)),
+                strings(actual.nearest(from.getX(), from.getY(), count)),
+                "nearest"
+        );
+
+        String name = randomName(random);
+        String prefix = name.substring(0, random.nextInt(name.length() + 1));
+        assertEquals(strings(expected.findByNamePrefix(prefix)), strings(actual.findByNamePrefix(prefix)), "prefix");
+        int start = random.nextInt(name.length());
+        String part = name.substring(start, start + random.nextInt(name.length() - start + 1));
+        assertEquals(strings(expected.findByNameContaining(part)), strings(actual.findByNameContaining(part)), "part");
+    }
+
+    private VehicleRepository repository(String fileName) {
+        return VehicleRepository.forFile(directory.resolve(fileName).toString(), FsyncPolicy.NEVER);
+    }
+
+    private static boolean contains(VehicleService service, int id) {
+        try {
+            service.getById(id);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.services;
+
+import org.example.enums.StorageType;
+import org.example.models.Vehicle;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Spliterator;
+
+import static org.example.services.TestVehicles.randomVehicle;
+import static org.example.services.TestVehicles.strings;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Randomized comparison of every storage with {@link LinkedHashMap} from id to string of vehicle.
+ * Vehicles are compared by strings, because storage may give new copy of vehicle on every read
+ */
+class VehicleStorageTest {
+    private static final int OPERATIONS = 50_000;
+    private static final int ID_RANGE = 5_000;
+
+    @ParameterizedTest
+    @EnumSource(StorageType.class)
+    void matchesReferenceMap(StorageType storageType) {
+        Random random = new Random(42);
+        VehicleStorage storage = VehicleStorage.create(storageType, 16);
+        Map<Integer, String> reference = new LinkedHashMap<>();
+        Spliterator<Vehicle> snapshot = storage.snapshotSpliterator();
+        List<String> snapshotReference = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            int id = random.nextInt(ID_RANGE);
+            int operation = random.nextInt(100);
+            if (operation < 35) {
+                Vehicle vehicle = randomVehicle(random, id);
+                if (reference.containsKey(id)) {
+                    assertThrows(IllegalArgumentException.class, () -> storage.add(vehicle));
+                } else {
+                    storage.add(vehicle);
+                    reference.put(id, vehicle.toString());
+                }
+            } else if (operation < 40) {
+                addAll(random, storage, reference);
+            } else if (operation < 60) {
+                Vehicle vehicle = randomVehicle(random, id);
+                if (reference.containsKey(id)) {
+                    storage.update(vehicle);
+                    reference.put(id, vehicle.toString());
+                } else {
+                    assertThrows(IllegalArgumentException.class, () -> storage.update(vehicle));
+                }
+            } else if (operation < 85) {
+                Vehicle removed = storage.remove(id);
+                assertEquals(reference.remove(id), removed == null ? null : removed.toString(), "remove " + id);
+            } else if (operation < 86) {
+                int enginePower = random.nextInt(1_000);
+                List<String> removed = new ArrayList<>();
+                storage.removeIf(vehicle -> vehicle.getEnginePower() < enginePower, vehicle -> removed.add(vehicle.toString()));
+                List<String> expected = new ArrayList<>();
+                reference.values().removeIf(vehicle -> {
+                    boolean matches = enginePowerOf(vehicle) < enginePower;
+                    if (matches) {
+                        expected.add(vehicle);
+                    }
+
+                    return matches;
+                });
+                assertEquals(expected, removed);
+            } else if (operation < 87 && random.nextInt(20) == 0) {
+                storage.clear();
+                reference.clear();
+            } else if (operation < 88) {
+                assertEquals(snapshotReference, strings(snapshot));
+                snapshot = storage.snapshotSpliterator();
+                snapshotReference = new ArrayList<>(reference.values());
+            } else {
+                Vehicle vehicle = storage.get(id);
+                assertEquals(reference.get(id), vehicle == null ? null : vehicle.toString(), "get " + id);
+            }
+
+            assertEquals(reference.size(), storage.size());
+        }
+
+        List<String> vehicles = new ArrayList<>();
+        storage.forEach(vehicle -> vehicles.add(vehicle.toString()));
+        assertEquals(new ArrayList<>(reference.values()), vehicles);
+        assertEquals(new ArrayList<>(reference.values()), strings(storage.spliterator()));
+        assertEquals(snapshotReference, strings(snapshot));
+    }
+
+    @ParameterizedTest
+    @EnumSource(StorageType.class)
+    void addAllAddsNothingWhenIdIsTaken(StorageType storageType) {
+        Random random = new Random(7);
+        VehicleStorage storage = VehicleStorage.create(storageType, 16);
+        storage.add(randomVehicle(random, 1));
+        List<Vehicle> vehicles = List.of(randomVehicle(random, 2), randomVehicle(random, 1), randomVehicle(random, 3));
+        assertThrows(IllegalArgumentException.class, () -> storage.addAll(vehicles));
+        assertEquals(1, storage.size());
+        assertNull(storage.get(2));
+        assertNull(storage.get(3));
+    }
+
+    private static void addAll(Random random, VehicleStorage storage, Map<Integer, String> reference) {
+        List<Vehicle> vehicles = new ArrayList<>();
+        Map<Integer, String> added = new LinkedHashMap<>();
+        int count = random.nextInt(50);
+        for (int i = 0; i < count; i++) {
+            int id = random.nextInt(ID_RANGE);
+            if (!added.containsKey(id)) {
+                Vehicle vehicle = randomVehicle(random, id);
+                vehicles.add(vehicle);
+                added.put(id, vehicle.toString());
+            }
+        }
+
+        if (added.keySet().stream().anyMatch(reference::containsKey)) {
+            assertThrows(IllegalArgumentException.class, () -> storage.addAll(vehicles));
+        } else {
+            storage.addAll(vehicles);
+            reference.putAll(added);
+        }
+    }
+
+    private static int enginePowerOf(String vehicle) {
+        int start = vehicle.indexOf("enginePower=") + "enginePower=".length();
+        return Integer.parseInt(vehicle.substring(start, vehicle.indexOf(',', start)));
+    }
+}
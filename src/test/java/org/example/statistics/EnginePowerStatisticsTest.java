@@ -0,0 +1,58 @@
+package org.example.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Randomized comparison of statistics with {@link TreeMap} from engine's power to its count.
+ * Powers are taken from small and large ranges, so minimum and maximum are often removed
+ */
+class EnginePowerStatisticsTest {
+    private static final int OPERATIONS = 100_000;
+
+    @Test
+    void matchesReferenceCounts() {
+        Random random = new Random(3);
+        EnginePowerStatistics statistics = new EnginePowerStatistics();
+        TreeMap<Integer, Integer> reference = new TreeMap<>();
+        List<Integer> added = new ArrayList<>();
+        long sum = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            int operation = random.nextInt(100);
+            if (operation < 50 || added.isEmpty()) {
+                int power = random.nextBoolean() ? 1 + random.nextInt(200) : 1 + random.nextInt(Integer.MAX_VALUE - 1);
+                statistics.add(power);
+                reference.merge(power, 1, Integer::sum);
+                added.add(power);
+                sum += power;
+            } else if (operation < 99) {
+                int power = added.remove(random.nextInt(added.size()));
+                statistics.remove(power);
+                reference.merge(power, -1, (count, one) -> count == 1 ? null : count + one);
+                sum -= power;
+            } else {
+                EnginePowerStatistics copy = new EnginePowerStatistics();
+                copy.merge(statistics);
+                statistics = copy;
+            }
+
+            assertEquals(added.size(), statistics.getCount());
+            assertEquals(sum, statistics.getSum());
+            assertEquals(reference.isEmpty() ? 0 : reference.firstKey(), statistics.getMin(), "min");
+            assertEquals(reference.isEmpty() ? 0 : reference.lastKey(), statistics.getMax(), "max");
+        }
+
+        statistics.clear();
+        assertEquals(0, statistics.getCount());
+        assertEquals(0, statistics.getMin());
+        EnginePowerStatistics cleared = statistics;
+        assertThrows(IllegalArgumentException.class, () -> cleared.remove(1));
+    }
+}